@@ -3,19 +3,26 @@ package ru.practicum.shareit.booking;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.booking.dto.BookingApproveDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.client.BaseClient;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Service
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
 
     @Autowired
     public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
@@ -27,24 +34,37 @@ public class BookingClient extends BaseClient {
         );
     }
 
-    public ResponseEntity<Object> getBookings(long userId, BookingState state, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
-                "state", state.name(),
-                "from", from,
-                "size", size
-        );
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+    public ResponseEntity<Object> getBookings(long userId, BookingState state, Integer from, Integer size,
+                                              boolean withTotal, String cursor) {
+        return getBookingList("", userId, state, from, size, withTotal, cursor);
     }
 
-    public ResponseEntity<Object> getBookingsForOwner(long userId, BookingState state, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
-                "state", state.name(),
-                "from", from,
-                "size", size
-        );
-        return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
+    public ResponseEntity<Object> getBookingsForOwner(long userId, BookingState state, Integer from, Integer size,
+                                                      boolean withTotal, String cursor) {
+        return getBookingList("/owner", userId, state, from, size, withTotal, cursor);
     }
 
+    public void exportBookingsForOwner(long userId, BookingState state, HttpServletResponse response)
+            throws IOException {
+        getStream("/owner/export?state={state}", userId, Map.of("state", state.name()), NDJSON, response);
+    }
+
+    private ResponseEntity<Object> getBookingList(String path, long userId, BookingState state, Integer from,
+                                                  Integer size, boolean withTotal, String cursor) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("state", state.name());
+        parameters.put("size", size);
+        parameters.put("withTotal", withTotal);
+        StringBuilder query = new StringBuilder(path).append("?state={state}&size={size}&withTotal={withTotal}");
+        if (cursor != null) {
+            parameters.put("cursor", cursor);
+            query.append("&cursor={cursor}");
+        } else {
+            parameters.put("from", from);
+            query.append("&from={from}");
+        }
+        return get(query.toString(), userId, parameters);
+    }
 
     public ResponseEntity<Object> bookItem(long userId, BookItemRequestDto requestDto) {
         return post("", userId, requestDto);
@@ -60,4 +80,8 @@ public class BookingClient extends BaseClient {
         );
         return patch("/" + bookingId + "?approved={approved}", userId, parameters);
     }
-}
\ No newline at end of file
+
+    public ResponseEntity<Object> patchBookings(long userId, List<BookingApproveDto> decisions) {
+        return patch("/bulk", userId, decisions);
+    }
+}
@@ -14,12 +14,19 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.booking.dto.BookingApproveDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.exception.model.BookingException;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+import java.io.IOException;
+import java.util.List;
 
 @RestController
 @RequestMapping(path = "/bookings")
@@ -33,24 +40,39 @@ public class BookingController {
     public ResponseEntity<Object> getUserBookings(@RequestHeader("X-Sharer-User-Id") long userId,
                                                   @RequestParam(name = "state", defaultValue = "all") String stateParam,
                                                   @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                                  @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+                                                  @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                                  @RequestParam(defaultValue = "false") boolean withTotal,
+                                                  @RequestParam(required = false) String cursor) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new BookingException("Unknown state: " + stateParam));
         log.info("Обратботка запроса на получение всех бронирований пользователя с параметрами: state {}, " +
-                "userId={}, from={}, size={}", stateParam, userId, from, size);
-        return bookingClient.getBookings(userId, state, from, size);
+                "userId={}, from={}, size={}, withTotal={}, cursor={}", stateParam, userId, from, size, withTotal, cursor);
+        return bookingClient.getBookings(userId, state, from, size, withTotal, cursor);
     }
 
     @GetMapping("/owner")
     public ResponseEntity<Object> getOwnerBookings(@RequestParam(name = "state", required = false, defaultValue = "ALL") String stateParam,
                                                    @RequestHeader("X-Sharer-User-Id") long ownerId,
                                                    @PositiveOrZero @RequestParam(defaultValue = "0") int from,
-                                                   @Positive @RequestParam(required = false, defaultValue = "10") Integer size) {
+                                                   @Positive @RequestParam(required = false, defaultValue = "10") Integer size,
+                                                   @RequestParam(defaultValue = "false") boolean withTotal,
+                                                  @RequestParam(required = false) String cursor) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new BookingException("Unknown state: " + stateParam));
         log.info("Обратботка запроса на получение всех бронирований владельца с параметрами: state {}, " +
-                "ownerId={}, from={}, size={}", stateParam, ownerId, from, size);
-        return bookingClient.getBookingsForOwner(ownerId, state, from, size);
+                "ownerId={}, from={}, size={}, withTotal={}, cursor={}", stateParam, ownerId, from, size, withTotal, cursor);
+        return bookingClient.getBookingsForOwner(ownerId, state, from, size, withTotal, cursor);
+    }
+
+    @GetMapping("/owner/export")
+    public void exportOwnerBookings(@RequestParam(name = "state", required = false, defaultValue = "ALL") String stateParam,
+                                    @RequestHeader("X-Sharer-User-Id") long ownerId,
+                                    HttpServletResponse response) throws IOException {
+        BookingState state = BookingState.from(stateParam)
+                .orElseThrow(() -> new BookingException("Unknown state: " + stateParam));
+        log.info("Обработка запроса на выгрузку всех бронирований владельца с параметрами: state {}, ownerId={}",
+                stateParam, ownerId);
+        bookingClient.exportBookingsForOwner(ownerId, state, response);
     }
 
     @GetMapping("/{bookingId}")
@@ -79,4 +101,11 @@ public class BookingController {
                 ownerId, bookingId, approved);
         return bookingClient.patchBooking(ownerId, bookingId, approved);
     }
-}
\ No newline at end of file
+
+    @PatchMapping("/bulk")
+    public ResponseEntity<Object> patchBookings(@RequestHeader("X-Sharer-User-Id") long ownerId,
+                                                @RequestBody @NotEmpty @Size(max = 1000) List<@Valid @NotNull BookingApproveDto> decisions) {
+        log.info("Обработка запроса на подтверждение {} бронирований владельцем с id={}", decisions.size(), ownerId);
+        return bookingClient.patchBookings(ownerId, decisions);
+    }
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import javax.validation.constraints.NotNull;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class BookingApproveDto {
+    @NotNull(message = "Не передано бронирование")
+    private Long bookingId;
+    @NotNull(message = "Не передано решение по бронированию")
+    private Boolean isApproved;
+}
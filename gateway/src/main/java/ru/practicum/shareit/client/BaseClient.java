@@ -9,14 +9,27 @@ import org.springframework.lang.Nullable;
 import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
 
 public class BaseClient {
     protected final RestTemplate rest;
+    protected final RestTemplate streamingRest;
 
     public BaseClient(RestTemplate rest) {
+        this(rest, rest);
+    }
+
+    /**
+     * Для потоковой загрузки можно передать отдельный клиент, чтобы настройки его фабрики запросов
+     * не затрагивали остальные запросы.
+     */
+    public BaseClient(RestTemplate rest, RestTemplate streamingRest) {
         this.rest = rest;
+        this.streamingRest = streamingRest;
     }
 
     protected ResponseEntity<Object> get(String path) {
@@ -87,6 +100,49 @@ public class BaseClient {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
+    /**
+     * Тело передается на сервер по мере чтения, без копии в памяти шлюза,
+     * если фабрика запросов клиента для потоковой загрузки не буферизует тело.
+     */
+    protected ResponseEntity<Object> postStream(String path, long userId, MediaType contentType, InputStream body) {
+        ResponseEntity<Object> shareitServerResponse;
+        try {
+            shareitServerResponse = streamingRest.execute(path, HttpMethod.POST, request -> {
+                request.getHeaders().addAll(defaultHeaders(userId));
+                request.getHeaders().setContentType(contentType);
+                body.transferTo(request.getBody());
+            }, streamingRest.responseEntityExtractor(Object.class));
+        } catch (HttpStatusCodeException e) {
+            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+        }
+        return prepareGatewayResponse(shareitServerResponse);
+    }
+
+    /**
+     * Ответ сервера копируется клиенту по мере получения, без чтения целиком в память шлюза.
+     */
+    protected void getStream(String path, long userId, Map<String, Object> parameters, MediaType accept,
+                             HttpServletResponse response) throws IOException {
+        try {
+            rest.execute(path, HttpMethod.GET, request -> {
+                request.getHeaders().addAll(defaultHeaders(userId));
+                request.getHeaders().setAccept(List.of(accept, MediaType.APPLICATION_JSON));
+            }, shareitServerResponse -> {
+                response.setStatus(shareitServerResponse.getRawStatusCode());
+                MediaType contentType = shareitServerResponse.getHeaders().getContentType();
+                if (contentType != null) {
+                    response.setContentType(contentType.toString());
+                }
+                shareitServerResponse.getBody().transferTo(response.getOutputStream());
+                return null;
+            }, parameters);
+        } catch (HttpStatusCodeException e) {
+            response.setStatus(e.getRawStatusCode());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getOutputStream().write(e.getResponseBodyAsByteArray());
+        }
+    }
+
     private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
         HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
 
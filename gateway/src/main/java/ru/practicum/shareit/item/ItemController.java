@@ -2,6 +2,9 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -14,13 +17,16 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.exception.model.BookingException;
 import ru.practicum.shareit.item.dto.CommentCreateDto;
 import ru.practicum.shareit.item.dto.ItemCreateDto;
 import ru.practicum.shareit.item.dto.ItemUpdateDto;
 
 import javax.validation.Valid;
+import java.io.InputStream;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.time.LocalDateTime;
 
 @RestController
 @RequestMapping("/items")
@@ -33,10 +39,11 @@ public class ItemController {
     @GetMapping
     public ResponseEntity<Object> getUserItems(@RequestHeader(value = "X-Sharer-User-Id") long ownerId,
                                                @PositiveOrZero @RequestParam(defaultValue = "0") int from,
-                                               @Positive @RequestParam(defaultValue = "10") int size) {
-        log.info("Обработка запроса на получение всех вещей пользователя с id = {} и параметрами from={}, size={}",
-                ownerId, from, size);
-        return itemClient.getUserItems(ownerId, from, size);
+                                               @Positive @RequestParam(defaultValue = "10") int size,
+                                               @RequestParam(required = false) String cursor) {
+        log.info("Обработка запроса на получение всех вещей пользователя с id = {} и параметрами from={}, size={}, cursor={}",
+                ownerId, from, size, cursor);
+        return itemClient.getUserItems(ownerId, from, size, cursor);
     }
 
     @GetMapping("/{itemId}")
@@ -50,10 +57,32 @@ public class ItemController {
     public ResponseEntity<Object> searchItems(@RequestParam(value = "text") String text,
                                               @PositiveOrZero @RequestParam(defaultValue = "0") int from,
                                               @Positive @RequestParam(defaultValue = "10") int size,
+                                              @RequestParam(required = false) String cursor,
+                                              @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                              @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
                                               @RequestHeader("X-Sharer-User-Id") long userId) {
-        log.info("Обработка запроса на выполнение поиска по строке {} c параметрами from = {}, size = {} от пользоввателя с id = {}",
-                text, from, size, userId);
-        return itemClient.searchItems(text, userId, from, size);
+        if ((start == null) != (end == null)) {
+            throw new BookingException("Период поиска свободных вещей задан не полностью");
+        }
+        if (start != null && !start.isBefore(end)) {
+            throw new BookingException("Начало периода должно быть раньше его конца");
+        }
+        log.info("Обработка запроса на выполнение поиска по строке {} c параметрами from = {}, size = {}, cursor = {}, " +
+                "start = {}, end = {} от пользоввателя с id = {}", text, from, size, cursor, start, end, userId);
+        return itemClient.searchItems(text, userId, from, size, cursor, start, end);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public ResponseEntity<Object> getItemAvailability(@PathVariable long itemId,
+                                                      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                      @RequestHeader("X-Sharer-User-Id") long userId) {
+        if (!from.isBefore(to)) {
+            throw new BookingException("Начало периода должно быть раньше его конца");
+        }
+        log.info("Обработка запроса на получение занятости вещи с id = {} с {} по {} от пользователя с id = {}",
+                itemId, from, to, userId);
+        return itemClient.getItemAvailability(userId, itemId, from, to);
     }
 
     @PostMapping
@@ -63,6 +92,17 @@ public class ItemController {
         return itemClient.createItem(ownerId, item);
     }
 
+    /**
+     * Строки проверяет сервер по мере чтения, шлюз передает тело без разбора.
+     */
+    @PostMapping(value = "/bulk", consumes = {"application/x-ndjson", "text/csv"})
+    public ResponseEntity<Object> importItems(@RequestHeader("X-Sharer-User-Id") long ownerId,
+                                              @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                              InputStream body) {
+        log.info("Обработка запроса на загрузку вещей в формате {} пользователем с id = {}", contentType, ownerId);
+        return itemClient.importItems(ownerId, contentType, body);
+    }
+
     @PatchMapping("/{itemId}")
     public ResponseEntity<Object> patchItem(@RequestHeader("X-Sharer-User-Id") long ownerId,
                                             @PathVariable long itemId,
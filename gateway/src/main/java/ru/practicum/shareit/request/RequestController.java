@@ -42,9 +42,11 @@ public class RequestController {
     @GetMapping("/all")
     public ResponseEntity<Object> getAllOthers(@PositiveOrZero @RequestParam(defaultValue = "0") int from,
                                                @Positive @RequestParam(defaultValue = "10") int size,
+                                               @RequestParam(required = false) String cursor,
                                                @RequestHeader("X-Sharer-User-Id") long userId) {
-        log.info("Обработка запроса на получение чужих обращений с параметрами from = {}, size = {}", from, size);
-        return requestClient.getAllOthers(userId, from, size);
+        log.info("Обработка запроса на получение чужих обращений с параметрами from = {}, size = {}, cursor = {}",
+                from, size, cursor);
+        return requestClient.getAllOthers(userId, from, size, cursor);
     }
 
     @GetMapping("/{requestId}")
@@ -1,9 +1,14 @@
 package ru.practicum.shareit.booking;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -13,11 +18,20 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dto.BookingApproveDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.model.StateStatus;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
+import ru.practicum.shareit.pagination.PageCursor;
+import ru.practicum.shareit.pagination.SliceHeaders;
+import ru.practicum.shareit.pagination.TimeCursor;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @RestController
@@ -25,7 +39,10 @@ import java.util.List;
 @RequiredArgsConstructor
 @Slf4j
 public class BookingController {
+    public static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     private final BookingService bookingService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     public BookingDto createBooking(@RequestBody BookingCreateDto dto,
@@ -48,6 +65,15 @@ public class BookingController {
         return newStatusBooking;
     }
 
+    @PatchMapping("/bulk")
+    public List<BookingDecisionDto> patchBookings(@RequestHeader("X-Sharer-User-Id") long ownerId,
+                                                  @RequestBody List<BookingApproveDto> decisions) {
+        log.info("Обработка запроса на подтверждение {} бронирований пользователем с id = {}", decisions.size(), ownerId);
+        List<BookingDecisionDto> results = bookingService.approveBookings(decisions, ownerId);
+        log.info("Получены результаты по {} бронированиям", results.size());
+        return results;
+    }
+
     @GetMapping("/{bookingId}")
     public BookingDto getBookingById(@RequestHeader("X-Sharer-User-Id") long userId,
                                      @PathVariable long bookingId) {
@@ -57,33 +83,81 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<BookingDto> getUserBookings(@RequestParam(name = "state", required = false, defaultValue = "ALL") String state,
-                                            @RequestHeader("X-Sharer-User-Id") long userId,
-                                            @RequestParam(defaultValue = "0") int from,
-                                            @RequestParam(required = false, defaultValue = "10") int size) {
-        Sort startDesc = Sort.by(Sort.Direction.DESC, "start");
-        PageRequest request = PageRequest.of(from / size, size, startDesc);
+    public ResponseEntity<List<BookingDto>> getUserBookings(@RequestParam(name = "state", required = false, defaultValue = "ALL") String state,
+                                                            @RequestHeader("X-Sharer-User-Id") long userId,
+                                                            @RequestParam(defaultValue = "0") int from,
+                                                            @RequestParam(required = false, defaultValue = "10") int size,
+                                                            @RequestParam(defaultValue = "false") boolean withTotal,
+                                                            @RequestParam(required = false) String cursor) {
+        TimeCursor after = cursor == null ? null : TimeCursor.decode(cursor);
+        Pageable request = pageRequest(after == null ? from : 0, size);
         StateStatus value = StateStatus.getFromString(state);
         log.info("Обработка запроса на получение всех бронирований пользователя с id = {}, параметр поиска: {}", userId, value);
-        List<BookingDto> bookings = bookingService.getAllBookingsForUser(userId, value, request);
-        log.info("Получен список длиной {}", bookings.size());
-        return bookings;
-
+        Slice<BookingDto> bookings = bookingService.getAllBookingsForUser(userId, value, after, request);
+        log.info("Получен список длиной {}", bookings.getNumberOfElements());
+        ResponseEntity.BodyBuilder response = sliceResponse(bookings);
+        if (withTotal) {
+            response.header(SliceHeaders.TOTAL_COUNT_HEADER,
+                    String.valueOf(bookingService.countBookingsForUser(userId, value)));
+        }
+        return response.body(bookings.getContent());
     }
 
     @GetMapping("/owner")
-    public List<BookingDto> getOwnerBookings(@RequestParam(name = "state", required = false, defaultValue = "ALL") String state,
-                                             @RequestHeader("X-Sharer-User-Id") long ownerId,
-                                             @RequestParam(defaultValue = "0") int from,
-                                             @RequestParam(required = false, defaultValue = "10") Integer size) {
-        Sort startDesc = Sort.by(Sort.Direction.DESC, "start");
-        PageRequest request = PageRequest.of(from / size, size, startDesc);
+    public ResponseEntity<List<BookingDto>> getOwnerBookings(@RequestParam(name = "state", required = false, defaultValue = "ALL") String state,
+                                                             @RequestHeader("X-Sharer-User-Id") long ownerId,
+                                                             @RequestParam(defaultValue = "0") int from,
+                                                             @RequestParam(required = false, defaultValue = "10") Integer size,
+                                                             @RequestParam(defaultValue = "false") boolean withTotal,
+                                                             @RequestParam(required = false) String cursor) {
+        TimeCursor after = cursor == null ? null : TimeCursor.decode(cursor);
+        Pageable request = pageRequest(after == null ? from : 0, size);
         StateStatus value = StateStatus.getFromString(state);
         log.info("Обработка запроса на получение всех бронирований пользователя с id = {}, параметр поиска: {}", ownerId, value);
-        List<BookingDto> bookings = bookingService.getAllBookingsForOwner(ownerId, value, request);
-        log.info("Получен список длиной {}", bookings.size());
-        return bookings;
+        Slice<BookingDto> bookings = bookingService.getAllBookingsForOwner(ownerId, value, after, request);
+        log.info("Получен список длиной {}", bookings.getNumberOfElements());
+        ResponseEntity.BodyBuilder response = sliceResponse(bookings);
+        if (withTotal) {
+            response.header(SliceHeaders.TOTAL_COUNT_HEADER,
+                    String.valueOf(bookingService.countBookingsForOwner(ownerId, value)));
+        }
+        return response.body(bookings.getContent());
     }
 
+    /**
+     * Вся история бронирований владельца в формате NDJSON, по строке на бронирование. Строки пишутся в ответ
+     * по мере чтения из БД, поэтому память не зависит от длины истории.
+     */
+    @GetMapping("/owner/export")
+    public ResponseEntity<StreamingResponseBody> exportOwnerBookings(@RequestParam(name = "state", required = false, defaultValue = "ALL") String state,
+                                                                     @RequestHeader("X-Sharer-User-Id") long ownerId) {
+        StateStatus value = StateStatus.getFromString(state);
+        log.info("Обработка запроса на выгрузку всех бронирований владельца с id = {}, параметр поиска: {}", ownerId, value);
+        bookingService.requireItemOwner(ownerId);
+        ObjectWriter writer = objectMapper.writerFor(BookingDto.class);
+        StreamingResponseBody body = out -> bookingService.exportBookingsForOwner(ownerId, value, booking -> {
+            try {
+                out.write(writer.writeValueAsBytes(booking));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+
+    private Pageable pageRequest(int from, int size) {
+        Sort startDesc = Sort.by(Sort.Direction.DESC, "start").and(Sort.by(Sort.Direction.DESC, "id"));
+        return OffsetPageRequest.of(from, size, startDesc);
+    }
 
+    private ResponseEntity.BodyBuilder sliceResponse(Slice<BookingDto> bookings) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .header(SliceHeaders.HAS_NEXT_HEADER, String.valueOf(bookings.hasNext()));
+        if (bookings.hasNext()) {
+            BookingDto last = bookings.getContent().get(bookings.getNumberOfElements() - 1);
+            response.header(PageCursor.NEXT_CURSOR_HEADER, new TimeCursor(last.getStart(), last.getId()).encode());
+        }
+        return response;
+    }
 }
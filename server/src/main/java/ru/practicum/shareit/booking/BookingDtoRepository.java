@@ -0,0 +1,25 @@
+package ru.practicum.shareit.booking;
+
+import com.querydsl.core.types.Predicate;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.booking.dto.BookingDto;
+
+import java.util.stream.Stream;
+
+public interface BookingDtoRepository {
+
+    /**
+     * Страница бронирований сразу в виде BookingDto: выбираются только поля ответа, сущности не загружаются.
+     * Наличие следующей страницы определяется по лишней строке выборки, без запроса количества.
+     */
+    Slice<BookingDto> findBookingDtos(Predicate predicate, Pageable pageable);
+
+    /**
+     * Все подходящие бронирования в виде BookingDto через курсор только вперед: строки читаются из БД
+     * порциями по fetchSize и в памяти не накапливаются. Поток нужно закрыть и прочитать внутри транзакции,
+     * PostgreSQL без транзакции игнорирует размер порции и отдает всю выборку сразу.
+     */
+    Stream<BookingDto> streamBookingDtos(Predicate predicate, Sort sort, int fetchSize);
+}
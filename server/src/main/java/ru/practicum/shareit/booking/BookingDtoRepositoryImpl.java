@@ -0,0 +1,74 @@
+package ru.practicum.shareit.booking;
+
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.Projections;
+import com.querydsl.core.types.dsl.PathBuilder;
+import com.querydsl.jpa.JPQLQuery;
+import com.querydsl.jpa.impl.JPAQuery;
+import org.hibernate.annotations.QueryHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.support.Querydsl;
+import ru.practicum.shareit.booking.dto.BookerDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingItemDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.QBooking;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.stream.Stream;
+
+public class BookingDtoRepositoryImpl implements BookingDtoRepository {
+    private final EntityManager entityManager;
+    private final Querydsl querydsl;
+
+    public BookingDtoRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+        this.querydsl = new Querydsl(entityManager,
+                new PathBuilder<>(Booking.class, QBooking.booking.getMetadata()));
+    }
+
+    @Override
+    public Slice<BookingDto> findBookingDtos(Predicate predicate, Pageable pageable) {
+        JPQLQuery<BookingDto> query = selectBookingDtos(predicate);
+        if (pageable.isUnpaged()) {
+            return new SliceImpl<>(query.fetch());
+        }
+        querydsl.applySorting(pageable.getSort(), query);
+        List<BookingDto> content = query
+                .offset(pageable.getOffset())
+                .limit(pageable.getPageSize() + 1L)
+                .fetch();
+        boolean hasNext = content.size() > pageable.getPageSize();
+        if (hasNext) {
+            content = content.subList(0, pageable.getPageSize());
+        }
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    @Override
+    public Stream<BookingDto> streamBookingDtos(Predicate predicate, Sort sort, int fetchSize) {
+        JPAQuery<BookingDto> query = selectBookingDtos(predicate);
+        querydsl.applySorting(sort, query);
+        return query.setHint(QueryHints.FETCH_SIZE, fetchSize)
+                .setHint(QueryHints.READ_ONLY, true)
+                .stream();
+    }
+
+    private JPAQuery<BookingDto> selectBookingDtos(Predicate predicate) {
+        QBooking booking = QBooking.booking;
+        return new JPAQuery<>(entityManager)
+                .select(Projections.constructor(BookingDto.class,
+                        booking.id,
+                        booking.start,
+                        booking.end,
+                        booking.status,
+                        Projections.constructor(BookerDto.class, booking.booker.id),
+                        Projections.constructor(BookingItemDto.class, booking.item.id, booking.item.name)))
+                .from(booking)
+                .where(predicate);
+    }
+}
@@ -1,11 +1,15 @@
 package ru.practicum.shareit.booking;
 
 import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookerDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
-import ru.practicum.shareit.booking.dto.ItemBookingDto;
+import ru.practicum.shareit.booking.dto.BookingItemDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.ItemBookingRef;
+
+import java.time.LocalDateTime;
 
 @Component
 public class BookingMapper {
@@ -23,16 +27,38 @@ public class BookingMapper {
                 .id(booking.getId())
                 .start(booking.getStart())
                 .end(booking.getEnd())
-                .item(booking.getItem())
-                .booker(booking.getBooker())
+                .item(BookingItemDto.builder()
+                        .id(booking.getItem().getId())
+                        .name(booking.getItem().getName())
+                        .build())
+                .booker(BookerDto.builder()
+                        .id(booking.getBooker().getId())
+                        .build())
                 .status(booking.getStatus())
                 .build();
     }
 
-    public ItemBookingDto bookingToItemBookingDto(Booking booking) {
-        return ItemBookingDto.builder()
-                .id(booking.getId())
-                .bookerId(booking.getBooker().getId())
-                .build();
+    public ItemBookingRef bookingDtoToItemBookingRef(BookingDto dto) {
+        return new ItemBookingRef() {
+            @Override
+            public Long getId() {
+                return dto.getId();
+            }
+
+            @Override
+            public Long getItemId() {
+                return dto.getItem().getId();
+            }
+
+            @Override
+            public Long getBookerId() {
+                return dto.getBooker().getId();
+            }
+
+            @Override
+            public LocalDateTime getStart() {
+                return dto.getStart();
+            }
+        };
     }
 }
@@ -1,20 +1,60 @@
 package ru.practicum.shareit.booking;
 
 import com.querydsl.core.types.dsl.BooleanExpression;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.querydsl.QuerydslPredicateExecutor;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.booking.availability.BookingInterval;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingDecisionView;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.ItemBookingView;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface BookingRepository extends JpaRepository<Booking, Long>, QuerydslPredicateExecutor<Booking> {
+public interface BookingRepository extends JpaRepository<Booking, Long>, QuerydslPredicateExecutor<Booking>,
+        BookingDtoRepository {
 
-    Optional<Booking> findByIdAndItemOwnerId(long itemId, long itemOwnerId);
+    @Override
+    @EntityGraph(attributePaths = "item")
+    Optional<Booking> findById(Long id);
+
+    boolean existsByIdAndOwnerId(long id, long ownerId);
+
+    /**
+     * Бронирования владельца из переданных с блокировкой строк до конца транзакции: статус, по которому принято
+     * решение, не изменится до условного обновления. Строки блокируются по возрастанию id, чтобы параллельные
+     * пакетные решения с общими бронированиями не взаимоблокировались.
+     */
+    @Query(value = "select b.id as id, b.item_id as itemId, b.booker_id as bookerId, b.start_time as start, " +
+            "b.status as status " +
+            "from bookings as b " +
+            "where b.id in (:ids) " +
+            "and b.owner_id = :ownerId " +
+            "order by b.id " +
+            "for update", nativeQuery = true)
+    List<BookingDecisionView> lockDecisionViews(@Param("ids") Collection<Long> ids, @Param("ownerId") long ownerId);
+
+    /**
+     * Меняет статус только ожидающих подтверждения бронирований владельца, возвращает число измененных строк.
+     * Загруженные ранее бронирования после обновления отсоединяются, чтобы не читать из них старый статус.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Booking as b " +
+            "set b.status = :status " +
+            "where b.id in :ids " +
+            "and b.ownerId = :ownerId " +
+            "and b.status = 'WAITING'")
+    int updateStatusIfWaiting(@Param("ids") Collection<Long> ids, @Param("ownerId") long ownerId,
+                              @Param("status") BookingStatus status);
 
     @Query("select b " +
             "from Booking as b " +
@@ -24,28 +64,68 @@ public interface BookingRepository extends JpaRepository<Booking, Long>, Queryds
             "and b.status != 'REJECTED'")
     List<Booking> checkItemBookings(long itemId, LocalDateTime start, LocalDateTime end);
 
+    @Query("select new ru.practicum.shareit.booking.availability.BookingInterval(b.id, b.item.id, b.start, b.end) " +
+            "from Booking as b " +
+            "where b.id > ?1 " +
+            "and b.status != ?2 " +
+            "order by b.id")
+    List<BookingInterval> findIntervalsAfter(long id, BookingStatus excludedStatus, Pageable pageable);
+
+    @Query("select new ru.practicum.shareit.booking.availability.BookingInterval(b.id, b.item.id, b.start, b.end) " +
+            "from Booking as b " +
+            "where b.booker.id = ?1")
+    List<BookingInterval> findIntervalsByBookerId(long bookerId);
+
+    @Query("select new ru.practicum.shareit.booking.availability.BookingInterval(b.id, b.item.id, b.start, b.end) " +
+            "from Booking as b " +
+            "where b.item.id = ?1 " +
+            "and b.start < ?3 " +
+            "and b.end > ?2 " +
+            "and b.status != ?4 " +
+            "order by b.start, b.id")
+    List<BookingInterval> findIntervalsForItem(long itemId, LocalDateTime from, LocalDateTime to,
+                                               BookingStatus excludedStatus);
+
+    @Query("select distinct b.item.id " +
+            "from Booking as b " +
+            "where b.item.id in ?1 " +
+            "and b.start < ?3 " +
+            "and b.end > ?2 " +
+            "and b.status != 'REJECTED'")
+    List<Long> findBusyItemIds(Collection<Long> itemIds, LocalDateTime start, LocalDateTime end);
+
     Optional<Booking> findFirstBy(BooleanExpression e, Sort sort);
 
-    Optional<Booking> findFirstByItemIdAndStartBeforeAndStatusIs(Long id,
-                                                                 LocalDateTime now,
-                                                                 BookingStatus bookingStatus,
-                                                                 Sort start);
+    /**
+     * Последнее начавшееся подтвержденное бронирование каждой вещи: не более одной строки на вещь.
+     */
+    @Query(value = "select t.id as id, t.item_id as itemId, t.booker_id as bookerId, t.start_time as start " +
+            "from (select b.id, b.item_id, b.booker_id, b.start_time, " +
+            "row_number() over (partition by b.item_id order by b.start_time desc, b.id desc) as rn " +
+            "from bookings as b " +
+            "where b.item_id in (:itemIds) " +
+            "and b.start_time < :now " +
+            "and b.status = 'APPROVED') as t " +
+            "where t.rn = 1", nativeQuery = true)
+    List<ItemBookingView> findLastApprovedByItemIds(@Param("itemIds") Collection<Long> itemIds,
+                                                    @Param("now") LocalDateTime now);
 
-    Optional<Booking> findFirstByItemIdAndStartAfterAndStatusIsNot(Long id,
-                                                                   LocalDateTime now,
-                                                                   BookingStatus bookingStatus,
-                                                                   Sort start);
+    /**
+     * Ближайшее будущее неотклоненное бронирование каждой вещи: не более одной строки на вещь.
+     */
+    @Query(value = "select t.id as id, t.item_id as itemId, t.booker_id as bookerId, t.start_time as start " +
+            "from (select b.id, b.item_id, b.booker_id, b.start_time, " +
+            "row_number() over (partition by b.item_id order by b.start_time, b.id) as rn " +
+            "from bookings as b " +
+            "where b.item_id in (:itemIds) " +
+            "and b.start_time > :now " +
+            "and b.status <> 'REJECTED') as t " +
+            "where t.rn = 1", nativeQuery = true)
+    List<ItemBookingView> findNextNotRejectedByItemIds(@Param("itemIds") Collection<Long> itemIds,
+                                                       @Param("now") LocalDateTime now);
 
     Optional<Booking> findFirstByBookerIdAndItemIdAndEndBefore(Long authorId,
                                                                Long itemId,
                                                                LocalDateTime now,
                                                                Sort end);
-
-    List<Booking> findAllByItemIdInAndStartBeforeAndStatusIs(List<Long> itemIds,
-                                                             LocalDateTime now,
-                                                             BookingStatus bookingStatus);
-
-    List<Booking> findAllByItemIdInAndStartAfterAndStatusIsNot(List<Long> itemIds,
-                                                               LocalDateTime now,
-                                                               BookingStatus bookingStatus);
 }
@@ -0,0 +1,43 @@
+package ru.practicum.shareit.booking.availability;
+
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.ItemBookingRef;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Проверка пересечения нового бронирования с уже существующими неотклоненными бронированиями вещи.
+ */
+public interface BookingAvailability {
+
+    /**
+     * Блокирует бронирование вещи другими запросами до конца текущей транзакции,
+     * чтобы проверка свободного времени и создание бронирования выполнялись атомарно.
+     */
+    void lockItem(long itemId);
+
+    boolean isFree(long itemId, LocalDateTime start, LocalDateTime end);
+
+    /**
+     * Id вещей из переданных, у которых есть неотклоненные бронирования, пересекающиеся с [start, end).
+     */
+    Set<Long> findBusyItemIds(Collection<Long> itemIds, LocalDateTime start, LocalDateTime end);
+
+    /**
+     * Неотклоненные бронирования вещи, пересекающиеся с [from, to), по возрастанию начала.
+     */
+    List<BookingInterval> findBusy(long itemId, LocalDateTime from, LocalDateTime to);
+
+    void add(Booking booking);
+
+    void remove(ItemBookingRef booking);
+
+    void removeItem(long itemId);
+
+    void removeBooker(long bookerId);
+
+    void clear();
+}
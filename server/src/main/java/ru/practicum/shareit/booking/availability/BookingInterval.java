@@ -0,0 +1,13 @@
+package ru.practicum.shareit.booking.availability;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class BookingInterval {
+    private final long id;
+    private final long itemId;
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+}
@@ -0,0 +1,67 @@
+package ru.practicum.shareit.booking.availability;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.ItemBookingRef;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.booking.availability.mode", havingValue = "database")
+public class DatabaseBookingAvailability implements BookingAvailability {
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+
+    @Override
+    public void lockItem(long itemId) {
+        itemRepository.lockById(itemId);
+    }
+
+    @Override
+    public boolean isFree(long itemId, LocalDateTime start, LocalDateTime end) {
+        return bookingRepository.checkItemBookings(itemId, start, end).isEmpty();
+    }
+
+    @Override
+    public Set<Long> findBusyItemIds(Collection<Long> itemIds, LocalDateTime start, LocalDateTime end) {
+        if (itemIds.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(bookingRepository.findBusyItemIds(itemIds, start, end));
+    }
+
+    @Override
+    public List<BookingInterval> findBusy(long itemId, LocalDateTime from, LocalDateTime to) {
+        return bookingRepository.findIntervalsForItem(itemId, from, to, BookingStatus.REJECTED);
+    }
+
+    @Override
+    public void add(Booking booking) {
+    }
+
+    @Override
+    public void remove(ItemBookingRef booking) {
+    }
+
+    @Override
+    public void removeItem(long itemId) {
+    }
+
+    @Override
+    public void removeBooker(long bookerId) {
+    }
+
+    @Override
+    public void clear() {
+    }
+}
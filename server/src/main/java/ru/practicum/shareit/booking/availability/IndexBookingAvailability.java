@@ -0,0 +1,166 @@
+package ru.practicum.shareit.booking.availability;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.ItemBookingRef;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Индекс неотклоненных бронирований в памяти: для каждой вещи хранится дерево интервалов.
+ * Индекс строится после создания всех бинов, до запуска веб-сервера: пока его нет, isFree ответил бы
+ * «свободно» для любой вещи. Обновляется после коммита транзакции, которая создала или отклонила бронирование,
+ * поэтому откаченные изменения в него не попадают.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.booking.availability.mode", havingValue = "index", matchIfMissing = true)
+public class IndexBookingAvailability implements BookingAvailability, SmartInitializingSingleton {
+    private static final int BATCH_SIZE = 1000;
+    private static final int LOCK_STRIPES = 1024;
+
+    private final BookingRepository bookingRepository;
+    private final Map<Long, IntervalTree> trees = new ConcurrentHashMap<>();
+    private final StripedItemLock locks = new StripedItemLock(LOCK_STRIPES);
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    public void rebuild() {
+        trees.clear();
+        Pageable request = PageRequest.of(0, BATCH_SIZE);
+        long lastId = 0;
+        int count = 0;
+        List<BookingInterval> batch;
+        do {
+            batch = bookingRepository.findIntervalsAfter(lastId, BookingStatus.REJECTED, request);
+            for (BookingInterval interval : batch) {
+                addInterval(interval.getItemId(), interval.getId(), interval.getStart(), interval.getEnd());
+                lastId = interval.getId();
+            }
+            count += batch.size();
+        } while (batch.size() == BATCH_SIZE);
+        log.info("Построен индекс бронирований: {} бронирований по {} вещам", count, trees.size());
+    }
+
+    @Override
+    public void lockItem(long itemId) {
+        locks.lockUntilTransactionEnd(itemId);
+    }
+
+    @Override
+    public boolean isFree(long itemId, LocalDateTime start, LocalDateTime end) {
+        IntervalTree tree = trees.get(itemId);
+        if (tree == null) {
+            return true;
+        }
+        synchronized (tree) {
+            return !tree.overlaps(start, end);
+        }
+    }
+
+    @Override
+    public Set<Long> findBusyItemIds(Collection<Long> itemIds, LocalDateTime start, LocalDateTime end) {
+        return itemIds.stream()
+                .filter(itemId -> !isFree(itemId, start, end))
+                .collect(Collectors.toSet());
+    }
+
+    @Override
+    public List<BookingInterval> findBusy(long itemId, LocalDateTime from, LocalDateTime to) {
+        IntervalTree tree = trees.get(itemId);
+        if (tree == null) {
+            return List.of();
+        }
+        synchronized (tree) {
+            return tree.overlapping(itemId, from, to);
+        }
+    }
+
+    @Override
+    public void add(Booking booking) {
+        long itemId = booking.getItem().getId();
+        long id = booking.getId();
+        LocalDateTime start = booking.getStart();
+        LocalDateTime end = booking.getEnd();
+        afterCommit(() -> addInterval(itemId, id, start, end));
+    }
+
+    @Override
+    public void remove(ItemBookingRef booking) {
+        long itemId = booking.getItemId();
+        long id = booking.getId();
+        LocalDateTime start = booking.getStart();
+        afterCommit(() -> removeInterval(itemId, id, start));
+    }
+
+    @Override
+    public void removeItem(long itemId) {
+        afterCommit(() -> trees.remove(itemId));
+    }
+
+    @Override
+    public void removeBooker(long bookerId) {
+        List<BookingInterval> intervals = bookingRepository.findIntervalsByBookerId(bookerId);
+        afterCommit(() -> intervals.forEach(interval ->
+                removeInterval(interval.getItemId(), interval.getId(), interval.getStart())));
+    }
+
+    @Override
+    public void clear() {
+        afterCommit(trees::clear);
+    }
+
+    private void addInterval(long itemId, long id, LocalDateTime start, LocalDateTime end) {
+        trees.compute(itemId, (key, tree) -> {
+            if (tree == null) {
+                tree = new IntervalTree();
+            }
+            synchronized (tree) {
+                tree.add(id, start, end);
+            }
+            return tree;
+        });
+    }
+
+    private void removeInterval(long itemId, long id, LocalDateTime start) {
+        trees.computeIfPresent(itemId, (key, tree) -> {
+            synchronized (tree) {
+                tree.remove(id, start);
+                return tree.isEmpty() ? null : tree;
+            }
+        });
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
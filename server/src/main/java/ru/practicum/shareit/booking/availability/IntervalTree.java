@@ -0,0 +1,186 @@
+package ru.practicum.shareit.booking.availability;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Дерево интервалов бронирований одной вещи: декартово дерево, упорядоченное по началу интервала и id.
+ * Каждый узел хранит наибольший конец интервала в своем поддереве, поэтому проверка пересечения
+ * спускается по одной ветви и в среднем выполняется за O(log n), даже если интервалы пересекаются между собой.
+ * Класс не потокобезопасен.
+ */
+class IntervalTree {
+    private Node root;
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void add(long id, LocalDateTime start, LocalDateTime end) {
+        root = insert(root, new Node(id, start, end, ThreadLocalRandom.current().nextInt()));
+    }
+
+    void remove(long id, LocalDateTime start) {
+        root = delete(root, id, start);
+    }
+
+    /**
+     * Есть ли интервал, пересекающийся с [start, end). Интервалы, которые только касаются границ, не пересекаются.
+     */
+    boolean overlaps(LocalDateTime start, LocalDateTime end) {
+        Node node = root;
+        while (node != null) {
+            if (node.start.isBefore(end) && node.end.isAfter(start)) {
+                return true;
+            }
+            if (node.left != null && node.left.maxEnd.isAfter(start)) {
+                // если в левом поддереве нет пересечения, то все интервалы правее начинаются не раньше end
+                node = node.left;
+            } else if (node.start.isBefore(end)) {
+                node = node.right;
+            } else {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Интервалы вещи с указанным id, пересекающиеся с [start, end), по возрастанию начала.
+     */
+    List<BookingInterval> overlapping(long itemId, LocalDateTime start, LocalDateTime end) {
+        List<BookingInterval> result = new ArrayList<>();
+        collectOverlapping(root, itemId, start, end, result);
+        return result;
+    }
+
+    private void collectOverlapping(Node node, long itemId, LocalDateTime start, LocalDateTime end,
+                                    List<BookingInterval> result) {
+        if (node == null || !node.maxEnd.isAfter(start)) {
+            return;
+        }
+        collectOverlapping(node.left, itemId, start, end, result);
+        if (!node.start.isBefore(end)) {
+            return;
+        }
+        if (node.end.isAfter(start)) {
+            result.add(new BookingInterval(node.id, itemId, node.start, node.end));
+        }
+        collectOverlapping(node.right, itemId, start, end, result);
+    }
+
+    private Node insert(Node node, Node added) {
+        if (node == null) {
+            size++;
+            return added;
+        }
+        int cmp = compare(added.start, added.id, node);
+        if (cmp == 0) {
+            node.end = added.end;
+        } else if (cmp < 0) {
+            node.left = insert(node.left, added);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, added);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        update(node);
+        return node;
+    }
+
+    private Node delete(Node node, long id, LocalDateTime start) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(start, id, node);
+        if (cmp == 0) {
+            size--;
+            return merge(node.left, node.right);
+        }
+        if (cmp < 0) {
+            node.left = delete(node.left, id, start);
+        } else {
+            node.right = delete(node.right, id, start);
+        }
+        update(node);
+        return node;
+    }
+
+    private Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            update(left);
+            return left;
+        }
+        right.left = merge(left, right.left);
+        update(right);
+        return right;
+    }
+
+    private Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        update(node);
+        left.right = node;
+        return left;
+    }
+
+    private Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        update(node);
+        right.left = node;
+        return right;
+    }
+
+    private int compare(LocalDateTime start, long id, Node node) {
+        int cmp = start.compareTo(node.start);
+        return cmp != 0 ? cmp : Long.compare(id, node.id);
+    }
+
+    private void update(Node node) {
+        LocalDateTime maxEnd = node.end;
+        if (node.left != null && node.left.maxEnd.isAfter(maxEnd)) {
+            maxEnd = node.left.maxEnd;
+        }
+        if (node.right != null && node.right.maxEnd.isAfter(maxEnd)) {
+            maxEnd = node.right.maxEnd;
+        }
+        node.maxEnd = maxEnd;
+    }
+
+    private static class Node {
+        private final long id;
+        private final LocalDateTime start;
+        private final int priority;
+        private LocalDateTime end;
+        private LocalDateTime maxEnd;
+        private Node left;
+        private Node right;
+
+        Node(long id, LocalDateTime start, LocalDateTime end, int priority) {
+            this.id = id;
+            this.start = start;
+            this.end = end;
+            this.maxEnd = end;
+            this.priority = priority;
+        }
+    }
+}
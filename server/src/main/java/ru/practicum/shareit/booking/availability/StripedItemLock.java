@@ -0,0 +1,42 @@
+package ru.practicum.shareit.booking.availability;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Блокировки вещей, разделенные на полосы по id: бронирования одной вещи выполняются по очереди,
+ * бронирования разных вещей почти всегда попадают в разные полосы и выполняются параллельно.
+ * Блокировка снимается после завершения транзакции, когда индекс уже обновлен после коммита.
+ */
+class StripedItemLock {
+    private final ReentrantLock[] stripes;
+
+    StripedItemLock(int stripeCount) {
+        stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    void lockUntilTransactionEnd(long itemId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Блокировка вещи возможна только внутри транзакции");
+        }
+        ReentrantLock lock = stripes[stripe(itemId)];
+        lock.lock();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lock.unlock();
+            }
+        });
+    }
+
+    private int stripe(long itemId) {
+        int hash = Long.hashCode(itemId);
+        hash ^= hash >>> 16;
+        return (hash & Integer.MAX_VALUE) % stripes.length;
+    }
+}
@@ -0,0 +1,8 @@
+package ru.practicum.shareit.booking.model;
+
+/**
+ * Бронирование с текущим статусом: по нему решается, можно ли подтвердить или отклонить бронирование.
+ */
+public interface BookingDecisionView extends ItemBookingRef {
+    BookingStatus getStatus();
+}
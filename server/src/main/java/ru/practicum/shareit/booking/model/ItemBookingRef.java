@@ -0,0 +1,18 @@
+package ru.practicum.shareit.booking.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Бронирование вещи без связанных сущностей: id вещи и арендатора вместо самих сущностей.
+ * Реализуется сущностью Booking и проекциями выборок, поэтому обработчики изменений бронирования принимают оба варианта.
+ * Сущность реализует только этот интерфейс: проекцию, которую реализует сущность, Spring Data не строит.
+ */
+public interface ItemBookingRef {
+    Long getId();
+
+    Long getItemId();
+
+    Long getBookerId();
+
+    LocalDateTime getStart();
+}
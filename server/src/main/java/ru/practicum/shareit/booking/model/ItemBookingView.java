@@ -0,0 +1,7 @@
+package ru.practicum.shareit.booking.model;
+
+/**
+ * Бронирование вещи без связанных сущностей: результат выборки последнего и ближайшего бронирования по вещам.
+ */
+public interface ItemBookingView extends ItemBookingRef {
+}
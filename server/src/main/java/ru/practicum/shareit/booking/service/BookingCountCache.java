@@ -0,0 +1,76 @@
+package ru.practicum.shareit.booking.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.Data;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.model.StateStatus;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * Кеш общего количества бронирований пользователя по роли и состоянию.
+ * Создание и подтверждение бронирования сбрасывают записи арендатора и владельца после коммита.
+ * Состояния PAST, CURRENT и FUTURE меняются со временем, а удаление вещей и пользователей кеш не сбрасывает,
+ * поэтому количество может отставать не более чем на время жизни записи.
+ */
+@Component
+public class BookingCountCache {
+    public static final String CACHE_NAME = "bookingCount";
+
+    private final Cache<Key, Long> cache;
+
+    public BookingCountCache(@Value("${shareit.booking.count-cache.max-size:10000}") long maxSize,
+                             @Value("${shareit.booking.count-cache.ttl:1m}") Duration ttl,
+                             MeterRegistry meterRegistry) {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public long getForBooker(long bookerId, StateStatus state, LongSupplier loader) {
+        return cache.get(new Key(false, bookerId, state), key -> loader.getAsLong());
+    }
+
+    public long getForOwner(long ownerId, StateStatus state, LongSupplier loader) {
+        return cache.get(new Key(true, ownerId, state), key -> loader.getAsLong());
+    }
+
+    public void invalidate(long bookerId, long ownerId) {
+        // затронутые ключи известны заранее, поэтому кеш не перебирается целиком
+        List<Key> keys = new ArrayList<>();
+        for (StateStatus state : StateStatus.values()) {
+            keys.add(new Key(false, bookerId, state));
+            keys.add(new Key(true, ownerId, state));
+        }
+        Runnable action = () -> cache.invalidateAll(keys);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    @Data
+    private static class Key {
+        private final boolean owner;
+        private final long userId;
+        private final StateStatus state;
+    }
+}
@@ -1,11 +1,16 @@
 package ru.practicum.shareit.booking.service;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import ru.practicum.shareit.booking.dto.BookingApproveDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.model.StateStatus;
+import ru.practicum.shareit.pagination.TimeCursor;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface BookingService {
 
@@ -13,9 +18,31 @@ public interface BookingService {
 
     BookingDto approveBooking(Long bookingId, boolean isApproved, Long ownerId);
 
+    /**
+     * Решения владельца по нескольким бронированиям: одно условное обновление на подтверждение и одно на отклонение.
+     * Результат возвращается для каждого id в порядке запроса, повторный id получает результат первого решения.
+     */
+    List<BookingDecisionDto> approveBookings(List<BookingApproveDto> decisions, Long ownerId);
+
     BookingDto getBookingById(Long bookingId, Long userId);
 
-    List<BookingDto> getAllBookingsForUser(Long userId, StateStatus state, Pageable pageable);
+    Slice<BookingDto> getAllBookingsForUser(Long userId, StateStatus state, TimeCursor after, Pageable pageable);
+
+    Slice<BookingDto> getAllBookingsForOwner(Long ownerId, StateStatus state, TimeCursor after, Pageable pageable);
+
+    /**
+     * Проверка владельца до начала выгрузки: после того как ответ начал писаться, его статус уже не изменить.
+     * Как и для списка бронирований владельца, пользователь должен существовать и владеть хотя бы одной вещью.
+     */
+    void requireItemOwner(Long ownerId);
+
+    /**
+     * Передает consumer все бронирования владельца в порядке (start desc, id desc) по одному,
+     * не собирая их в список.
+     */
+    void exportBookingsForOwner(Long ownerId, StateStatus state, Consumer<BookingDto> consumer);
+
+    long countBookingsForUser(Long userId, StateStatus state);
 
-    List<BookingDto> getAllBookingsForOwner(Long ownerId, StateStatus state, Pageable pageable);
+    long countBookingsForOwner(Long ownerId, StateStatus state);
 }
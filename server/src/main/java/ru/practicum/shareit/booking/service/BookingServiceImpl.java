@@ -3,53 +3,78 @@ package ru.practicum.shareit.booking.service;
 import com.querydsl.core.types.dsl.BooleanExpression;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
 import ru.practicum.shareit.booking.BookingMapper;
 import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.availability.BookingAvailability;
+import ru.practicum.shareit.booking.dto.BookingApproveDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingDecisionView;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.ItemBookingRef;
 import ru.practicum.shareit.booking.model.QBooking;
 import ru.practicum.shareit.booking.model.StateStatus;
 import ru.practicum.shareit.exception.model.BookingException;
 import ru.practicum.shareit.exception.model.NotFoundException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
-import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.item.service.ItemBookingSummaryService;
+import ru.practicum.shareit.pagination.TimeCursor;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserDirectory;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Validated
 @Slf4j
 public class BookingServiceImpl implements BookingService {
+    // строк, читаемых из БД за одно обращение при выгрузке
+    private static final int EXPORT_FETCH_SIZE = 500;
+    private static final Sort EXPORT_SORT = Sort.by(Sort.Direction.DESC, "start")
+            .and(Sort.by(Sort.Direction.DESC, "id"));
+
     private final BookingRepository bookingRepository;
     private final UserRepository userRepository;
+    private final UserDirectory userDirectory;
     private final ItemRepository itemRepository;
     private final BookingMapper mapper;
+    private final BookingAvailability availability;
+    private final BookingCountCache countCache;
+    private final ItemBookingSummaryService bookingSummaryService;
 
     @Override
     @Transactional
     public BookingDto createBooking(BookingCreateDto dto, Long bookerId) {
-        User booker = userRepository.findById(bookerId)
-                .orElseThrow(() -> new NotFoundException("Пользователь с id = " + bookerId + " не найден"));
+        userDirectory.requireExists(bookerId);
         Long itemId = dto.getItemId();
         Item item = itemRepository.findById(itemId)
                 .orElseThrow(() -> new NotFoundException("Объект с id = " + itemId + " не найден"));
         if (!item.getAvailable()) {
             throw new BookingException("Не найдена свободная вещь с таким id");
         }
-        List<Booking> currentItemBookings = bookingRepository.checkItemBookings(itemId, dto.getStart(), dto.getEnd());
-        if (!currentItemBookings.isEmpty()) {
+        availability.lockItem(itemId);
+        if (!availability.isFree(itemId, dto.getStart(), dto.getEnd())) {
             throw new BookingException("Данная вещь сейчас находится в аренде");
         }
         long ownerId = item.getOwner().getId();
@@ -58,37 +83,117 @@ public class BookingServiceImpl implements BookingService {
         }
         Booking booking = mapper.bookingCreateDtoToBooking(dto);
 
-        booking.setBooker(booker);
+        booking.setBooker(userRepository.getReferenceById(bookerId));
         booking.setItem(item);
         Booking createdBooking = bookingRepository.save(booking);
+        availability.add(createdBooking);
+        bookingSummaryService.onCreated(createdBooking);
+        countCache.invalidate(bookerId, ownerId);
         return mapper.bookingToBookingDto(createdBooking);
     }
 
     @Override
     @Transactional
     public BookingDto approveBooking(Long bookingId, boolean isApproved, Long ownerId) {
-        userRepository.findById(ownerId)
-                .orElseThrow(() -> new NotFoundException("Пользователь с id = " + ownerId + " не найден"));
-        Booking booking = bookingRepository.findByIdAndItemOwnerId(bookingId, ownerId)
-                .orElseThrow(() -> new NotFoundException("Бронирование с id = " + bookingId + " не найдено"));
-
-        if (!booking.getStatus().equals(BookingStatus.WAITING)) {
-            throw new BookingException("Бронирование уже подтверждено");
+        userDirectory.requireExists(ownerId);
+        BookingStatus status = isApproved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+        // статус меняется только у ожидающего бронирования владельца: из двух одновременных решений пройдет одно
+        if (bookingRepository.updateStatusIfWaiting(List.of(bookingId), ownerId, status) == 0) {
+            if (bookingRepository.existsByIdAndOwnerId(bookingId, ownerId)) {
+                throw new BookingException("Бронирование уже подтверждено");
+            }
+            throw new NotFoundException("Бронирование с id = " + bookingId + " не найдено");
         }
+        BookingDto booking = bookingRepository.findBookingDtos(QBooking.booking.id.eq(bookingId), Pageable.unpaged())
+                .getContent()
+                .get(0);
+
+        ItemBookingRef ref = mapper.bookingDtoToItemBookingRef(booking);
         if (isApproved) {
-            booking.setStatus(BookingStatus.APPROVED);
+            bookingSummaryService.onApproved(ref);
         } else {
-            booking.setStatus(BookingStatus.REJECTED);
+            availability.remove(ref);
+            bookingSummaryService.onRejected(ref);
         }
-        bookingRepository.save(booking);
-        return mapper.bookingToBookingDto(booking);
+        countCache.invalidate(ref.getBookerId(), ownerId);
+        return booking;
+    }
+
+    @Override
+    @Transactional
+    public List<BookingDecisionDto> approveBookings(List<BookingApproveDto> decisions, Long ownerId) {
+        userDirectory.requireExists(ownerId);
+        Map<Long, Boolean> approvedById = new LinkedHashMap<>();
+        for (BookingApproveDto decision : decisions) {
+            // повтор id не отбрасывается молча: решения по нему могут противоречить друг другу
+            if (approvedById.containsKey(decision.getBookingId())) {
+                throw new BookingException("Бронирование с id = " + decision.getBookingId() +
+                        " указано в запросе несколько раз");
+            }
+            approvedById.put(decision.getBookingId(), decision.getIsApproved());
+        }
+        Map<Long, BookingDecisionView> bookings = bookingRepository.lockDecisionViews(approvedById.keySet(), ownerId)
+                .stream()
+                .collect(Collectors.toMap(BookingDecisionView::getId, Function.identity()));
+
+        Map<Long, BookingDecisionDto> results = new LinkedHashMap<>();
+        List<BookingDecisionView> approved = new ArrayList<>();
+        List<BookingDecisionView> rejected = new ArrayList<>();
+        approvedById.forEach((bookingId, isApproved) -> {
+            BookingDecisionView booking = bookings.get(bookingId);
+            BookingDecisionDto.BookingDecisionDtoBuilder result = BookingDecisionDto.builder().bookingId(bookingId);
+            if (isApproved == null) {
+                result.error("Не указано решение по бронированию");
+            } else if (booking == null) {
+                result.error("Бронирование с id = " + bookingId + " не найдено");
+            } else if (booking.getStatus() != BookingStatus.WAITING) {
+                result.error("Бронирование уже подтверждено");
+            } else if (isApproved) {
+                approved.add(booking);
+                result.status(BookingStatus.APPROVED);
+            } else {
+                rejected.add(booking);
+                result.status(BookingStatus.REJECTED);
+            }
+            results.put(bookingId, result.build());
+        });
+
+        // строки заблокированы выборкой выше, поэтому обновления затронут ровно отобранные бронирования
+        decide(approved, BookingStatus.APPROVED, ownerId);
+        decide(rejected, BookingStatus.REJECTED, ownerId);
+        // сводки блокируются по возрастанию id вещи, как и бронирования по id: встречные пакетные решения
+        // берут блокировки в одном порядке и не ждут друг друга по кругу
+        Stream.concat(approved.stream(), rejected.stream())
+                .sorted(Comparator.comparing(BookingDecisionView::getItemId))
+                .forEach(booking -> {
+                    if (approvedById.get(booking.getId())) {
+                        bookingSummaryService.onApproved(booking);
+                    } else {
+                        availability.remove(booking);
+                        bookingSummaryService.onRejected(booking);
+                    }
+                });
+        Set<Long> bookerIds = new HashSet<>();
+        approved.forEach(booking -> bookerIds.add(booking.getBookerId()));
+        rejected.forEach(booking -> bookerIds.add(booking.getBookerId()));
+        bookerIds.forEach(bookerId -> countCache.invalidate(bookerId, ownerId));
+        log.info("Владелец с id = {} подтвердил {} и отклонил {} бронирований", ownerId, approved.size(),
+                rejected.size());
+        return new ArrayList<>(results.values());
+    }
+
+    private void decide(List<BookingDecisionView> bookings, BookingStatus status, long ownerId) {
+        if (bookings.isEmpty()) {
+            return;
+        }
+        List<Long> ids = bookings.stream().map(BookingDecisionView::getId).collect(Collectors.toList());
+        bookingRepository.updateStatusIfWaiting(ids, ownerId, status);
     }
 
     @Override
     @Transactional(readOnly = true)
     public BookingDto getBookingById(Long bookingId, Long userId) {
-        userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("Пользователь с id = " + userId + " не найден"));
+        userDirectory.requireExists(userId);
         Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new NotFoundException("Бронирование с id = " + bookingId + " не найдено"));
         long bookingOwnerId = booking.getItem().getOwner().getId();
@@ -101,36 +206,88 @@ public class BookingServiceImpl implements BookingService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<BookingDto> getAllBookingsForUser(Long userId, StateStatus state, Pageable pageable) {
-        userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("Пользователь с id = " + userId + " не найден"));
+    public Slice<BookingDto> getAllBookingsForUser(Long userId, StateStatus state, TimeCursor after,
+                                                   Pageable pageable) {
+        BooleanExpression queryExpression = getBookerExpression(userId, state).and(getAfterExpression(after));
+        Slice<BookingDto> result = bookingRepository.findBookingDtos(queryExpression, pageable);
 
-        BooleanExpression byBookerId = QBooking.booking.booker.id.eq(userId);
-        BooleanExpression queryExpression = byBookerId.and(getBookingExpression(state));
-        Page<Booking> result = bookingRepository.findAll(queryExpression, pageable);
+        // непустая страница подтверждает существование пользователя, проверка нужна только для пустой
+        if (result.isEmpty() && !userDirectory.exists(userId)) {
+            throw new NotFoundException("Пользователь с id = " + userId + " не найден");
+        }
+        return result;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<BookingDto> getAllBookingsForOwner(Long ownerId, StateStatus state, TimeCursor after,
+                                                    Pageable pageable) {
+        BooleanExpression queryExpression = getOwnerExpression(ownerId, state).and(getAfterExpression(after));
+        Slice<BookingDto> result = bookingRepository.findBookingDtos(queryExpression, pageable);
 
-        return result.stream()
-                .map(mapper::bookingToBookingDto)
-                .collect(Collectors.toList());
+        // непустая страница подтверждает существование владельца и его вещей, проверки нужны только для пустой
+        if (result.isEmpty() && !itemRepository.existsByOwnerId(ownerId)) {
+            if (!userDirectory.exists(ownerId)) {
+                throw new NotFoundException("Пользователь с id = " + ownerId + " не найден");
+            }
+            throw new NotFoundException("Не найдены вещи для данного владельца");
+        }
+        return result;
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<BookingDto> getAllBookingsForOwner(Long ownerId, StateStatus state, Pageable pageable) {
-        userRepository.findById(ownerId)
-                .orElseThrow(() -> new NotFoundException("Пользователь с id = " + ownerId + " не найден"));
-        List<Item> items = itemRepository.findALlByOwnerId(ownerId);
-        if (items.isEmpty()) {
+    public void requireItemOwner(Long ownerId) {
+        if (!itemRepository.existsByOwnerId(ownerId)) {
+            if (!userDirectory.exists(ownerId)) {
+                throw new NotFoundException("Пользователь с id = " + ownerId + " не найден");
+            }
             throw new NotFoundException("Не найдены вещи для данного владельца");
         }
+    }
+
+    // курсор открыт, пока consumer пишет ответ, поэтому транзакция длится всю выгрузку
+    @Override
+    @Transactional(readOnly = true)
+    public void exportBookingsForOwner(Long ownerId, StateStatus state, Consumer<BookingDto> consumer) {
+        try (Stream<BookingDto> bookings = bookingRepository.streamBookingDtos(getOwnerExpression(ownerId, state),
+                EXPORT_SORT, EXPORT_FETCH_SIZE)) {
+            bookings.forEach(consumer);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long countBookingsForUser(Long userId, StateStatus state) {
+        return countCache.getForBooker(userId, state,
+                () -> bookingRepository.count(getBookerExpression(userId, state)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long countBookingsForOwner(Long ownerId, StateStatus state) {
+        return countCache.getForOwner(ownerId, state,
+                () -> bookingRepository.count(getOwnerExpression(ownerId, state)));
+    }
 
-        BooleanExpression byItemOwnerId = QBooking.booking.item.owner.id.eq(ownerId);
-        BooleanExpression queryExpression = byItemOwnerId.and(getBookingExpression(state));
-        Page<Booking> result = bookingRepository.findAll(queryExpression, pageable);
+    private BooleanExpression getBookerExpression(Long userId, StateStatus state) {
+        return QBooking.booking.booker.id.eq(userId).and(getBookingExpression(state));
+    }
 
-        return result.stream()
-                .map(mapper::bookingToBookingDto)
-                .collect(Collectors.toList());
+    private BooleanExpression getOwnerExpression(Long ownerId, StateStatus state) {
+        return QBooking.booking.ownerId.eq(ownerId).and(getBookingExpression(state));
+    }
+
+    /**
+     * Бронирования после курсора в порядке (start desc, id desc).
+     */
+    private BooleanExpression getAfterExpression(TimeCursor after) {
+        if (after == null) {
+            return null;
+        }
+        // start <= t выделяется отдельно, чтобы условие читалось как диапазон индекса по start_time
+        return QBooking.booking.start.loe(after.getTime())
+                .and(QBooking.booking.start.lt(after.getTime()).or(QBooking.booking.id.lt(after.getId())));
     }
 
     private BooleanExpression getBookingExpression(StateStatus state) {
@@ -0,0 +1,82 @@
+package ru.practicum.shareit.cache;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Properties;
+
+/**
+ * Кеш второго уровня Hibernate для пользователей, вещей и запросов: локальный JCache на Caffeine.
+ * Регионы создаются здесь с размером и временем жизни из настроек, статистика каждого региона доступна
+ * в /actuator/metrics/cache.gets?tag=cache:{регион}. Каждый контекст приложения получает свой CacheManager.
+ * Без этого компонента (например, в @DataJpaTest) Hibernate создает регионы сам, без ограничений размера.
+ */
+@Component
+public class HibernateCacheCustomizer implements HibernatePropertiesCustomizer, DisposableBean {
+    public static final String USER_REGION = "user";
+    public static final String ITEM_REGION = "item";
+    public static final String REQUEST_REGION = "request";
+    public static final String QUERY_REGION = "default-query-results-region";
+    public static final String TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    private final CaffeineCachingProvider provider = new CaffeineCachingProvider();
+    private final CacheManager cacheManager;
+
+    public HibernateCacheCustomizer(@Value("${shareit.cache.user.max-size:10000}") long userMaxSize,
+                                    @Value("${shareit.cache.user.ttl:10m}") Duration userTtl,
+                                    @Value("${shareit.cache.item.max-size:10000}") long itemMaxSize,
+                                    @Value("${shareit.cache.item.ttl:10m}") Duration itemTtl,
+                                    @Value("${shareit.cache.request.max-size:10000}") long requestMaxSize,
+                                    @Value("${shareit.cache.request.ttl:10m}") Duration requestTtl,
+                                    @Value("${shareit.cache.query.max-size:1000}") long queryMaxSize,
+                                    @Value("${shareit.cache.query.ttl:5m}") Duration queryTtl,
+                                    MeterRegistry meterRegistry) {
+        URI uri = URI.create("shareit-hibernate-" + System.identityHashCode(this));
+        cacheManager = provider.getCacheManager(uri, getClass().getClassLoader(), new Properties());
+        createRegion(USER_REGION, userMaxSize, userTtl, meterRegistry);
+        createRegion(ITEM_REGION, itemMaxSize, itemTtl, meterRegistry);
+        createRegion(REQUEST_REGION, requestMaxSize, requestTtl, meterRegistry);
+        createRegion(QUERY_REGION, queryMaxSize, queryTtl, meterRegistry);
+        // отметки времени изменения таблиц не вытесняются: без них кеш запросов вернул бы устаревший результат
+        createRegion(TIMESTAMPS_REGION, null, null, meterRegistry);
+    }
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+    }
+
+    @Override
+    public void destroy() {
+        cacheManager.close();
+        provider.close();
+    }
+
+    private void createRegion(String name, Long maxSize, Duration ttl, MeterRegistry meterRegistry) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        // Hibernate кладет в кеш уже разобранное состояние сущности, копировать его при каждом обращении не нужно
+        configuration.setStoreByValue(false);
+        configuration.setStatisticsEnabled(true);
+        if (maxSize != null) {
+            configuration.setMaximumSize(OptionalLong.of(maxSize));
+        }
+        if (ttl != null) {
+            configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        }
+        Cache<Object, Object> cache = cacheManager.createCache(name, configuration);
+        JCacheMetrics.monitor(meterRegistry, cache);
+    }
+}
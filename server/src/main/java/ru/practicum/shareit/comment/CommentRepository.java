@@ -2,6 +2,7 @@ package ru.practicum.shareit.comment;
 
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.querydsl.QuerydslPredicateExecutor;
 
 import java.util.List;
@@ -10,6 +11,13 @@ public interface CommentRepository extends JpaRepository<Comment, Long>, Queryds
 
     List<Comment> findAllByItemId(Long itemId, Sort sort);
 
+    @Query("select c " +
+            "from Comment as c " +
+            "join fetch c.author " +
+            "where c.item.id = ?1 " +
+            "order by c.created, c.id")
+    List<Comment> findAllWithAuthorByItemId(long itemId);
+
     void deleteAllByAuthorId(Long authorId);
 
     List<Comment> findAllByItemIdIn(List<Long> itemIds,
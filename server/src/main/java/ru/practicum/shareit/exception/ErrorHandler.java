@@ -8,7 +8,9 @@ import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import ru.practicum.shareit.exception.model.BookingException;
 import ru.practicum.shareit.exception.model.ExceptionResponse;
+import ru.practicum.shareit.exception.model.ItemImportException;
 import ru.practicum.shareit.exception.model.NotFoundException;
+import ru.practicum.shareit.exception.model.PaginationException;
 import ru.practicum.shareit.exception.model.PostCommentException;
 
 import java.io.PrintWriter;
@@ -40,6 +42,20 @@ public class ErrorHandler {
         return new ExceptionResponse(e.getMessage());
     }
 
+    @ExceptionHandler(PaginationException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ExceptionResponse handlePaginationException(final PaginationException e) {
+        log.warn("PaginationException {}", e.getMessage());
+        return new ExceptionResponse(e.getMessage());
+    }
+
+    @ExceptionHandler(ItemImportException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ExceptionResponse handleItemImportException(final ItemImportException e) {
+        log.warn("ItemImportException {}", e.getMessage());
+        return new ExceptionResponse(e.getMessage());
+    }
+
     @ExceptionHandler(DataIntegrityViolationException.class)
     @ResponseStatus(HttpStatus.CONFLICT)
     public ExceptionResponse handleDataIntegrityViolationException(final DataIntegrityViolationException e) {
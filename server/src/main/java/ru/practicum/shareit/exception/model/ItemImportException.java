@@ -0,0 +1,7 @@
+package ru.practicum.shareit.exception.model;
+
+public class ItemImportException extends RuntimeException {
+    public ItemImportException(String message) {
+        super(message);
+    }
+}
@@ -2,8 +2,12 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -17,12 +21,24 @@ import org.springframework.web.bind.annotation.RestController;
 import ru.practicum.shareit.comment.dto.CommentCreateDto;
 import ru.practicum.shareit.comment.dto.CommentDto;
 import ru.practicum.shareit.comment.service.CommentService;
+import ru.practicum.shareit.exception.model.BookingException;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemCreateDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
 import ru.practicum.shareit.item.dto.ItemInfoDto;
 import ru.practicum.shareit.item.dto.ItemUpdateDto;
+import ru.practicum.shareit.item.service.ItemImportFormat;
+import ru.practicum.shareit.item.service.ItemImportService;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
+import ru.practicum.shareit.pagination.PageCursor;
 
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -32,17 +48,28 @@ import java.util.List;
 public class ItemController {
     private final ItemService itemService;
     private final CommentService commentService;
+    private final ItemImportService itemImportService;
 
     @GetMapping
-    public List<ItemInfoDto> getAllUserItems(@RequestHeader(value = "X-Sharer-User-Id") long ownerId,
-                                             @RequestParam(defaultValue = "0") int from,
-                                             @RequestParam(defaultValue = "10") int size) {
+    public ResponseEntity<List<ItemInfoDto>> getAllUserItems(@RequestHeader(value = "X-Sharer-User-Id") long ownerId,
+                                                             @RequestParam(defaultValue = "0") int from,
+                                                             @RequestParam(defaultValue = "10") int size,
+                                                             @RequestParam(required = false) String cursor) {
         Sort sort = Sort.by(Sort.Direction.ASC, "id");
-        PageRequest request = PageRequest.of(from / size, size, sort);
+        long afterId = 0;
+        Pageable request = OffsetPageRequest.of(from, size, sort);
+        if (cursor != null) {
+            afterId = PageCursor.decode(cursor);
+            request = OffsetPageRequest.of(0, size, sort);
+        }
         log.info("Обработка запроса на получение всех вещей пользователя с id = {}", ownerId);
-        List<ItemInfoDto> items = itemService.getItemsByOwnerId(ownerId, request);
+        List<ItemInfoDto> items = itemService.getItemsByOwnerId(ownerId, afterId, request);
         log.info("Получены все вещи пользователя с id = {}", ownerId);
-        return items;
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (items.size() == size) {
+            response.header(PageCursor.NEXT_CURSOR_HEADER, PageCursor.encode(items.get(items.size() - 1).getId()));
+        }
+        return response.body(items);
     }
 
     @GetMapping("/{itemId}")
@@ -55,14 +82,42 @@ public class ItemController {
     }
 
     @GetMapping("/search")
-    public List<ItemDto> searchItems(@RequestParam(value = "text") String text,
-                                     @RequestParam(defaultValue = "0") int from,
-                                     @RequestParam(defaultValue = "10") int size) {
-        PageRequest request = PageRequest.of(from / size, size);
+    public ResponseEntity<List<ItemDto>> searchItems(@RequestParam(value = "text") String text,
+                                                     @RequestParam(defaultValue = "0") int from,
+                                                     @RequestParam(defaultValue = "10") int size,
+                                                     @RequestParam(required = false) String cursor,
+                                                     @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                                     @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+        long afterId = 0;
+        Pageable request = OffsetPageRequest.of(from, size);
+        if (cursor != null) {
+            afterId = PageCursor.decode(cursor);
+            request = OffsetPageRequest.of(0, size);
+        }
+        if ((start == null) != (end == null)) {
+            throw new BookingException("Период поиска свободных вещей задан не полностью");
+        }
         log.info("Обработка запроса на выполнение поиска по строке {}", text);
-        List<ItemDto> items = itemService.getItemsByNameOrDesc(text, request);
+        List<ItemDto> items = start == null
+                ? itemService.getItemsByNameOrDesc(text, afterId, request)
+                : itemService.getFreeItemsByNameOrDesc(text, start, end, afterId, request);
         log.info("Получен список длиной {}", items.size());
-        return items;
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (items.size() == size) {
+            response.header(PageCursor.NEXT_CURSOR_HEADER, PageCursor.encode(items.get(items.size() - 1).getId()));
+        }
+        return response.body(items);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public ItemAvailabilityDto getItemAvailability(@PathVariable long itemId,
+                                                   @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                   @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("Обработка запроса на получение занятости вещи с id = {} с {} по {}", itemId, from, to);
+        ItemAvailabilityDto availability = itemService.getItemAvailability(itemId, from, to);
+        log.info("Получена занятость вещи с id = {}: {} занятых и {} свободных периодов", itemId,
+                availability.getBusy().size(), availability.getFree().size());
+        return availability;
     }
 
     @PostMapping
@@ -73,6 +128,18 @@ public class ItemController {
         return dto;
     }
 
+    @PostMapping(value = "/bulk", consumes = {ItemImportFormat.NDJSON_VALUE, ItemImportFormat.CSV_VALUE})
+    public ItemImportResultDto importItems(@RequestHeader("X-Sharer-User-Id") long ownerId,
+                                           @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                           InputStream body) {
+        log.info("Обработка запроса на загрузку вещей в формате {} пользователем с id = {}", contentType, ownerId);
+        Charset charset = contentType.getCharset() != null ? contentType.getCharset() : StandardCharsets.UTF_8;
+        ItemImportResultDto result = itemImportService.importItems(new InputStreamReader(body, charset),
+                ItemImportFormat.of(contentType), ownerId);
+        log.info("Загружено {} вещей, отклонено {} строк", result.getCreated(), result.getFailed());
+        return result;
+    }
+
     @PatchMapping("/{itemId}")
     public ItemDto patchItem(@RequestHeader("X-Sharer-User-Id") long ownerId,
                              @PathVariable long itemId,
@@ -2,7 +2,6 @@ package ru.practicum.shareit.item;
 
 import org.springframework.stereotype.Component;
 import ru.practicum.shareit.booking.dto.ItemBookingDto;
-import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.comment.Comment;
 import ru.practicum.shareit.item.dto.ItemCreateDto;
 import ru.practicum.shareit.item.dto.ItemDto;
@@ -10,6 +9,7 @@ import ru.practicum.shareit.item.dto.ItemForRequestDto;
 import ru.practicum.shareit.item.dto.ItemInfoDto;
 import ru.practicum.shareit.item.dto.ItemUpdateDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -45,36 +45,36 @@ public class ItemMapper {
                 .build();
     }
 
-    public ItemInfoDto itemToItemInfoDto(Item item, List<Comment> comments, Booking next, Booking last) {
-        ItemBookingDto nextDto = null;
-        ItemBookingDto lastDto = null;
-
-        if (next != null) {
-            nextDto = ItemBookingDto.builder()
-                    .id(next.getId())
-                    .bookerId(next.getBooker().getId())
-                    .build();
-        }
-
-        if (last != null) {
-            lastDto = ItemBookingDto.builder()
-                    .id(last.getId())
-                    .bookerId(last.getBooker().getId())
-                    .build();
-        }
-
-
+    public ItemInfoDto itemToItemInfoDto(Item item, List<Comment> comments, ItemBookingSummary summary) {
         return ItemInfoDto.builder()
                 .id(item.getId())
                 .name(item.getName())
                 .description(item.getDescription())
                 .available(item.getAvailable())
                 .comments(comments)
-                .lastBooking(lastDto)
-                .nextBooking(nextDto)
+                .lastBooking(summaryToLastBookingDto(summary))
+                .nextBooking(summaryToNextBookingDto(summary))
                 .build();
+    }
 
+    public ItemBookingDto summaryToLastBookingDto(ItemBookingSummary summary) {
+        if (summary == null || summary.getLastBookingId() == null) {
+            return null;
+        }
+        return ItemBookingDto.builder()
+                .id(summary.getLastBookingId())
+                .bookerId(summary.getLastBookerId())
+                .build();
+    }
 
+    public ItemBookingDto summaryToNextBookingDto(ItemBookingSummary summary) {
+        if (summary == null || summary.getNextBookingId() == null) {
+            return null;
+        }
+        return ItemBookingDto.builder()
+                .id(summary.getNextBookingId())
+                .bookerId(summary.getNextBookerId())
+                .build();
     }
 
     public ItemForRequestDto itemToItemInfoRequestDto(Item item) {
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Итог загрузки вещей: errors содержит не больше shareit.item.import.max-errors строк,
+ * failed - общее число отклоненных строк.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ItemImportResultDto {
+    private long created;
+    private long failed;
+    private List<ItemImportErrorDto> errors;
+}
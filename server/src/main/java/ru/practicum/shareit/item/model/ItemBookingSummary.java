@@ -0,0 +1,70 @@
+package ru.practicum.shareit.item.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import ru.practicum.shareit.booking.model.ItemBookingRef;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.time.LocalDateTime;
+
+/**
+ * Последнее подтвержденное и ближайшее неотклоненное бронирование вещи, поддерживаемые при изменении бронирований.
+ * Запись устаревает, когда наступает начало ближайшего бронирования или одно из бронирований удалено:
+ * внешний ключ обнуляет id, а время начала остается.
+ * Строка создается пустой через вставку без конфликта и заполняется только под блокировкой строки.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "item_booking_summaries", schema = "public")
+public class ItemBookingSummary {
+    @Id
+    @Column(name = "item_id")
+    private Long itemId;
+
+    @Column(name = "last_booking_id")
+    private Long lastBookingId;
+
+    @Column(name = "last_booker_id")
+    private Long lastBookerId;
+
+    @Column(name = "last_start")
+    private LocalDateTime lastStart;
+
+    @Column(name = "next_booking_id")
+    private Long nextBookingId;
+
+    @Column(name = "next_booker_id")
+    private Long nextBookerId;
+
+    @Column(name = "next_start")
+    private LocalDateTime nextStart;
+
+    public boolean isActual(LocalDateTime now) {
+        if (lastStart != null && lastBookingId == null) {
+            return false;
+        }
+        return nextStart == null || nextBookingId != null && now.isBefore(nextStart);
+    }
+
+    public void setLast(ItemBookingRef booking) {
+        lastBookingId = booking == null ? null : booking.getId();
+        lastBookerId = booking == null ? null : booking.getBookerId();
+        lastStart = booking == null ? null : booking.getStart();
+    }
+
+    public void setNext(ItemBookingRef booking) {
+        nextBookingId = booking == null ? null : booking.getId();
+        nextBookerId = booking == null ? null : booking.getBookerId();
+        nextStart = booking == null ? null : booking.getStart();
+    }
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.item.repository;
+
+import java.util.Collection;
+
+public interface ItemBookingSummaryInsertRepository {
+
+    /**
+     * Создает пустые сводки для существующих вещей без сводки. Параллельная вставка той же сводки
+     * не приводит к ошибке: запрос дождется ее транзакции и пропустит строку.
+     */
+    int insertMissing(Collection<Long> itemIds);
+}
@@ -0,0 +1,29 @@
+package ru.practicum.shareit.item.repository;
+
+import org.hibernate.query.NativeQuery;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+
+import javax.persistence.EntityManager;
+import java.util.Collection;
+
+public class ItemBookingSummaryInsertRepositoryImpl implements ItemBookingSummaryInsertRepository {
+    private final EntityManager entityManager;
+
+    public ItemBookingSummaryInsertRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public int insertMissing(Collection<Long> itemIds) {
+        // вставка читает items: несохраненные вещи нужно записать до нее, сами они в синхронизацию не входят
+        entityManager.flush();
+        return entityManager.createNativeQuery("insert into item_booking_summaries (item_id) " +
+                        "select i.id from items as i where i.id in (:itemIds) order by i.id " +
+                        "on conflict do nothing")
+                .unwrap(NativeQuery.class)
+                // без указания затронутой сущности Hibernate очистил бы после запроса весь кеш второго уровня
+                .addSynchronizedEntityClass(ItemBookingSummary.class)
+                .setParameterList("itemIds", itemIds)
+                .executeUpdate();
+    }
+}
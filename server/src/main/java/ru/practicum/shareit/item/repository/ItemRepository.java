@@ -2,25 +2,101 @@ package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.item.model.Item;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
-    List<Item> findAllByOwnerId(Long ownerId, Pageable pageable);
+    /**
+     * Страница вещей владельца вместе со сводками бронирований: элемент - пара [Item, ItemBookingSummary],
+     * сводка равна null, если еще не построена.
+     */
+    @Query("select it, s " +
+            "from Item as it " +
+            "left join ItemBookingSummary as s on s.itemId = it.id " +
+            "where it.owner.id = ?1 " +
+            "and it.id > ?2")
+    List<Object[]> findAllWithSummaryByOwnerId(long ownerId, long afterId, Pageable pageable);
+
+    /**
+     * Вещь вместе со сводкой бронирований и id запросившего пользователя: не более одной строки
+     * [Item, ItemBookingSummary, Long]. Сводка равна null, если еще не построена, id - если пользователя нет.
+     */
+    @Query("select it, s, u.id " +
+            "from Item as it " +
+            "left join ItemBookingSummary as s on s.itemId = it.id " +
+            "left join User as u on u.id = ?2 " +
+            "where it.id = ?1")
+    List<Object[]> findWithSummaryById(long id, long requesterId);
+
+    @Query("select it " +
+            "from Item as it " +
+            "where it.available = true " +
+            "and it.id > ?2 " +
+            "and (upper(it.name) like upper(concat('%', ?1, '%')) " +
+            "or upper(it.description) like upper(concat('%', ?1, '%'))) " +
+            "order by it.id")
+    List<Item> findAvailableByNameOrDesc(String searchString, long afterId, Pageable pageable);
 
     @Query("select it " +
             "from Item as it " +
-            "where upper(it.name) like upper(concat('%', ?1, '%')) " +
-            "or upper(it.description) like upper(concat('%', ?1, '%'))")
-    List<Item> findAllByNameOrDesc(String searchString, Pageable pageable);
+            "where it.available = true " +
+            "and it.id > ?2 " +
+            "and (upper(it.name) like upper(concat('%', ?1, '%')) " +
+            "or upper(it.description) like upper(concat('%', ?1, '%'))) " +
+            "and not exists (select b.id " +
+            "from Booking as b " +
+            "where b.item = it " +
+            "and b.start < ?4 " +
+            "and b.end > ?3 " +
+            "and b.status != 'REJECTED') " +
+            "order by it.id")
+    List<Item> findFreeByNameOrDesc(String searchString, long afterId, LocalDateTime start, LocalDateTime end,
+                                    Pageable pageable);
 
     void deleteAllByOwnerId(Long ownerId);
 
+    // ответы на запросы читаются намного чаще, чем добавляются вещи: результат хранится в кеше запросов Hibernate
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     List<Item> findAllByRequestIdIn(List<Long> ids);
 
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     List<Item> findAllByRequestId(Long requestId);
 
+    /**
+     * Отвязывает вещи от запросов пользователя перед их удалением. Внешний ключ обнулила бы и БД (on delete set null),
+     * но Hibernate об этом не узнает: массовое обновление через JPA сбрасывает регион вещей и кеш запросов по ним.
+     */
+    @Transactional
+    @Modifying
+    @Query("update Item as it " +
+            "set it.requestId = null " +
+            "where it.requestId in (select r.id from ItemRequest as r where r.owner.id = ?1)")
+    int detachFromRequestsOfOwner(long ownerId);
+
+    @Transactional
+    @Modifying
+    @Query("update Item as it " +
+            "set it.requestId = null " +
+            "where it.requestId is not null")
+    int detachFromAllRequests();
+
     List<Item> findALlByOwnerId(Long ownerId);
+
+    boolean existsByOwnerId(long ownerId);
+
+    List<Item> findAllByIdGreaterThan(Long id, Pageable pageable);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select it.id from Item as it where it.id = ?1")
+    Optional<Long> lockById(long id);
 }
@@ -0,0 +1,160 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.availability.BookingAvailability;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Основа поисковых движков с индексом в памяти.
+ * В индекс попадают только доступные вещи. Индекс возвращает кандидатов по возрастанию id, кандидаты загружаются
+ * из БД пачками и перепроверяются, поэтому устаревшие записи индекса не попадают в выдачу.
+ * При поиске свободных вещей совпавшие кандидаты пачки проверяются одним обращением к BookingAvailability.
+ * Индекс строится до запуска веб-сервера, иначе первые поиски вернули бы пустые страницы и те попали бы в кеш.
+ * Изменения индекса внутри транзакции применяются после ее коммита: слова вещи берутся в момент вызова,
+ * а откаченные изменения в индекс не попадают.
+ */
+@Slf4j
+public abstract class IndexedItemSearchEngine implements ItemSearchEngine, SmartInitializingSingleton {
+    protected static final int BATCH_SIZE = 500;
+
+    protected final ItemRepository itemRepository;
+    protected final BookingAvailability bookingAvailability;
+
+    protected IndexedItemSearchEngine(ItemRepository itemRepository, BookingAvailability bookingAvailability) {
+        this.itemRepository = itemRepository;
+        this.bookingAvailability = bookingAvailability;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    public void rebuild() {
+        clear();
+        Pageable request = PageRequest.of(0, BATCH_SIZE, Sort.by(Sort.Direction.ASC, "id"));
+        long lastId = 0;
+        int count = 0;
+        List<Item> batch;
+        do {
+            batch = itemRepository.findAllByIdGreaterThan(lastId, request);
+            for (Item item : batch) {
+                index(item);
+                lastId = item.getId();
+            }
+            count += batch.size();
+        } while (batch.size() == BATCH_SIZE);
+        afterRebuild();
+        log.info("Построен поисковый индекс по {} вещам", count);
+    }
+
+    @Override
+    public List<Item> search(String text, long afterId, Pageable pageable) {
+        long[] candidates = findCandidates(text);
+        if (candidates == null) {
+            return itemRepository.findAvailableByNameOrDesc(text, afterId, pageable);
+        }
+        return verify(candidates, text, afterId, pageable, ids -> Set.of());
+    }
+
+    @Override
+    public List<Item> searchFree(String text, LocalDateTime start, LocalDateTime end, long afterId, Pageable pageable) {
+        long[] candidates = findCandidates(text);
+        if (candidates == null) {
+            return itemRepository.findFreeByNameOrDesc(text, afterId, start, end, pageable);
+        }
+        return verify(candidates, text, afterId, pageable,
+                ids -> bookingAvailability.findBusyItemIds(ids, start, end));
+    }
+
+    private List<Item> verify(long[] candidates, String text, long afterId, Pageable pageable,
+                              Function<List<Long>, Set<Long>> excluded) {
+        List<Item> result = new ArrayList<>();
+        long skip = pageable.getOffset();
+        // первая пачка рассчитана на страницу целиком, следующие растут до BATCH_SIZE
+        int batchSize = (int) Math.min(BATCH_SIZE, pageable.getOffset() + pageable.getPageSize());
+        int position = Arrays.binarySearch(candidates, afterId);
+        int from = position >= 0 ? position + 1 : -position - 1;
+        while (from < candidates.length && result.size() < pageable.getPageSize()) {
+            List<Long> ids = new ArrayList<>();
+            for (int i = from; i < Math.min(from + batchSize, candidates.length); i++) {
+                ids.add(candidates[i]);
+            }
+            from += batchSize;
+            batchSize = Math.min(BATCH_SIZE, batchSize * 2);
+            Map<Long, Item> items = new HashMap<>();
+            for (Item item : itemRepository.findAllById(ids)) {
+                items.put(item.getId(), item);
+            }
+            List<Item> matched = new ArrayList<>();
+            for (Long id : ids) {
+                Item item = items.get(id);
+                if (item != null && isSearchable(item) && matches(item, text)) {
+                    matched.add(item);
+                }
+            }
+            if (matched.isEmpty()) {
+                continue;
+            }
+            Set<Long> excludedIds = excluded.apply(matched.stream().map(Item::getId).collect(Collectors.toList()));
+            for (Item item : matched) {
+                if (excludedIds.contains(item.getId())) {
+                    continue;
+                }
+                if (skip > 0) {
+                    skip--;
+                    continue;
+                }
+                result.add(item);
+                if (result.size() == pageable.getPageSize()) {
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Возвращает отсортированные по возрастанию id кандидатов или null, если индекс не может ответить на запрос.
+     */
+    protected abstract long[] findCandidates(String text);
+
+    protected abstract boolean matches(Item item, String text);
+
+    protected boolean isSearchable(Item item) {
+        return Boolean.TRUE.equals(item.getAvailable());
+    }
+
+    protected void afterRebuild() {
+    }
+
+    protected static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.item.service;
+
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.ItemBookingRef;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+
+import java.util.Map;
+
+public interface ItemBookingSummaryService {
+
+    ItemBookingSummary getSummary(long itemId);
+
+    /**
+     * Возвращает актуальные сводки по id вещей: отсутствующие (null) и устаревшие пересчитываются и сохраняются.
+     * Пересчет идет в транзакции вызывающего кода или в собственной, если ее нет, поэтому вызывать метод
+     * из транзакции только для чтения нельзя.
+     */
+    Map<Long, ItemBookingSummary> actualize(Map<Long, ItemBookingSummary> summaries);
+
+    void onCreated(Booking booking);
+
+    void onApproved(ItemBookingRef booking);
+
+    void onRejected(ItemBookingRef booking);
+}
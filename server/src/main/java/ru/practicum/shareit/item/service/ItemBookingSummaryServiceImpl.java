@@ -0,0 +1,152 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.ItemBookingRef;
+import ru.practicum.shareit.booking.model.ItemBookingView;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+import ru.practicum.shareit.item.repository.ItemBookingSummaryRepository;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class ItemBookingSummaryServiceImpl implements ItemBookingSummaryService {
+    private final ItemBookingSummaryRepository summaryRepository;
+    private final BookingRepository bookingRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+
+    @Override
+    public ItemBookingSummary getSummary(long itemId) {
+        Map<Long, ItemBookingSummary> summaries = new HashMap<>();
+        summaries.put(itemId, summaryRepository.findById(itemId).orElse(null));
+        return actualize(summaries).get(itemId);
+    }
+
+    // актуальные сводки возвращаются без транзакции, блокировки и запись нужны только для устаревших
+    @Override
+    public Map<Long, ItemBookingSummary> actualize(Map<Long, ItemBookingSummary> summaries) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, ItemBookingSummary> stale = new HashMap<>();
+        summaries.forEach((itemId, summary) -> {
+            if (summary == null || !summary.isActual(now)) {
+                stale.put(itemId, summary);
+            }
+        });
+        if (stale.isEmpty()) {
+            return summaries;
+        }
+        Map<Long, ItemBookingSummary> result = new HashMap<>(summaries);
+        result.putAll(transactionTemplate.execute(status -> refresh(stale, now)));
+        return result;
+    }
+
+    @Override
+    @Transactional
+    public void onCreated(Booking booking) {
+        LocalDateTime now = LocalDateTime.now();
+        ItemBookingSummary summary = lock(booking, now);
+        if (summary == null || !booking.getStart().isAfter(now)) {
+            return;
+        }
+        if (summary.getNextStart() == null || booking.getStart().isBefore(summary.getNextStart())) {
+            summary.setNext(booking);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void onApproved(ItemBookingRef booking) {
+        LocalDateTime now = LocalDateTime.now();
+        ItemBookingSummary summary = lock(booking, now);
+        if (summary == null || !booking.getStart().isBefore(now)) {
+            return;
+        }
+        if (summary.getLastStart() == null || booking.getStart().isAfter(summary.getLastStart())) {
+            summary.setLast(booking);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void onRejected(ItemBookingRef booking) {
+        LocalDateTime now = LocalDateTime.now();
+        ItemBookingSummary summary = lock(booking, now);
+        if (summary != null && booking.getId().equals(summary.getNextBookingId())) {
+            recompute(Map.of(summary.getItemId(), summary), now);
+        }
+    }
+
+    /**
+     * Блокирует сводку вещи до конца транзакции. Отсутствующая или устаревшая сводка пересчитывается целиком,
+     * и null означает, что изменение в ней уже учтено.
+     */
+    private ItemBookingSummary lock(ItemBookingRef booking, LocalDateTime now) {
+        long itemId = booking.getItemId();
+        ItemBookingSummary summary = summaryRepository.lockByItemId(itemId).orElse(null);
+        if (summary == null) {
+            // сводка создается здесь же: иначе параллельное первое чтение построило бы ее без этого бронирования
+            refresh(Collections.singletonMap(itemId, null), now);
+            return null;
+        }
+        if (!summary.isActual(now)) {
+            recompute(Map.of(itemId, summary), now);
+            return null;
+        }
+        return summary;
+    }
+
+    /**
+     * Пересчитывает устаревшие сводки под той же блокировкой строк, что и изменения бронирований:
+     * без нее два первых чтения вещи вставили бы сводку дважды, а чтение могло перезаписать только что обновленную.
+     * Отсутствующие сводки (null) сначала создаются пустыми. Заблокированные сводки пересчитываются все,
+     * даже если их успела обновить другая транзакция: после блокировки пересчет видит ее изменения.
+     */
+    private Map<Long, ItemBookingSummary> refresh(Map<Long, ItemBookingSummary> stale, LocalDateTime now) {
+        Set<Long> missing = new HashSet<>();
+        stale.forEach((itemId, summary) -> {
+            if (summary == null) {
+                missing.add(itemId);
+            } else {
+                // загруженная ранее сводка не перечитывается блокирующим запросом, если остается в контексте
+                entityManager.detach(summary);
+            }
+        });
+        if (!missing.isEmpty()) {
+            summaryRepository.insertMissing(missing);
+        }
+        List<ItemBookingSummary> locked = summaryRepository.lockAllByItemIds(stale.keySet());
+        return recompute(locked.stream()
+                .collect(Collectors.toMap(ItemBookingSummary::getItemId, Function.identity())), now);
+    }
+
+    /**
+     * Пересчитывает заблокированные сводки сразу для всех переданных вещей: два запроса на весь набор
+     * вместо двух на каждую вещь. Изменения сохраняются при завершении транзакции.
+     */
+    private Map<Long, ItemBookingSummary> recompute(Map<Long, ItemBookingSummary> stale, LocalDateTime now) {
+        Map<Long, ItemBookingView> last = bookingRepository.findLastApprovedByItemIds(stale.keySet(), now).stream()
+                .collect(Collectors.toMap(ItemBookingView::getItemId, Function.identity()));
+        Map<Long, ItemBookingView> next = bookingRepository.findNextNotRejectedByItemIds(stale.keySet(), now).stream()
+                .collect(Collectors.toMap(ItemBookingView::getItemId, Function.identity()));
+        stale.forEach((itemId, summary) -> {
+            summary.setLast(last.get(itemId));
+            summary.setNext(next.get(itemId));
+        });
+        return stale;
+    }
+}
@@ -0,0 +1,190 @@
+package ru.practicum.shareit.item.service;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.dto.ItemCreateDto;
+import ru.practicum.shareit.item.dto.ItemImportErrorDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserDirectory;
+
+import javax.persistence.EntityManager;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+/**
+ * Загрузка вещей потоком: строки читаются и проверяются по одной, прошедшие проверку сохраняются пачками
+ * по shareit.item.import.batch-size, каждая пачка в своей транзакции. Память не зависит от размера файла:
+ * хранятся только текущая пачка и не больше shareit.item.import.max-errors описаний ошибок.
+ * Строка длиннее shareit.item.import.max-row-length символов прерывает загрузку с ошибкой 400.
+ * Сохраненные пачки не откатываются, если загрузка прервется на следующих строках.
+ */
+@Service
+@Slf4j
+public class ItemImportServiceImpl implements ItemImportService {
+    private static final int MAX_DESCRIPTION_LENGTH = 200;
+
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private final UserDirectory userDirectory;
+    private final ItemRequestRepository requestRepository;
+    private final ItemMapper mapper;
+    private final ItemSearchEngine searchEngine;
+    private final ItemSearchCache searchCache;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final ObjectReader jsonReader;
+    private final int batchSize;
+    private final int maxErrors;
+    private final int maxRowLength;
+
+    public ItemImportServiceImpl(ItemRepository itemRepository,
+                                 UserRepository userRepository,
+                                 UserDirectory userDirectory,
+                                 ItemRequestRepository requestRepository,
+                                 ItemMapper mapper,
+                                 ItemSearchEngine searchEngine,
+                                 ItemSearchCache searchCache,
+                                 TransactionTemplate transactionTemplate,
+                                 EntityManager entityManager,
+                                 ObjectMapper objectMapper,
+                                 @Value("${shareit.item.import.batch-size:500}") int batchSize,
+                                 @Value("${shareit.item.import.max-errors:1000}") int maxErrors,
+                                 @Value("${shareit.item.import.max-row-length:10000}") int maxRowLength) {
+        this.itemRepository = itemRepository;
+        this.userRepository = userRepository;
+        this.userDirectory = userDirectory;
+        this.requestRepository = requestRepository;
+        this.mapper = mapper;
+        this.searchEngine = searchEngine;
+        this.searchCache = searchCache;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManager = entityManager;
+        this.jsonReader = objectMapper.readerFor(ItemCreateDto.class)
+                .with(DeserializationFeature.FAIL_ON_TRAILING_TOKENS);
+        this.batchSize = batchSize;
+        this.maxErrors = maxErrors;
+        this.maxRowLength = maxRowLength;
+    }
+
+    @Override
+    public ItemImportResultDto importItems(Reader body, ItemImportFormat format, long ownerId) {
+        userDirectory.requireExists(ownerId);
+
+        ItemImportResultDto result = ItemImportResultDto.builder().errors(new ArrayList<>()).build();
+        ItemRowReader rows = new ItemRowReader(body, format, jsonReader, maxRowLength);
+        List<ItemRowReader.Row> batch = new ArrayList<>(batchSize);
+        try {
+            ItemRowReader.Row row;
+            while ((row = rows.next()) != null) {
+                String error = row.getError() != null ? row.getError() : validate(row.getItem());
+                if (error != null) {
+                    reject(result, row.getLine(), error);
+                    continue;
+                }
+                batch.add(row);
+                if (batch.size() == batchSize) {
+                    saveBatch(batch, ownerId, result);
+                    batch.clear();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (!batch.isEmpty()) {
+            saveBatch(batch, ownerId, result);
+        }
+        log.info("Загрузка вещей пользователя с id = {}: создано {}, отклонено {}", ownerId, result.getCreated(),
+                result.getFailed());
+        return result;
+    }
+
+    private void saveBatch(List<ItemRowReader.Row> batch, long ownerId, ItemImportResultDto result) {
+        List<ItemRowReader.Row> withoutRequest = new ArrayList<>();
+        List<Item> items;
+        try {
+            items = transactionTemplate.execute(status -> {
+                Set<Long> requestIds = batch.stream()
+                        .map(row -> row.getItem().getRequestId())
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet());
+                Set<Long> existingRequestIds = requestIds.isEmpty() ? Set.of()
+                        : StreamSupport.stream(requestRepository.findAllById(requestIds).spliterator(), false)
+                        .map(ItemRequest::getId)
+                        .collect(Collectors.toSet());
+
+                User owner = userRepository.getReferenceById(ownerId);
+                List<Item> batchItems = new ArrayList<>(batch.size());
+                for (ItemRowReader.Row row : batch) {
+                    Long requestId = row.getItem().getRequestId();
+                    if (requestId != null && !existingRequestIds.contains(requestId)) {
+                        withoutRequest.add(row);
+                        continue;
+                    }
+                    Item item = mapper.itemCreateDtoToItem(row.getItem());
+                    item.setOwner(owner);
+                    batchItems.add(item);
+                }
+                itemRepository.saveAll(batchItems);
+                // сохраненные вещи больше не нужны контексту, иначе при open-in-view он рос бы до конца загрузки
+                entityManager.flush();
+                entityManager.clear();
+                return batchItems;
+            });
+        } catch (DataAccessException e) {
+            log.warn("Пачка вещей пользователя с id = {} не сохранена: {}", ownerId, e.getMessage());
+            for (ItemRowReader.Row row : batch) {
+                reject(result, row.getLine(), "Пачка со строкой не сохранена: " + e.getMostSpecificCause().getMessage());
+            }
+            return;
+        }
+        for (ItemRowReader.Row row : withoutRequest) {
+            reject(result, row.getLine(), "Запроса с id = " + row.getItem().getRequestId() + " не существует");
+        }
+        items.forEach(searchEngine::index);
+        searchCache.invalidate(items);
+        result.setCreated(result.getCreated() + items.size());
+    }
+
+    private String validate(ItemCreateDto item) {
+        if (item.getName() == null || item.getName().isBlank()) {
+            return "Название предмета не может быть пустым";
+        }
+        if (item.getDescription() == null || item.getDescription().isBlank()) {
+            return "Описание не может быть пустым";
+        }
+        if (item.getDescription().length() > MAX_DESCRIPTION_LENGTH) {
+            return "Описание не может быть длиннее " + MAX_DESCRIPTION_LENGTH + " символов";
+        }
+        if (!Boolean.TRUE.equals(item.getAvailable())) {
+            return "Новая вещь должна быть доступна для бронирования";
+        }
+        return null;
+    }
+
+    private void reject(ItemImportResultDto result, long line, String message) {
+        result.setFailed(result.getFailed() + 1);
+        if (result.getErrors().size() < maxErrors) {
+            result.getErrors().add(new ItemImportErrorDto(line, message));
+        }
+    }
+}
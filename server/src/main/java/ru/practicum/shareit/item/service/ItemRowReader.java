@@ -0,0 +1,225 @@
+package ru.practicum.shareit.item.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectReader;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import ru.practicum.shareit.exception.model.ItemImportException;
+import ru.practicum.shareit.item.dto.ItemCreateDto;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Построчное чтение вещей из NDJSON или CSV: в памяти держится только текущая строка.
+ * Ошибка разбора строки не прерывает чтение, а возвращается вместе с номером строки.
+ * Строка NDJSON должна содержать ровно один объект: null и данные после объекта считаются ошибкой.
+ * CSV начинается с заголовка со столбцами name, description, available и необязательным requestId,
+ * значения в кавычках могут содержать запятые, перевод строки внутри значения не поддерживается.
+ * Длина строки ограничена maxRowLength символами: строка длиннее прерывает чтение, не попадая в память целиком.
+ */
+class ItemRowReader {
+    private static final List<String> REQUIRED_COLUMNS = List.of("name", "description", "available");
+
+    private final Reader reader;
+    private final ItemImportFormat format;
+    private final ObjectReader jsonReader;
+    private final int maxRowLength;
+    private final char[] buffer = new char[8192];
+    private int position;
+    private int limit;
+    private boolean skipLineFeed;
+    private Map<String, Integer> columns;
+    private long lineNumber;
+    private boolean finished;
+
+    ItemRowReader(Reader reader, ItemImportFormat format, ObjectReader jsonReader, int maxRowLength) {
+        this.reader = reader;
+        this.format = format;
+        this.jsonReader = jsonReader;
+        this.maxRowLength = maxRowLength;
+    }
+
+    /**
+     * Следующая непустая строка или null в конце данных.
+     */
+    Row next() throws IOException {
+        String line;
+        while (!finished && (line = readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            if (format == ItemImportFormat.CSV && columns == null) {
+                columns = parseHeader(line);
+                if (columns == null || !columns.keySet().containsAll(REQUIRED_COLUMNS)) {
+                    // без заголовка остальные строки не разобрать
+                    finished = true;
+                    return Row.invalid(lineNumber, "Заголовок CSV должен содержать столбцы " +
+                            String.join(", ", REQUIRED_COLUMNS));
+                }
+                continue;
+            }
+            try {
+                return Row.valid(lineNumber, format == ItemImportFormat.CSV ? parseCsv(line) : parseJson(line));
+            } catch (IllegalArgumentException e) {
+                return Row.invalid(lineNumber, e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Читает строку, как BufferedReader.readLine, но строка длиннее maxRowLength символов не накапливается:
+     * на ней выбрасывается ItemImportException с номером строки.
+     */
+    private String readLine() throws IOException {
+        StringBuilder line = new StringBuilder();
+        boolean read = false;
+        while (true) {
+            if (position == limit) {
+                limit = reader.read(buffer, 0, buffer.length);
+                position = 0;
+                if (limit <= 0) {
+                    limit = 0;
+                    return read ? line.toString() : null;
+                }
+            }
+            if (skipLineFeed) {
+                skipLineFeed = false;
+                if (buffer[position] == '\n') {
+                    position++;
+                    continue;
+                }
+            }
+            read = true;
+            int start = position;
+            while (position < limit && buffer[position] != '\n' && buffer[position] != '\r') {
+                position++;
+            }
+            if (line.length() + position - start > maxRowLength) {
+                throw new ItemImportException("Строка " + (lineNumber + 1) + " длиннее " + maxRowLength +
+                        " символов, загрузка прервана");
+            }
+            line.append(buffer, start, position - start);
+            if (position < limit) {
+                skipLineFeed = buffer[position] == '\r';
+                position++;
+                return line.toString();
+            }
+        }
+    }
+
+    private ItemCreateDto parseJson(String line) {
+        ItemCreateDto item;
+        try {
+            item = jsonReader.readValue(line);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Некорректный JSON: " + e.getOriginalMessage());
+        }
+        // строка null читается без ошибки, но вещи в ней нет
+        if (item == null) {
+            throw new IllegalArgumentException("Некорректный JSON: ожидается объект");
+        }
+        return item;
+    }
+
+    private Map<String, Integer> parseHeader(String line) {
+        List<String> names;
+        try {
+            names = splitCsv(line);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        Map<String, Integer> result = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            result.put(names.get(i).trim(), i);
+        }
+        return result;
+    }
+
+    private ItemCreateDto parseCsv(String line) {
+        List<String> values = splitCsv(line);
+        if (values.size() != columns.size()) {
+            throw new IllegalArgumentException("Ожидалось столбцов: " + columns.size() + ", получено: " + values.size());
+        }
+        return ItemCreateDto.builder()
+                .name(values.get(columns.get("name")))
+                .description(values.get(columns.get("description")))
+                .available(parseBoolean(values.get(columns.get("available"))))
+                .requestId(columns.containsKey("requestId") ? parseId(values.get(columns.get("requestId"))) : null)
+                .build();
+    }
+
+    private static Boolean parseBoolean(String value) {
+        if (value.isBlank()) {
+            return null;
+        }
+        if (!value.equalsIgnoreCase("true") && !value.equalsIgnoreCase("false")) {
+            throw new IllegalArgumentException("Некорректное значение available: " + value);
+        }
+        return Boolean.valueOf(value);
+    }
+
+    private static Long parseId(String value) {
+        if (value.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.valueOf(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Некорректное значение requestId: " + value);
+        }
+    }
+
+    private static List<String> splitCsv(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    value.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Незакрытая кавычка");
+        }
+        values.add(value.toString());
+        return values;
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    static class Row {
+        private final long line;
+        private final ItemCreateDto item;
+        private final String error;
+
+        static Row valid(long line, ItemCreateDto item) {
+            return new Row(line, item, null);
+        }
+
+        static Row invalid(long line, String error) {
+            return new Row(line, null, error);
+        }
+    }
+}
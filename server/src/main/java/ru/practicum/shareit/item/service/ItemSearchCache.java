@@ -0,0 +1,194 @@
+package ru.practicum.shareit.item.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.Data;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Кеш результатов поиска вещей, ограниченный по размеру и времени жизни записей.
+ * При изменении вещи сбрасываются только те запросы, в выдачу которых она могла попасть до или после изменения:
+ * каждое слово запроса должно содержаться в названии или описании вещи. Это условие выполняется для всех
+ * результатов и LIKE-поиска, и поиска по индексам, поэтому лишних записей в кеше не остается.
+ * Кеш не перебирается целиком: ключи хранятся во вспомогательном индексе по началу самого длинного слова запроса
+ * (не длиннее GRAM_LENGTH символов). Это начало - подстрока текста любой затронутой вещи, поэтому кандидаты
+ * на сброс находятся перебором коротких подстрок текста вещи, а не всех ключей.
+ * Ключ попадает в индекс и удаляется из него в той же атомарной операции, что и запись кеша.
+ */
+@Component
+public class ItemSearchCache {
+    public static final String CACHE_NAME = "itemSearch";
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final int GRAM_LENGTH = 3;
+
+    private final Cache<Key, List<ItemDto>> cache;
+    private final AtomicLong version = new AtomicLong();
+    private final Map<String, Set<Key>> keysByGram = new ConcurrentHashMap<>();
+
+    public ItemSearchCache(@Value("${shareit.search.cache.max-size:1000}") long maxSize,
+                           @Value("${shareit.search.cache.ttl:5m}") Duration ttl,
+                           MeterRegistry meterRegistry) {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .<Key, List<ItemDto>>evictionListener((key, value, cause) -> unregister(key))
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public List<ItemDto> get(String text, long afterId, Pageable pageable, Supplier<List<ItemDto>> loader) {
+        Key key = new Key(text, afterId, pageable.getOffset(), pageable.getPageSize());
+        List<ItemDto> cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        long loadedVersion = version.get();
+        List<ItemDto> result = List.copyOf(loader.get());
+        cache.asMap().compute(key, (k, old) -> {
+            register(k);
+            return result;
+        });
+        // если во время загрузки вещи изменились, результат мог устареть
+        if (version.get() != loadedVersion) {
+            remove(key);
+        }
+        return result;
+    }
+
+    /**
+     * Сбрасывает запросы, которые затрагивают переданные состояния вещей.
+     * В транзакции сброс выполняется после коммита, чтобы параллельный поиск не закешировал старые данные.
+     */
+    public void invalidate(Collection<Item> items) {
+        List<String> texts = items.stream()
+                .filter(item -> Boolean.TRUE.equals(item.getAvailable()))
+                .map(item -> normalize(item.getName()) + "\n" + normalize(item.getDescription()))
+                .collect(Collectors.toList());
+        if (texts.isEmpty()) {
+            return;
+        }
+        afterCommit(() -> {
+            Set<Key> affected = new HashSet<>();
+            for (String text : texts) {
+                for (String gram : grams(text)) {
+                    Set<Key> keys = keysByGram.get(gram);
+                    if (keys != null) {
+                        keys.stream().filter(key -> key.affectedBy(text)).forEach(affected::add);
+                    }
+                }
+            }
+            affected.forEach(this::remove);
+        });
+    }
+
+    public void invalidateAll() {
+        afterCommit(() -> cache.asMap().keySet().forEach(this::remove));
+    }
+
+    private void remove(Key key) {
+        cache.asMap().computeIfPresent(key, (k, value) -> {
+            unregister(k);
+            return null;
+        });
+    }
+
+    private void register(Key key) {
+        keysByGram.compute(key.gram(), (gram, keys) -> {
+            Set<Key> result = keys == null ? ConcurrentHashMap.newKeySet() : keys;
+            result.add(key);
+            return result;
+        });
+    }
+
+    private void unregister(Key key) {
+        if (key == null) {
+            return;
+        }
+        keysByGram.computeIfPresent(key.gram(), (gram, keys) -> {
+            keys.remove(key);
+            return keys.isEmpty() ? null : keys;
+        });
+    }
+
+    /**
+     * Пустая строка и все подстроки текста длиной до GRAM_LENGTH символов: среди них есть начало любого слова,
+     * которое содержится в тексте.
+     */
+    private static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        grams.add("");
+        for (int start = 0; start < text.length(); start++) {
+            for (int end = start + 1; end <= Math.min(start + GRAM_LENGTH, text.length()); end++) {
+                grams.add(text.substring(start, end));
+            }
+        }
+        return grams;
+    }
+
+    private void afterCommit(Runnable invalidation) {
+        Runnable action = () -> {
+            version.incrementAndGet();
+            invalidation.run();
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase();
+    }
+
+    @Data
+    private static class Key {
+        private final String text;
+        private final long afterId;
+        private final long offset;
+        private final int size;
+
+        boolean affectedBy(String itemText) {
+            return Arrays.stream(words()).allMatch(itemText::contains);
+        }
+
+        String gram() {
+            String longest = Arrays.stream(words()).max(Comparator.comparingInt(String::length)).orElse("");
+            return longest.substring(0, Math.min(GRAM_LENGTH, longest.length()));
+        }
+
+        private String[] words() {
+            return TOKEN_SEPARATOR.split(normalize(text));
+        }
+    }
+}
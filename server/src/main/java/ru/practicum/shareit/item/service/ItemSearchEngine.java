@@ -0,0 +1,26 @@
+package ru.practicum.shareit.item.service;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ItemSearchEngine {
+
+    /**
+     * Возвращает доступные для бронирования вещи с id больше afterId, упорядоченные по id.
+     */
+    List<Item> search(String text, long afterId, Pageable pageable);
+
+    /**
+     * То же, что search, но только вещи без неотклоненных бронирований, пересекающихся с [start, end).
+     */
+    List<Item> searchFree(String text, LocalDateTime start, LocalDateTime end, long afterId, Pageable pageable);
+
+    void index(Item item);
+
+    void remove(Item item);
+
+    void clear();
+}
@@ -1,11 +1,13 @@
 package ru.practicum.shareit.item.service;
 
 import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemCreateDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemInfoDto;
 import ru.practicum.shareit.item.dto.ItemUpdateDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
@@ -16,9 +18,14 @@ public interface ItemService {
 
     ItemDto getItemById(long id, long requesterId);
 
-    List<ItemInfoDto> getItemsByOwnerId(long ownerId, Pageable pageable);
+    List<ItemInfoDto> getItemsByOwnerId(long ownerId, long afterId, Pageable pageable);
 
-    List<ItemDto> getItemsByNameOrDesc(String substring, Pageable pageable);
+    List<ItemDto> getItemsByNameOrDesc(String substring, long afterId, Pageable pageable);
+
+    List<ItemDto> getFreeItemsByNameOrDesc(String substring, LocalDateTime start, LocalDateTime end, long afterId,
+                                           Pageable pageable);
+
+    ItemAvailabilityDto getItemAvailability(long itemId, LocalDateTime from, LocalDateTime to);
 
     void deleteItemById(long id);
 
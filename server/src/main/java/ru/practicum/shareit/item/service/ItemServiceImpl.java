@@ -5,26 +5,30 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.validation.annotation.Validated;
-import ru.practicum.shareit.booking.BookingMapper;
-import ru.practicum.shareit.booking.BookingRepository;
-import ru.practicum.shareit.booking.model.Booking;
-import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.availability.BookingAvailability;
+import ru.practicum.shareit.booking.availability.BookingInterval;
 import ru.practicum.shareit.comment.Comment;
 import ru.practicum.shareit.comment.CommentMapper;
 import ru.practicum.shareit.comment.CommentRepository;
+import ru.practicum.shareit.exception.model.BookingException;
 import ru.practicum.shareit.exception.model.NotFoundException;
 import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemCreateDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemInfoDto;
 import ru.practicum.shareit.item.dto.ItemUpdateDto;
+import ru.practicum.shareit.item.dto.PeriodDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.ItemRequestRepository;
-import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserDirectory;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -40,19 +44,22 @@ import java.util.stream.Collectors;
 public class ItemServiceImpl implements ItemService {
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
-    private final BookingRepository bookingRepository;
+    private final UserDirectory userDirectory;
     private final CommentRepository commentRepository;
     private final ItemRequestRepository requestRepository;
     private final ItemMapper mapper;
-    private final BookingMapper bookingMapper;
     private final CommentMapper commentMapper;
+    private final ItemSearchEngine searchEngine;
+    private final ItemSearchCache searchCache;
+    private final BookingAvailability bookingAvailability;
+    private final ItemBookingSummaryService bookingSummaryService;
+    private final PlatformTransactionManager transactionManager;
 
     @Override
     @Transactional
     public ItemDto createItem(ItemCreateDto dto, long ownerId) {
 
-        User owner = userRepository.findById(ownerId)
-                .orElseThrow(() -> new NotFoundException("Пользователь с id = " + ownerId + " не найден"));
+        userDirectory.requireExists(ownerId);
 
         Long requestId = dto.getRequestId();
         if (requestId != null) {
@@ -61,8 +68,10 @@ public class ItemServiceImpl implements ItemService {
         }
 
         Item item = mapper.itemCreateDtoToItem(dto);
-        item.setOwner(owner);
+        item.setOwner(userRepository.getReferenceById(ownerId));
         Item createdItem = itemRepository.save(item);
+        searchEngine.index(createdItem);
+        searchCache.invalidate(List.of(createdItem));
         return mapper.itemToItemDto(createdItem);
     }
 
@@ -92,118 +101,89 @@ public class ItemServiceImpl implements ItemService {
         itemForUpdate.setId(itemId);
         itemForUpdate.setOwner(item.getOwner());
 
+        // индекс меняется после коммита, кеш сбрасывается следом: иначе поиск между ними закешировал бы старый индекс
+        searchEngine.remove(item);
+        searchEngine.index(itemForUpdate);
+        searchCache.invalidate(List.of(item, itemForUpdate));
         itemRepository.save(itemForUpdate);
         return mapper.itemToItemDto(itemForUpdate);
 
     }
 
+    // чтение идет в транзакции только для чтения, устаревшая сводка бронирований пересчитывается после нее
     @Override
-    @Transactional(readOnly = true)
     public ItemDto getItemById(long id, long requesterId) {
-        userRepository.findById(requesterId)
-                .orElseThrow(() -> new NotFoundException("Пользователь с id = " + requesterId + " не найден"));
-
-        Item item = itemRepository.findById(id)
-                .orElseThrow(() -> new NotFoundException("объект с id = " + id + " не найден"));
-        ItemDto itemDto = mapper.itemToItemDto(item);
+        Map<Long, ItemBookingSummary> loadedSummaries = new HashMap<>();
+        ItemDto itemDto = readOnlyTransaction().execute(status -> {
+            List<Object[]> rows = itemRepository.findWithSummaryById(id, requesterId);
+            if (rows.isEmpty() || rows.get(0)[2] == null) {
+                // по пустому результату не отличить отсутствие вещи от отсутствия пользователя
+                userDirectory.requireExists(requesterId);
+                throw new NotFoundException("объект с id = " + id + " не найден");
+            }
+            Item item = (Item) rows.get(0)[0];
+            ItemDto dto = mapper.itemToItemDto(item);
+
+            List<Comment> comments = commentRepository.findAllWithAuthorByItemId(item.getId());
+            if (!comments.isEmpty()) {
+                dto.setComments(comments.stream()
+                        .map(commentMapper::commentToCommentDto)
+                        .collect(Collectors.toList()));
+            }
 
-        List<Comment> comments = commentRepository.findAllByItemId(item.getId(),
-                Sort.by(Sort.Direction.ASC, "created"));
-        if (!comments.isEmpty()) {
-            itemDto.setComments(comments.stream()
-                    .map(commentMapper::commentToCommentDto)
-                    .collect(Collectors.toList()));
-        }
+            if (requesterId == item.getOwner().getId()) {
+                loadedSummaries.put(item.getId(), (ItemBookingSummary) rows.get(0)[1]);
+            }
+            return dto;
+        });
 
-        if (requesterId != item.getOwner().getId()) {
+        if (loadedSummaries.isEmpty()) {
             return itemDto;
         }
 
-        LocalDateTime now = LocalDateTime.now();
-        Booking previousBooking = bookingRepository
-                .findFirstByItemIdAndStartBeforeAndStatusIs(item.getId(),
-                        now,
-                        BookingStatus.APPROVED,
-                        Sort.by(Sort.Direction.DESC, "start"))
-                .orElse(null);
-        itemDto.setLastBooking(null);
-        if (previousBooking != null) {
-            itemDto.setLastBooking(bookingMapper.bookingToItemBookingDto(previousBooking));
-        }
-
-        Booking futureBooking = bookingRepository
-                .findFirstByItemIdAndStartAfterAndStatusIsNot(item.getId(),
-                        now,
-                        BookingStatus.REJECTED,
-                        Sort.by(Sort.Direction.ASC, "start"))
-                .orElse(null);
-        itemDto.setNextBooking(null);
-        if (futureBooking != null) {
-            itemDto.setNextBooking(bookingMapper.bookingToItemBookingDto(futureBooking));
-        }
+        ItemBookingSummary summary = bookingSummaryService.actualize(loadedSummaries).get(itemDto.getId());
+        itemDto.setLastBooking(mapper.summaryToLastBookingDto(summary));
+        itemDto.setNextBooking(mapper.summaryToNextBookingDto(summary));
 
         return itemDto;
     }
 
+    // чтение идет в транзакции только для чтения, устаревшие сводки бронирований пересчитываются после нее
     @Override
-    @Transactional(readOnly = true)
-    public List<ItemInfoDto> getItemsByOwnerId(long ownerId, Pageable pageable) {
-
-        userRepository.findById(ownerId)
-                .orElseThrow(() -> new NotFoundException("Пользователь с id = " + ownerId + " не найден"));
-        List<Item> items = itemRepository.findAllByOwnerId(ownerId, pageable);
-        if (items.isEmpty()) {
-            return Collections.emptyList();
-        }
-        List<Long> itemIds = items.stream()
-                .map(Item::getId)
-                .collect(Collectors.toList());
-
-        LocalDateTime now = LocalDateTime.now();
-        List<Booking> previousBookings = bookingRepository
-                .findAllByItemIdInAndStartBeforeAndStatusIs(itemIds, now, BookingStatus.APPROVED);
-        List<Booking> futureBookings = bookingRepository
-                .findAllByItemIdInAndStartAfterAndStatusIsNot(itemIds, now, BookingStatus.REJECTED);
-        List<Comment> allComments = commentRepository.findAllByItemIdIn(itemIds,
-                Sort.by(Sort.Direction.ASC, "created"));
-
-        Map<Long, Booking> itemsLastBookings = new HashMap<>();
-        for (Booking booking : previousBookings) {
-            Long itemId = booking.getItem().getId();
-            Booking oldBooking = itemsLastBookings.get(itemId);
-            if (oldBooking == null) {
-                itemsLastBookings.put(itemId, booking);
-                continue;
-            }
-            if (oldBooking.getStart().isBefore(booking.getStart())) {
-                itemsLastBookings.put(itemId, booking);
-            }
-        }
-        Map<Long, Booking> itemsNextBookings = new HashMap<>();
-        for (Booking booking : futureBookings) {
-            Long itemId = booking.getItem().getId();
-            Booking oldBooking = itemsNextBookings.get(itemId);
-            if (oldBooking == null) {
-                itemsNextBookings.put(itemId, booking);
-                continue;
+    public List<ItemInfoDto> getItemsByOwnerId(long ownerId, long afterId, Pageable pageable) {
+        List<Item> items = new ArrayList<>();
+        Map<Long, ItemBookingSummary> loadedSummaries = new HashMap<>();
+        Map<Long, List<Comment>> itemCommentsMap = new HashMap<>();
+        readOnlyTransaction().executeWithoutResult(status -> {
+            userDirectory.requireExists(ownerId);
+            List<Object[]> rows = itemRepository.findAllWithSummaryByOwnerId(ownerId, afterId, pageable);
+            if (rows.isEmpty()) {
+                return;
             }
-            if (oldBooking.getStart().isAfter(booking.getStart())) {
-                itemsNextBookings.put(itemId, booking);
+            List<Long> itemIds = new ArrayList<>();
+            for (Object[] row : rows) {
+                Item item = (Item) row[0];
+                items.add(item);
+                itemIds.add(item.getId());
+                loadedSummaries.put(item.getId(), (ItemBookingSummary) row[1]);
             }
-        }
+            List<Comment> allComments = commentRepository.findAllByItemIdIn(itemIds,
+                    Sort.by(Sort.Direction.ASC, "created"));
 
-        Map<Long, List<Comment>> itemCommentsMap = new HashMap<>();
-        for (Comment comment : allComments) {
-            itemCommentsMap.computeIfAbsent(comment.getItem().getId(), k -> new ArrayList<>()).add(comment);
+            for (Comment comment : allComments) {
+                itemCommentsMap.computeIfAbsent(comment.getItem().getId(), k -> new ArrayList<>()).add(comment);
+            }
+        });
+        if (items.isEmpty()) {
+            return Collections.emptyList();
         }
 
+        Map<Long, ItemBookingSummary> summaries = bookingSummaryService.actualize(loadedSummaries);
         List<ItemInfoDto> result = new ArrayList<>();
         for (Item item : items) {
             Long itemId = item.getId();
-            Booking lastBooking = itemsLastBookings.get(itemId);
-            Booking nextBooking = itemsNextBookings.get(itemId);
             List<Comment> itemComments = itemCommentsMap.getOrDefault(itemId, new ArrayList<>());
-            result.add(mapper.itemToItemInfoDto(item, itemComments, nextBooking, lastBooking));
+            result.add(mapper.itemToItemInfoDto(item, itemComments, summaries.get(itemId)));
         }
 
         return result;
@@ -211,29 +191,106 @@ public class ItemServiceImpl implements ItemService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<ItemDto> getItemsByNameOrDesc(String substring, Pageable pageable) {
+    public List<ItemDto> getItemsByNameOrDesc(String substring, long afterId, Pageable pageable) {
+        if (substring.isBlank()) {
+            return new ArrayList<>();
+        }
+        String needSubstring = substring.toLowerCase();
+
+        return searchCache.get(needSubstring, afterId, pageable, () -> searchEngine.search(needSubstring, afterId, pageable)
+                .stream()
+                .map(mapper::itemToItemDto)
+                .collect(Collectors.toList()));
+    }
+
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ItemDto> getFreeItemsByNameOrDesc(String substring, LocalDateTime start, LocalDateTime end,
+                                                  long afterId, Pageable pageable) {
+        if (!start.isBefore(end)) {
+            throw new BookingException("Начало периода должно быть раньше его конца");
+        }
         if (substring.isBlank()) {
             return new ArrayList<>();
         }
         String needSubstring = substring.toLowerCase();
 
-        List<Item> items = itemRepository.findAllByNameOrDesc(needSubstring, pageable);
-        return items.stream()
-                .filter(Item::getAvailable)
+        // результат зависит от бронирований, поэтому в кеш поиска не попадает
+        return searchEngine.searchFree(needSubstring, start, end, afterId, pageable).stream()
                 .map(mapper::itemToItemDto)
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public ItemAvailabilityDto getItemAvailability(long itemId, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new BookingException("Начало периода должно быть раньше его конца");
+        }
+        if (!itemRepository.existsById(itemId)) {
+            throw new NotFoundException("объект с id = " + itemId + " не найден");
+        }
+
+        List<PeriodDto> busy = new ArrayList<>();
+        PeriodDto current = null;
+        for (BookingInterval interval : bookingAvailability.findBusy(itemId, from, to)) {
+            LocalDateTime start = interval.getStart().isBefore(from) ? from : interval.getStart();
+            LocalDateTime end = interval.getEnd().isAfter(to) ? to : interval.getEnd();
+            if (current != null && !start.isAfter(current.getEnd())) {
+                if (end.isAfter(current.getEnd())) {
+                    current.setEnd(end);
+                }
+            } else {
+                current = new PeriodDto(start, end);
+                busy.add(current);
+            }
+        }
+
+        List<PeriodDto> free = new ArrayList<>();
+        LocalDateTime freeStart = from;
+        for (PeriodDto period : busy) {
+            if (freeStart.isBefore(period.getStart())) {
+                free.add(new PeriodDto(freeStart, period.getStart()));
+            }
+            freeStart = period.getEnd();
+        }
+        if (freeStart.isBefore(to)) {
+            free.add(new PeriodDto(freeStart, to));
+        }
+
+        return ItemAvailabilityDto.builder()
+                .itemId(itemId)
+                .from(from)
+                .to(to)
+                .busy(busy)
+                .free(free)
+                .build();
+    }
 
     @Override
     @Transactional
     public void deleteItemById(long id) {
+        itemRepository.findById(id).ifPresent(item -> {
+            searchEngine.remove(item);
+            searchCache.invalidate(List.of(item));
+        });
         itemRepository.deleteById(id);
+        bookingAvailability.removeItem(id);
     }
 
     @Override
     @Transactional
     public void deleteItems() {
         itemRepository.deleteAll();
+        searchEngine.clear();
+        searchCache.invalidateAll();
+        bookingAvailability.clear();
+    }
+
+    private TransactionTemplate readOnlyTransaction() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        return template;
     }
 }
@@ -0,0 +1,241 @@
+package ru.practicum.shareit.item.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Отсортированный список id, разбитый на блоки не больше BLOCK_SIZE id. Каждый блок сжат в массив байт:
+ * хранятся разности соседних id в формате varint.
+ * Добавление id больше последнего выполняется дописыванием в конец, остальные изменения перекодируют
+ * только блок, в который попадает id, поэтому правка вещи не зависит от длины списка.
+ * Переполненный блок делится пополам, блок, опустевший наполовину, сливается с соседним, если они помещаются в один.
+ * Класс не потокобезопасен.
+ */
+class PostingList {
+    static final int BLOCK_SIZE = 128;
+
+    private final List<Block> blocks = new ArrayList<>();
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void add(long id) {
+        Block tail = blocks.isEmpty() ? null : blocks.get(blocks.size() - 1);
+        if (tail == null || id > tail.last) {
+            if (tail == null || tail.size == BLOCK_SIZE) {
+                if (tail != null) {
+                    tail.compact();
+                }
+                tail = new Block();
+                blocks.add(tail);
+            }
+            tail.append(id);
+            size++;
+            return;
+        }
+
+        int index = blockIndex(id);
+        Block block = blocks.get(index);
+        long[] ids = block.toArray();
+        int position = Arrays.binarySearch(ids, id);
+        if (position >= 0) {
+            return;
+        }
+        int insertion = -position - 1;
+        long[] updated = new long[ids.length + 1];
+        System.arraycopy(ids, 0, updated, 0, insertion);
+        updated[insertion] = id;
+        System.arraycopy(ids, insertion, updated, insertion + 1, ids.length - insertion);
+        size++;
+        if (updated.length <= BLOCK_SIZE) {
+            block.encode(updated);
+            return;
+        }
+        int half = updated.length / 2;
+        block.encode(Arrays.copyOfRange(updated, 0, half));
+        Block next = new Block();
+        next.encode(Arrays.copyOfRange(updated, half, updated.length));
+        blocks.add(index + 1, next);
+    }
+
+    void remove(long id) {
+        if (blocks.isEmpty()) {
+            return;
+        }
+        int index = blockIndex(id);
+        Block block = blocks.get(index);
+        if (id < block.first || id > block.last) {
+            return;
+        }
+        long[] ids = block.toArray();
+        int position = Arrays.binarySearch(ids, id);
+        if (position < 0) {
+            return;
+        }
+        size--;
+        if (ids.length == 1) {
+            blocks.remove(index);
+            return;
+        }
+        long[] updated = new long[ids.length - 1];
+        System.arraycopy(ids, 0, updated, 0, position);
+        System.arraycopy(ids, position + 1, updated, position, ids.length - position - 1);
+        if (updated.length < BLOCK_SIZE / 2 && index + 1 < blocks.size()
+                && updated.length + blocks.get(index + 1).size <= BLOCK_SIZE) {
+            long[] following = blocks.get(index + 1).toArray();
+            long[] merged = Arrays.copyOf(updated, updated.length + following.length);
+            System.arraycopy(following, 0, merged, updated.length, following.length);
+            blocks.remove(index + 1);
+            updated = merged;
+        }
+        block.encode(updated);
+    }
+
+    long[] toArray() {
+        long[] ids = new long[size];
+        int count = 0;
+        for (Block block : blocks) {
+            count = block.readInto(ids, count);
+        }
+        return ids;
+    }
+
+    /**
+     * Возвращает id из переданного отсортированного массива, которые есть в списке.
+     * Блоки, в диапазон которых не попадает ни один id массива, не распаковываются.
+     */
+    long[] retainAll(long[] sorted) {
+        long[] result = new long[Math.min(size, sorted.length)];
+        int count = 0;
+        int j = 0;
+        for (int b = 0; b < blocks.size() && j < sorted.length; b++) {
+            Block block = blocks.get(b);
+            if (block.last < sorted[j]) {
+                continue;
+            }
+            while (j < sorted.length && sorted[j] < block.first) {
+                j++;
+            }
+            if (j == sorted.length || sorted[j] > block.last) {
+                continue;
+            }
+            Block.Reader reader = block.reader();
+            for (int i = 0; i < block.size && j < sorted.length; i++) {
+                long id = reader.next();
+                while (j < sorted.length && sorted[j] < id) {
+                    j++;
+                }
+                if (j < sorted.length && sorted[j] == id) {
+                    result[count++] = id;
+                    j++;
+                }
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    void compact() {
+        blocks.forEach(Block::compact);
+    }
+
+    /**
+     * Индекс последнего блока, который начинается не позже id, или 0, если id меньше всех.
+     */
+    private int blockIndex(long id) {
+        int low = 0;
+        int high = blocks.size() - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (blocks.get(middle).first <= id) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return low;
+    }
+
+    private static class Block {
+        private byte[] data = new byte[4];
+        private int length;
+        private int size;
+        private long first;
+        private long last;
+
+        void append(long id) {
+            if (size == 0) {
+                first = id;
+            }
+            if (length + 10 > data.length) {
+                data = Arrays.copyOf(data, Math.max(data.length * 2, length + 10));
+            }
+            long delta = id - last;
+            while ((delta & ~0x7FL) != 0) {
+                data[length++] = (byte) ((delta & 0x7F) | 0x80);
+                delta >>>= 7;
+            }
+            data[length++] = (byte) delta;
+            last = id;
+            size++;
+        }
+
+        void encode(long[] ids) {
+            data = new byte[Math.max(4, ids.length * 2)];
+            length = 0;
+            size = 0;
+            last = 0;
+            for (long id : ids) {
+                append(id);
+            }
+        }
+
+        long[] toArray() {
+            long[] ids = new long[size];
+            readInto(ids, 0);
+            return ids;
+        }
+
+        int readInto(long[] target, int offset) {
+            Reader reader = reader();
+            for (int i = 0; i < size; i++) {
+                target[offset++] = reader.next();
+            }
+            return offset;
+        }
+
+        void compact() {
+            if (data.length > length) {
+                data = Arrays.copyOf(data, Math.max(length, 1));
+            }
+        }
+
+        Reader reader() {
+            return new Reader();
+        }
+
+        private class Reader {
+            private int position;
+            private long value;
+
+            long next() {
+                long delta = 0;
+                int shift = 0;
+                byte current;
+                do {
+                    current = data[position++];
+                    delta |= (long) (current & 0x7F) << shift;
+                    shift += 7;
+                } while (current < 0);
+                value += delta;
+                return value;
+            }
+        }
+    }
+}
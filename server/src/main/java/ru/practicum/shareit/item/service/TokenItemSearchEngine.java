@@ -0,0 +1,151 @@
+package ru.practicum.shareit.item.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.availability.BookingAvailability;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * Поиск по инвертированному индексу слов из названия и описания вещи.
+ * В отличие от LIKE-поиска находит вещи, у которых каждое слово запроса является началом какого-либо слова
+ * названия или описания: "дрел" найдет "Дрель ударная", но "рель" - нет.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.search.mode", havingValue = "token")
+public class TokenItemSearchEngine extends IndexedItemSearchEngine {
+    private final NavigableMap<String, NavigableSet<Long>> postings = new TreeMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public TokenItemSearchEngine(ItemRepository itemRepository, BookingAvailability bookingAvailability) {
+        super(itemRepository, bookingAvailability);
+    }
+
+    @Override
+    public void index(Item item) {
+        if (!isSearchable(item)) {
+            return;
+        }
+        long id = item.getId();
+        Set<String> tokens = tokenize(item);
+        afterCommit(() -> addTokens(id, tokens));
+    }
+
+    private void addTokens(long id, Set<String> tokens) {
+        lock.writeLock().lock();
+        try {
+            for (String token : tokens) {
+                postings.computeIfAbsent(token, k -> new TreeSet<>()).add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Item item) {
+        long id = item.getId();
+        Set<String> tokens = tokenize(item);
+        afterCommit(() -> removeTokens(id, tokens));
+    }
+
+    private void removeTokens(long id, Set<String> tokens) {
+        lock.writeLock().lock();
+        try {
+            for (String token : tokens) {
+                NavigableSet<Long> ids = postings.get(token);
+                if (ids == null) {
+                    continue;
+                }
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(token);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        afterCommit(this::clearPostings);
+    }
+
+    private void clearPostings() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    protected long[] findCandidates(String text) {
+        Set<String> queryTokens = tokenize(text);
+        if (queryTokens.isEmpty()) {
+            return new long[0];
+        }
+
+        NavigableSet<Long> result = null;
+        lock.readLock().lock();
+        try {
+            for (String queryToken : queryTokens) {
+                NavigableSet<Long> tokenIds = new TreeSet<>();
+                for (NavigableSet<Long> ids : postings.subMap(queryToken, true,
+                        queryToken + Character.MAX_VALUE, false).values()) {
+                    tokenIds.addAll(ids);
+                }
+                if (result == null) {
+                    result = tokenIds;
+                } else {
+                    result.retainAll(tokenIds);
+                }
+                if (result.isEmpty()) {
+                    break;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    @Override
+    protected boolean matches(Item item, String text) {
+        Set<String> itemTokens = tokenize(item);
+        for (String queryToken : tokenize(text)) {
+            if (itemTokens.stream().noneMatch(token -> token.startsWith(queryToken))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Set<String> tokenize(Item item) {
+        Set<String> tokens = tokenize(item.getName());
+        tokens.addAll(tokenize(item.getDescription()));
+        return tokens;
+    }
+
+    private Set<String> tokenize(String text) {
+        if (text == null) {
+            return new TreeSet<>();
+        }
+        return Arrays.stream(text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{Nd}]+"))
+                .filter(token -> !token.isEmpty())
+                .collect(Collectors.toCollection(TreeSet::new));
+    }
+}
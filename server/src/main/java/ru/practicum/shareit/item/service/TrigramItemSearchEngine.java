@@ -0,0 +1,162 @@
+package ru.practicum.shareit.item.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.availability.BookingAvailability;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+/**
+ * Поиск подстроки по индексу триграмм названия и описания вещи.
+ * Кандидаты - пересечение списков id всех триграмм запроса, затем каждый кандидат проверяется тем же условием
+ * "название или описание содержит строку без учета регистра", что и LIKE-запрос.
+ * Запросы короче трех символов выполняются LIKE-запросом.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.search.mode", havingValue = "trigram")
+public class TrigramItemSearchEngine extends IndexedItemSearchEngine {
+    private static final int GRAM_LENGTH = 3;
+
+    private final Map<Long, PostingList> postings = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public TrigramItemSearchEngine(ItemRepository itemRepository, BookingAvailability bookingAvailability) {
+        super(itemRepository, bookingAvailability);
+    }
+
+    @Override
+    public void index(Item item) {
+        if (!isSearchable(item)) {
+            return;
+        }
+        long id = item.getId();
+        long[] trigrams = trigrams(item);
+        afterCommit(() -> addTrigrams(id, trigrams));
+    }
+
+    private void addTrigrams(long id, long[] trigrams) {
+        lock.writeLock().lock();
+        try {
+            for (long trigram : trigrams) {
+                postings.computeIfAbsent(trigram, k -> new PostingList()).add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Item item) {
+        long id = item.getId();
+        long[] trigrams = trigrams(item);
+        afterCommit(() -> removeTrigrams(id, trigrams));
+    }
+
+    private void removeTrigrams(long id, long[] trigrams) {
+        lock.writeLock().lock();
+        try {
+            for (long trigram : trigrams) {
+                PostingList ids = postings.get(trigram);
+                if (ids == null) {
+                    continue;
+                }
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(trigram);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        afterCommit(this::clearPostings);
+    }
+
+    private void clearPostings() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    protected void afterRebuild() {
+        lock.writeLock().lock();
+        try {
+            postings.values().forEach(PostingList::compact);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    protected long[] findCandidates(String text) {
+        String normalized = normalize(text);
+        if (normalized.length() < GRAM_LENGTH) {
+            return null;
+        }
+
+        lock.readLock().lock();
+        try {
+            List<PostingList> lists = new ArrayList<>();
+            for (long trigram : trigrams(normalized)) {
+                PostingList ids = postings.get(trigram);
+                if (ids == null) {
+                    return new long[0];
+                }
+                lists.add(ids);
+            }
+            lists.sort(Comparator.comparingInt(PostingList::size));
+
+            long[] result = lists.get(0).toArray();
+            for (int i = 1; i < lists.size() && result.length > 0; i++) {
+                result = lists.get(i).retainAll(result);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    protected boolean matches(Item item, String text) {
+        String normalized = normalize(text);
+        return normalize(item.getName()).contains(normalized)
+                || normalize(item.getDescription()).contains(normalized);
+    }
+
+    private long[] trigrams(Item item) {
+        return LongStream.concat(
+                        LongStream.of(trigrams(normalize(item.getName()))),
+                        LongStream.of(trigrams(normalize(item.getDescription()))))
+                .distinct()
+                .toArray();
+    }
+
+    private long[] trigrams(String text) {
+        return IntStream.rangeClosed(0, text.length() - GRAM_LENGTH)
+                .mapToLong(i -> ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2))
+                .distinct()
+                .toArray();
+    }
+
+    private String normalize(String text) {
+        return text == null ? "" : text.toUpperCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.pagination;
+
+import ru.practicum.shareit.exception.model.PaginationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Курсор для постраничной выдачи по возрастанию id: в непрозрачном для клиента виде хранит id последней
+ * отданной записи. Следующая страница начинается сразу после нее и не зависит от вставок и удалений
+ * в уже просмотренной части выдачи.
+ */
+public final class PageCursor {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private PageCursor() {
+    }
+
+    public static String encode(long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(Long.toString(lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static long decode(String cursor) {
+        try {
+            long lastId = Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+            if (lastId < 0) {
+                throw new PaginationException("Некорректный курсор " + cursor);
+            }
+            return lastId;
+        } catch (IllegalArgumentException e) {
+            throw new PaginationException("Некорректный курсор " + cursor);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.pagination;
+
+/**
+ * Заголовки постраничной выдачи без запроса количества записей: признак следующей страницы
+ * и общее количество, которое считается только по явному запросу клиента.
+ */
+public final class SliceHeaders {
+    public static final String HAS_NEXT_HEADER = "X-Has-Next";
+    public static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+
+    private SliceHeaders() {
+    }
+}
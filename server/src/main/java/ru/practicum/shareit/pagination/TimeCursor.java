@@ -0,0 +1,40 @@
+package ru.practicum.shareit.pagination;
+
+import lombok.Data;
+import ru.practicum.shareit.exception.model.PaginationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Курсор для выдачи по убыванию времени и id: хранит время и id последней отданной записи.
+ * Следующая страница выбирается условием (time, id) &lt; (cursor.time, cursor.id) и не зависит от глубины.
+ */
+@Data
+public final class TimeCursor {
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime time;
+    private final long id;
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((time + SEPARATOR + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TimeCursor decode(String cursor) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = value.lastIndexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new PaginationException("Некорректный курсор " + cursor);
+            }
+            return new TimeCursor(LocalDateTime.parse(value.substring(0, separator)),
+                    Long.parseLong(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new PaginationException("Некорректный курсор " + cursor);
+        }
+    }
+}
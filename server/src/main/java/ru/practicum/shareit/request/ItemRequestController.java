@@ -2,8 +2,9 @@ package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -12,6 +13,9 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
+import ru.practicum.shareit.pagination.PageCursor;
+import ru.practicum.shareit.pagination.TimeCursor;
 import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestInfoDto;
@@ -43,15 +47,22 @@ public class ItemRequestController {
     }
 
     @GetMapping("/all")
-    public List<ItemRequestInfoDto> getAllOthers(@RequestParam(defaultValue = "0") int from,
-                                                 @RequestParam(defaultValue = "10") int size,
-                                                 @RequestHeader("X-Sharer-User-Id") long userId) {
-        Sort sort = Sort.by(Sort.Direction.DESC, "created");
-        PageRequest request = PageRequest.of(from / size, size, sort);
+    public ResponseEntity<List<ItemRequestInfoDto>> getAllOthers(@RequestParam(defaultValue = "0") int from,
+                                                                 @RequestParam(defaultValue = "10") int size,
+                                                                 @RequestParam(required = false) String cursor,
+                                                                 @RequestHeader("X-Sharer-User-Id") long userId) {
+        Sort sort = Sort.by(Sort.Direction.DESC, "created").and(Sort.by(Sort.Direction.DESC, "id"));
+        TimeCursor after = cursor == null ? null : TimeCursor.decode(cursor);
+        Pageable request = OffsetPageRequest.of(after == null ? from : 0, size, sort);
         log.info("Обработка запроса на получение чужих обращений");
-        List<ItemRequestInfoDto> result = service.getAllRequests(userId, request);
+        List<ItemRequestInfoDto> result = service.getAllRequests(userId, after, request);
         log.info("Получен список всех обращений длиной {}", result.size());
-        return result;
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (result.size() == size) {
+            ItemRequestInfoDto last = result.get(result.size() - 1);
+            response.header(PageCursor.NEXT_CURSOR_HEADER, new TimeCursor(last.getCreated(), last.getId()).encode());
+        }
+        return response.body(result);
     }
 
     @GetMapping("/{requestId}")
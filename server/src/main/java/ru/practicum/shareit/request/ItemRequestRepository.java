@@ -3,9 +3,11 @@ package ru.practicum.shareit.request;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.querydsl.QuerydslPredicateExecutor;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -15,5 +17,12 @@ public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long>,
 
     List<ItemRequest> findAllByOwnerIdNot(long ownerId, Pageable pageable);
 
+    @Query("select r " +
+            "from ItemRequest as r " +
+            "where r.owner.id <> ?1 " +
+            "and r.created <= ?2 " +
+            "and (r.created < ?2 or r.id < ?3)")
+    List<ItemRequest> findAllByOwnerIdNotBefore(long ownerId, LocalDateTime created, long id, Pageable pageable);
+
     void deleteAllByOwnerId(long ownerId);
 }
@@ -1,6 +1,7 @@
 package ru.practicum.shareit.request;
 
 import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.pagination.TimeCursor;
 import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestInfoDto;
@@ -13,7 +14,7 @@ public interface ItemRequestService {
 
     public List<ItemRequestInfoDto> getUserRequests(long userId);
 
-    public List<ItemRequestInfoDto> getAllRequests(long userId, Pageable pageable);
+    public List<ItemRequestInfoDto> getAllRequests(long userId, TimeCursor after, Pageable pageable);
 
     public ItemRequestInfoDto getRequestById(long id, long userId);
 }
@@ -8,11 +8,12 @@ import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.model.NotFoundException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.TimeCursor;
 import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestInfoDto;
-import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserDirectory;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -26,6 +27,7 @@ import java.util.stream.Collectors;
 public class ItemRequestServiceImpl implements ItemRequestService {
     private final ItemRequestRepository requestRepository;
     private final UserRepository userRepository;
+    private final UserDirectory userDirectory;
     private final ItemRepository itemRepository;
     private final RequestMapper mapper;
 
@@ -33,12 +35,11 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     @Override
     @Transactional
     public ItemRequestDto createItemRequest(ItemRequestCreateDto dto, long userId) {
-        User owner = userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("Пользователь с id = " + userId + " не найден"));
+        userDirectory.requireExists(userId);
 
         ItemRequest request = mapper.createDtoToItemRequest(dto);
         request.setCreated(LocalDateTime.now());
-        request.setOwner(owner);
+        request.setOwner(userRepository.getReferenceById(userId));
         ItemRequest createdRequest = requestRepository.save(request);
         return mapper.itemRequestToDto(createdRequest);
     }
@@ -46,8 +47,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     @Override
     @Transactional(readOnly = true)
     public List<ItemRequestInfoDto> getUserRequests(long userId) {
-        userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("Пользователь с id = " + userId + " не найден"));
+        userDirectory.requireExists(userId);
 
         List<ItemRequest> requests = requestRepository.findAllByOwnerId(userId,
                 Sort.by(Sort.Direction.DESC, "created"));
@@ -56,18 +56,18 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     }
 
     @Override
-    public List<ItemRequestInfoDto> getAllRequests(long userId, Pageable pageable) {
-        userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("Пользователь с id = " + userId + " не найден"));
-        List<ItemRequest> requests = requestRepository.findAllByOwnerIdNot(userId, pageable);
+    public List<ItemRequestInfoDto> getAllRequests(long userId, TimeCursor after, Pageable pageable) {
+        userDirectory.requireExists(userId);
+        List<ItemRequest> requests = after == null
+                ? requestRepository.findAllByOwnerIdNot(userId, pageable)
+                : requestRepository.findAllByOwnerIdNotBefore(userId, after.getTime(), after.getId(), pageable);
 
         return setItemsToRequests(requests);
     }
 
     @Override
     public ItemRequestInfoDto getRequestById(long id, long userId) {
-        userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("Пользователь с id = " + userId + " не найден"));
+        userDirectory.requireExists(userId);
 
         ItemRequest request = requestRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Запрос с id = " + id + " не найден"));
@@ -0,0 +1,80 @@
+package ru.practicum.shareit.user.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.exception.model.NotFoundException;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.Duration;
+
+/**
+ * Справочник существующих пользователей: проверка существования без загрузки сущности User.
+ * Кешируются только положительные ответы, поэтому созданный пользователь виден сразу, даже если он
+ * сохранен в обход UserService. Удаление через UserService сбрасывает записи, а удаление в обход сервиса
+ * становится видно не позже чем через время жизни записи.
+ */
+@Component
+public class UserDirectory {
+    public static final String CACHE_NAME = "userExists";
+
+    private final UserRepository userRepository;
+    private final Cache<Long, Boolean> cache;
+
+    public UserDirectory(UserRepository userRepository,
+                         @Value("${shareit.user.directory.max-size:100000}") long maxSize,
+                         @Value("${shareit.user.directory.ttl:10m}") Duration ttl,
+                         MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public boolean exists(long userId) {
+        if (cache.getIfPresent(userId) != null) {
+            return true;
+        }
+        boolean exists = userRepository.existsById(userId);
+        if (exists) {
+            cache.put(userId, Boolean.TRUE);
+        }
+        return exists;
+    }
+
+    public void requireExists(long userId) {
+        if (!exists(userId)) {
+            throw new NotFoundException("Пользователь с id = " + userId + " не найден");
+        }
+    }
+
+    public void evict(long userId) {
+        // сразу и после коммита: до коммита удаление еще не видно другим транзакциям, и они могут вернуть запись
+        invalidate(() -> cache.invalidate(userId));
+    }
+
+    public void evictAll() {
+        invalidate(cache::invalidateAll);
+    }
+
+    private void invalidate(Runnable action) {
+        action.run();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
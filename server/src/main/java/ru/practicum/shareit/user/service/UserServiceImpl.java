@@ -4,9 +4,13 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.availability.BookingAvailability;
 import ru.practicum.shareit.comment.CommentRepository;
 import ru.practicum.shareit.exception.model.NotFoundException;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemSearchCache;
+import ru.practicum.shareit.item.service.ItemSearchEngine;
 import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserMapper;
@@ -26,6 +30,10 @@ public class UserServiceImpl implements UserService {
     private final CommentRepository commentRepository;
     private final ItemRequestRepository requestRepository;
     private final UserMapper mapper;
+    private final ItemSearchEngine itemSearchEngine;
+    private final ItemSearchCache itemSearchCache;
+    private final BookingAvailability bookingAvailability;
+    private final UserDirectory userDirectory;
 
 
     @Override
@@ -72,19 +80,32 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional
     public void deleteUserById(long id) {
         commentRepository.deleteAllByAuthorId(id);
+        itemRepository.detachFromRequestsOfOwner(id);
         requestRepository.deleteAllByOwnerId(id);
+        List<Item> items = itemRepository.findALlByOwnerId(id);
+        items.forEach(itemSearchEngine::remove);
+        bookingAvailability.removeBooker(id);
         itemRepository.deleteAllByOwnerId(id);
+        itemSearchCache.invalidate(items);
+        items.forEach(item -> bookingAvailability.removeItem(item.getId()));
         userRepository.deleteById(id);
+        userDirectory.evict(id);
     }
 
     @Override
     public void deleteUsers() {
         commentRepository.deleteAll();
+        itemRepository.detachFromAllRequests();
         requestRepository.deleteAll();
         itemRepository.deleteAll();
+        itemSearchEngine.clear();
+        itemSearchCache.invalidateAll();
+        bookingAvailability.clear();
         userRepository.deleteAll();
+        userDirectory.evictAll();
     }
 
 }
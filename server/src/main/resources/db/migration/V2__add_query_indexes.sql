@@ -0,0 +1,20 @@
+-- последнее и следующее бронирование вещи, проверка пересечений и поиск свободных вещей
+CREATE INDEX IF NOT EXISTS idx_bookings_item_id_start_time ON bookings (item_id, start_time);
+
+-- бронирования арендатора по убыванию начала и проверка завершенной аренды перед отзывом
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_id_start_time ON bookings (booker_id, start_time);
+
+-- вещи владельца по возрастанию id, в том числе после курсора, и проверка, есть ли у пользователя вещи
+CREATE INDEX IF NOT EXISTS idx_items_owner_id_id ON items (owner_id, id);
+
+-- вещи, созданные в ответ на запросы
+CREATE INDEX IF NOT EXISTS idx_items_request_id ON items (request_id);
+
+-- отзывы о вещах по времени создания
+CREATE INDEX IF NOT EXISTS idx_comments_item_id_creation_time ON comments (item_id, creation_time);
+
+-- собственные запросы пользователя по убыванию даты создания
+CREATE INDEX IF NOT EXISTS idx_requests_owner_id_created ON requests (owner_id, created);
+
+-- чужие запросы по убыванию даты создания и id, в том числе после курсора
+CREATE INDEX IF NOT EXISTS idx_requests_created_id ON requests (created DESC, id DESC);
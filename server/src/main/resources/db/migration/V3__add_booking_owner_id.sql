@@ -0,0 +1,8 @@
+-- владелец вещи копируется в бронирование, чтобы выборки владельца не соединяли бронирования с вещами
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS owner_id BIGINT REFERENCES users (id) ON DELETE CASCADE;
+
+UPDATE bookings SET owner_id = (SELECT items.owner_id FROM items WHERE items.id = bookings.item_id)
+WHERE owner_id IS NULL;
+
+-- бронирования владельца по убыванию начала, в том числе после курсора и с фильтром по состоянию
+CREATE INDEX IF NOT EXISTS idx_bookings_owner_id_start_time ON bookings (owner_id, start_time);
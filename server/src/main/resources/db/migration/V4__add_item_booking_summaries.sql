@@ -0,0 +1,15 @@
+-- последнее подтвержденное и ближайшее неотклоненное бронирование вещи, строка создается при первом чтении
+CREATE TABLE IF NOT EXISTS item_booking_summaries (
+    item_id BIGINT NOT NULL REFERENCES items (id) ON DELETE CASCADE,
+    last_booking_id BIGINT REFERENCES bookings (id) ON DELETE SET NULL,
+    last_booker_id BIGINT,
+    last_start TIMESTAMP WITHOUT TIME ZONE,
+    next_booking_id BIGINT REFERENCES bookings (id) ON DELETE SET NULL,
+    next_booker_id BIGINT,
+    next_start TIMESTAMP WITHOUT TIME ZONE,
+    CONSTRAINT pk_item_booking_summaries PRIMARY KEY (item_id)
+);
+
+-- удаление бронирования обнуляет ссылки на него в сводках
+CREATE INDEX IF NOT EXISTS idx_item_booking_summaries_last_booking_id ON item_booking_summaries (last_booking_id);
+CREATE INDEX IF NOT EXISTS idx_item_booking_summaries_next_booking_id ON item_booking_summaries (next_booking_id);
@@ -0,0 +1,104 @@
+package ru.practicum.shareit;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.dto.ItemInfoDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemBookingSummaryRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Вставка нескольких строк отправляется пачкой: id берутся из последовательности блоками,
+ * поэтому число подготовленных запросов не зависит от количества строк.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class BatchInsertTest {
+    private static final int ROWS = 20;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ItemBookingSummaryRepository summaryRepository;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void beforeEach() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    public void afterEach() {
+        userService.deleteUsers();
+    }
+
+    @Test
+    public void saveAll_whenManyUsers_thenInsertInOneBatch() {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            users.add(User.builder().name("user" + i).email(i + "@batch.com").build());
+        }
+
+        transactionTemplate.executeWithoutResult(status -> userRepository.saveAll(users));
+
+        // не больше одного обращения к последовательности и одна пачка вставок
+        assertTrue(statistics.getPrepareStatementCount() <= 2,
+                "Подготовлено запросов: " + statistics.getPrepareStatementCount());
+        assertEquals(ROWS, statistics.getEntityInsertCount());
+        assertEquals(ROWS, userRepository.count());
+    }
+
+    @Test
+    public void getItemsByOwnerId_whenSummariesAreMissing_thenInsertThemInOneStatement() {
+        User owner = userRepository.save(User.builder().name("owner").email("owner@batch.com").build());
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            items.add(Item.builder().name("item" + i).description("desc").available(true).owner(owner).build());
+        }
+        itemRepository.saveAll(items);
+        statistics.clear();
+
+        List<ItemInfoDto> result = itemService.getItemsByOwnerId(owner.getId(), 0, PageRequest.of(0, ROWS));
+
+        // проверка владельца, страница вещей, одна вставка всех сводок, их блокировка, последние и ближайшие
+        // бронирования и комментарии; пустые сводки без бронирований после пересчета не обновляются
+        assertEquals(7, statistics.getPrepareStatementCount());
+        assertEquals(ROWS, result.size());
+        assertEquals(ROWS, summaryRepository.count());
+    }
+}
@@ -0,0 +1,161 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Планы запросов репозиториев на H2 в режиме PostgreSQL: каждый частый запрос должен использовать индекс
+ * из миграций, а не просмотр всей таблицы. H2 сам индексирует столбцы внешних ключей, поэтому поиск
+ * только по такому столбцу проверяется на отсутствие полного просмотра, а не на имя индекса.
+ */
+@SpringBootTest
+class QueryPlanTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String explain(String sql) {
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+    }
+
+    private void assertUsesIndex(String index, String sql) {
+        String plan = explain(sql);
+
+        assertTrue(plan.toLowerCase().contains(index), "Запрос не использует индекс " + index + ":\n" + plan);
+    }
+
+    private void assertNoTableScan(String sql) {
+        String plan = explain(sql);
+
+        assertFalse(plan.contains("tableScan"), "Запрос просматривает всю таблицу:\n" + plan);
+    }
+
+    @Test
+    public void bookerBookings_whenExplained_thenUseBookerStartIndex() {
+        assertUsesIndex("idx_bookings_booker_id_start_time",
+                "select b.id from bookings b " +
+                        "where b.booker_id = 1 " +
+                        "order by b.start_time desc, b.id desc limit 11");
+    }
+
+    @Test
+    public void bookerBookingsAfterCursor_whenExplained_thenUseBookerStartIndex() {
+        assertUsesIndex("idx_bookings_booker_id_start_time",
+                "select b.id from bookings b " +
+                        "where b.booker_id = 1 " +
+                        "and b.start_time <= timestamp '2023-01-01 00:00:00' " +
+                        "and (b.start_time < timestamp '2023-01-01 00:00:00' or b.id < 5) " +
+                        "order by b.start_time desc, b.id desc limit 11");
+    }
+
+    @Test
+    public void ownerBookings_whenExplained_thenUseOwnerStartIndex() {
+        assertUsesIndex("idx_bookings_owner_id_start_time",
+                "select b.id from bookings b " +
+                        "where b.owner_id = 1 " +
+                        "order by b.start_time desc, b.id desc limit 11");
+    }
+
+    @Test
+    public void ownerBookingsInState_whenExplained_thenUseOwnerStartIndex() {
+        assertUsesIndex("idx_bookings_owner_id_start_time",
+                "select b.id from bookings b " +
+                        "where b.owner_id = 1 " +
+                        "and b.start_time > timestamp '2023-01-01 00:00:00' " +
+                        "order by b.start_time desc, b.id desc limit 11");
+    }
+
+    @Test
+    public void lastBooking_whenExplained_thenUseItemStartIndex() {
+        assertUsesIndex("idx_bookings_item_id_start_time",
+                "select b.id from bookings b " +
+                        "where b.item_id = 1 " +
+                        "and b.start_time < timestamp '2023-01-01 00:00:00' " +
+                        "and b.status = 'APPROVED' " +
+                        "order by b.start_time desc limit 1");
+    }
+
+    @Test
+    public void nextBookingsForItems_whenExplained_thenUseItemStartIndex() {
+        assertUsesIndex("idx_bookings_item_id_start_time",
+                "select b.id from bookings b " +
+                        "where b.item_id in (1, 2, 3) " +
+                        "and b.start_time > timestamp '2023-01-01 00:00:00' " +
+                        "and b.status <> 'REJECTED'");
+    }
+
+    @Test
+    public void overlappingBookings_whenExplained_thenUseItemStartIndex() {
+        assertUsesIndex("idx_bookings_item_id_start_time",
+                "select b.id from bookings b " +
+                        "where b.item_id = 1 " +
+                        "and b.start_time < timestamp '2023-01-02 00:00:00' " +
+                        "and b.end_time > timestamp '2023-01-01 00:00:00' " +
+                        "and b.status <> 'REJECTED'");
+    }
+
+    @Test
+    public void finishedBookingOfAuthor_whenExplained_thenUseIndex() {
+        assertNoTableScan(
+                "select b.id from bookings b " +
+                        "where b.booker_id = 1 " +
+                        "and b.item_id = 2 " +
+                        "and b.end_time < timestamp '2023-01-01 00:00:00' " +
+                        "order by b.end_time limit 1");
+    }
+
+    @Test
+    public void ownerItems_whenExplained_thenUseIndex() {
+        assertNoTableScan(
+                "select i.id from items i " +
+                        "where i.owner_id = 1 " +
+                        "and i.id > 0 " +
+                        "order by i.id limit 10");
+    }
+
+    @Test
+    public void requestItems_whenExplained_thenUseIndex() {
+        assertNoTableScan(
+                "select i.id from items i " +
+                        "where i.request_id in (1, 2, 3)");
+    }
+
+    @Test
+    public void itemComments_whenExplained_thenUseItemCreationTimeIndex() {
+        assertUsesIndex("idx_comments_item_id_creation_time",
+                "select c.id from comments c " +
+                        "where c.item_id = 1 " +
+                        "order by c.creation_time desc");
+    }
+
+    @Test
+    public void userRequests_whenExplained_thenUseOwnerCreatedIndex() {
+        assertUsesIndex("idx_requests_owner_id_created",
+                "select r.id from requests r " +
+                        "where r.owner_id = 1 " +
+                        "order by r.created desc");
+    }
+
+    @Test
+    public void otherRequests_whenExplained_thenUseCreatedIdIndex() {
+        assertUsesIndex("idx_requests_created_id",
+                "select r.id from requests r " +
+                        "where r.owner_id <> 1 " +
+                        "order by r.created desc, r.id desc limit 10");
+    }
+
+    @Test
+    public void otherRequestsAfterCursor_whenExplained_thenUseCreatedIdIndex() {
+        assertUsesIndex("idx_requests_created_id",
+                "select r.id from requests r " +
+                        "where r.owner_id <> 1 " +
+                        "and r.created <= timestamp '2023-01-01 00:00:00' " +
+                        "and (r.created < timestamp '2023-01-01 00:00:00' or r.id < 5) " +
+                        "order by r.created desc, r.id desc limit 10");
+    }
+}
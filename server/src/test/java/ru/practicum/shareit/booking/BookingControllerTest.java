@@ -5,25 +5,46 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.booking.dto.BookingApproveDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.model.StateStatus;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.model.NotFoundException;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
+import ru.practicum.shareit.pagination.PageCursor;
+import ru.practicum.shareit.pagination.SliceHeaders;
+import ru.practicum.shareit.pagination.TimeCursor;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = BookingController.class)
@@ -127,7 +148,7 @@ class BookingControllerTest {
         BookingDto second = BookingDto.builder().id(2L).build();
         BookingDto third = BookingDto.builder().id(3L).build();
         List<BookingDto> result = List.of(first, second, third);
-        when(service.getAllBookingsForUser(anyLong(), any(StateStatus.class), any(Pageable.class))).thenReturn(result);
+        when(service.getAllBookingsForUser(anyLong(), any(StateStatus.class), any(), any(Pageable.class))).thenReturn(new SliceImpl<>(result));
 
         mvc.perform(get("/bookings")
                         .header("X-Sharer-User-Id", userId)
@@ -154,7 +175,7 @@ class BookingControllerTest {
         BookingDto second = BookingDto.builder().id(2L).build();
         BookingDto third = BookingDto.builder().id(3L).build();
         List<BookingDto> result = List.of(first, second, third);
-        when(service.getAllBookingsForUser(anyLong(), any(StateStatus.class), any(Pageable.class))).thenReturn(result);
+        when(service.getAllBookingsForUser(anyLong(), any(StateStatus.class), any(), any(Pageable.class))).thenReturn(new SliceImpl<>(result));
 
         mvc.perform(get("/bookings")
                         .header("X-Sharer-User-Id", userId)
@@ -171,7 +192,7 @@ class BookingControllerTest {
         BookingDto second = BookingDto.builder().id(2L).build();
         BookingDto third = BookingDto.builder().id(3L).build();
         List<BookingDto> result = List.of(first, second, third);
-        when(service.getAllBookingsForUser(anyLong(), any(StateStatus.class), any(Pageable.class))).thenReturn(result);
+        when(service.getAllBookingsForUser(anyLong(), any(StateStatus.class), any(), any(Pageable.class))).thenReturn(new SliceImpl<>(result));
 
         mvc.perform(get("/bookings")
                         .header("X-Sharer-User-Id", userId)
@@ -192,7 +213,7 @@ class BookingControllerTest {
         BookingDto second = BookingDto.builder().id(2L).build();
         BookingDto third = BookingDto.builder().id(3L).build();
         List<BookingDto> result = List.of(first, second, third);
-        when(service.getAllBookingsForOwner(anyLong(), any(StateStatus.class), any(Pageable.class))).thenReturn(result);
+        when(service.getAllBookingsForOwner(anyLong(), any(StateStatus.class), any(), any(Pageable.class))).thenReturn(new SliceImpl<>(result));
 
         mvc.perform(get("/bookings/owner")
                         .header("X-Sharer-User-Id", userId)
@@ -219,7 +240,7 @@ class BookingControllerTest {
         BookingDto second = BookingDto.builder().id(2L).build();
         BookingDto third = BookingDto.builder().id(3L).build();
         List<BookingDto> result = List.of(first, second, third);
-        when(service.getAllBookingsForOwner(anyLong(), any(StateStatus.class), any(Pageable.class))).thenReturn(result);
+        when(service.getAllBookingsForOwner(anyLong(), any(StateStatus.class), any(), any(Pageable.class))).thenReturn(new SliceImpl<>(result));
 
         mvc.perform(get("/bookings/owner")
                         .header("X-Sharer-User-Id", userId)
@@ -235,7 +256,7 @@ class BookingControllerTest {
         BookingDto second = BookingDto.builder().id(2L).build();
         BookingDto third = BookingDto.builder().id(3L).build();
         List<BookingDto> result = List.of(first, second, third);
-        when(service.getAllBookingsForOwner(anyLong(), any(StateStatus.class), any(Pageable.class))).thenReturn(result);
+        when(service.getAllBookingsForOwner(anyLong(), any(StateStatus.class), any(), any(Pageable.class))).thenReturn(new SliceImpl<>(result));
 
         mvc.perform(get("/bookings/owner")
                         .header("X-Sharer-User-Id", userId)
@@ -246,5 +267,130 @@ class BookingControllerTest {
                 .andExpect(content().json(mapper.writeValueAsString(result)));
     }
 
+    @Test
+    public void getUserBookings_whenNextSliceExists_thenReturnHasNextWithoutTotal() throws Exception {
+        List<BookingDto> result = List.of(BookingDto.builder().id(1L).build());
+        when(service.getAllBookingsForUser(1L, StateStatus.ALL, null,
+                OffsetPageRequest.of(0, 1, Sort.by(Sort.Direction.DESC, "start").and(Sort.by(Sort.Direction.DESC, "id")))))
+                .thenReturn(new SliceImpl<>(result, PageRequest.of(0, 1), true));
+
+        mvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("size", "1")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(SliceHeaders.HAS_NEXT_HEADER, "true"))
+                .andExpect(header().doesNotExist(SliceHeaders.TOTAL_COUNT_HEADER))
+                .andExpect(content().json(mapper.writeValueAsString(result)));
+        verify(service, never()).countBookingsForUser(anyLong(), any(StateStatus.class));
+    }
+
+    @Test
+    public void getUserBookings_whenCursorIsGiven_thenReturnNextCursor() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        TimeCursor cursor = new TimeCursor(start.plusHours(1), 5L);
+        List<BookingDto> result = List.of(BookingDto.builder().id(4L).start(start).build());
+        when(service.getAllBookingsForUser(1L, StateStatus.ALL, cursor,
+                OffsetPageRequest.of(0, 1, Sort.by(Sort.Direction.DESC, "start").and(Sort.by(Sort.Direction.DESC, "id")))))
+                .thenReturn(new SliceImpl<>(result, PageRequest.of(0, 1), true));
 
-}
\ No newline at end of file
+        mvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("from", "3")
+                        .param("size", "1")
+                        .param("cursor", cursor.encode())
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(PageCursor.NEXT_CURSOR_HEADER, new TimeCursor(start, 4L).encode()))
+                .andExpect(content().json(mapper.writeValueAsString(result)));
+    }
+
+    @Test
+    public void getUserBookings_whenCursorIsInvalid_thenReturnStatus400() throws Exception {
+        mvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("cursor", "not a cursor")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void getOwnerBookings_whenTotalIsRequested_thenReturnTotalCount() throws Exception {
+        List<BookingDto> result = List.of(BookingDto.builder().id(1L).build());
+        when(service.getAllBookingsForOwner(anyLong(), any(StateStatus.class), any(), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(result));
+        when(service.countBookingsForOwner(1L, StateStatus.WAITING)).thenReturn(42L);
+
+        mvc.perform(get("/bookings/owner")
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("state", "WAITING")
+                        .param("withTotal", "true")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(SliceHeaders.HAS_NEXT_HEADER, "false"))
+                .andExpect(header().string(SliceHeaders.TOTAL_COUNT_HEADER, "42"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void exportOwnerBookings_whenRequestIsCorrect_thenWriteOneLinePerBooking() throws Exception {
+        long ownerId = 1L;
+        List<BookingDto> bookings = List.of(BookingDto.builder().id(2L).build(), BookingDto.builder().id(1L).build());
+        doAnswer(invocation -> {
+            bookings.forEach(invocation.getArgument(2, Consumer.class));
+            return null;
+        }).when(service).exportBookingsForOwner(eq(ownerId), eq(StateStatus.PAST), any());
+
+        MvcResult result = mvc.perform(get("/bookings/owner/export")
+                        .header("X-Sharer-User-Id", ownerId)
+                        .param("state", "past"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/x-ndjson"))
+                .andExpect(content().string(mapper.writeValueAsString(bookings.get(0)) + "\n"
+                        + mapper.writeValueAsString(bookings.get(1)) + "\n"));
+    }
+
+    @Test
+    public void exportOwnerBookings_whenOwnerNotFound_thenReturnStatus404() throws Exception {
+        doThrow(new NotFoundException("Пользователь с id = 1 не найден"))
+                .when(service).requireItemOwner(1L);
+
+        mvc.perform(get("/bookings/owner/export")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isNotFound());
+        verify(service, never()).exportBookingsForOwner(anyLong(), any(), any());
+    }
+
+    @Test
+    public void exportOwnerBookings_whenOwnerHasNoItems_thenReturnStatus404() throws Exception {
+        doThrow(new NotFoundException("Не найдены вещи для данного владельца"))
+                .when(service).requireItemOwner(1L);
+
+        mvc.perform(get("/bookings/owner/export")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isNotFound());
+        verify(service, never()).exportBookingsForOwner(anyLong(), any(), any());
+    }
+
+    @Test
+    public void patchBookings_whenRequestIsCorrect_thenReturnResultPerBooking() throws Exception {
+        long ownerId = 1L;
+        List<BookingApproveDto> decisions = List.of(new BookingApproveDto(1L, true), new BookingApproveDto(2L, false));
+        List<BookingDecisionDto> results = List.of(
+                new BookingDecisionDto(1L, BookingStatus.APPROVED, null),
+                new BookingDecisionDto(2L, null, "Бронирование уже подтверждено"));
+        when(service.approveBookings(decisions, ownerId)).thenReturn(results);
+
+        mvc.perform(patch("/bookings/bulk")
+                        .header("X-Sharer-User-Id", ownerId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(decisions)))
+                .andExpect(status().isOk())
+                .andExpect(content().json(mapper.writeValueAsString(results)));
+        verify(service, never()).approveBooking(anyLong(), anyBoolean(), anyLong());
+    }
+}
@@ -3,7 +3,6 @@ package ru.practicum.shareit.booking;
 import org.junit.jupiter.api.Test;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
-import ru.practicum.shareit.booking.dto.ItemBookingDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.item.model.Item;
@@ -56,27 +55,4 @@ class BookingMapperTest {
         assertEquals(booking.getBooker().getId(), dto.getBooker().getId());
         assertEquals(booking.getStatus(), dto.getStatus());
     }
-
-    @Test
-    public void bookingToItemBookingDtoTest() {
-        Item item = Item.builder()
-                .id(1L)
-                .build();
-        User booker = User.builder()
-                .id(1L)
-                .build();
-        Booking booking = Booking.builder()
-                .id(1L)
-                .start(LocalDateTime.of(2024, 1, 1, 1, 1))
-                .end(LocalDateTime.of(2024, 2, 1, 1, 1))
-                .item(item)
-                .booker(booker)
-                .status(BookingStatus.APPROVED)
-                .build();
-
-        ItemBookingDto dto = bookingMapper.bookingToItemBookingDto(booking);
-
-        assertEquals(booking.getId(), dto.getId());
-        assertEquals(booking.getBooker().getId(), dto.getBookerId());
-    }
-}
\ No newline at end of file
+}
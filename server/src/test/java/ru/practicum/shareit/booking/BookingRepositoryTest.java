@@ -5,15 +5,28 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.booking.availability.BookingInterval;
+import ru.practicum.shareit.booking.dto.BookerDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingItemDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.ItemBookingView;
+import ru.practicum.shareit.booking.model.QBooking;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @DataJpaTest
 @AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
@@ -48,6 +61,30 @@ class BookingRepositoryTest {
         assertEquals(1, bookings.size());
     }
 
+    @Test
+    public void existsByIdAndOwnerId_whenBookingIsSaved_thenOwnerIsCopiedFromItem() {
+        User owner = entityManager.merge(User.builder().id(1L).name("test").email("test@com").build());
+        User booker = entityManager.merge(User.builder().id(2L).name("test").email("test2@com").build());
+        Item item = entityManager.merge(Item.builder()
+                .id(1L)
+                .owner(owner)
+                .name("test")
+                .description("testDesc")
+                .available(true)
+                .build());
+        Booking booking = bookingRepository.save(Booking.builder()
+                .booker(booker)
+                .item(item)
+                .start(LocalDateTime.of(2022, 1, 1, 1, 1))
+                .end(LocalDateTime.of(2022, 2, 1, 1, 1))
+                .status(BookingStatus.WAITING)
+                .build());
+
+        assertEquals(owner.getId(), booking.getOwnerId());
+        assertTrue(bookingRepository.existsByIdAndOwnerId(booking.getId(), owner.getId()));
+        assertFalse(bookingRepository.existsByIdAndOwnerId(booking.getId(), booker.getId()));
+    }
+
     @Test
     public void findAllCurrentBookingsForItem_whenDbIsEmpty_thenReturnEmptyList() {
         List<Booking> bookings = bookingRepository.checkItemBookings(1L, LocalDateTime.now(), LocalDateTime.now());
@@ -55,4 +92,224 @@ class BookingRepositoryTest {
         assertEquals(0, bookings.size());
     }
 
-}
\ No newline at end of file
+    @Test
+    public void findIntervalsAfter_whenDbIsFilled_thenReturnNotRejectedIntervalsAfterId() {
+        User owner = entityManager.merge(User.builder().id(1L).name("test").email("test@com").build());
+        User booker = entityManager.merge(User.builder().id(2L).name("test").email("test2@com").build());
+        Item item = entityManager.merge(Item.builder()
+                .id(1L)
+                .owner(owner)
+                .name("test")
+                .description("testDesc")
+                .available(true)
+                .build());
+        Booking first = entityManager.merge(Booking.builder()
+                .booker(booker)
+                .item(item)
+                .start(LocalDateTime.of(2022, 1, 1, 1, 1))
+                .end(LocalDateTime.of(2022, 2, 1, 1, 1))
+                .status(BookingStatus.APPROVED)
+                .build());
+        entityManager.merge(Booking.builder()
+                .booker(booker)
+                .item(item)
+                .start(LocalDateTime.of(2022, 3, 1, 1, 1))
+                .end(LocalDateTime.of(2022, 4, 1, 1, 1))
+                .status(BookingStatus.REJECTED)
+                .build());
+        Booking third = entityManager.merge(Booking.builder()
+                .booker(booker)
+                .item(item)
+                .start(LocalDateTime.of(2022, 5, 1, 1, 1))
+                .end(LocalDateTime.of(2022, 6, 1, 1, 1))
+                .status(BookingStatus.WAITING)
+                .build());
+
+        List<BookingInterval> intervals = bookingRepository.findIntervalsAfter(0, BookingStatus.REJECTED,
+                PageRequest.of(0, 10));
+        List<BookingInterval> afterFirst = bookingRepository.findIntervalsAfter(first.getId(), BookingStatus.REJECTED,
+                PageRequest.of(0, 10));
+
+        assertEquals(List.of(
+                new BookingInterval(first.getId(), item.getId(), first.getStart(), first.getEnd()),
+                new BookingInterval(third.getId(), item.getId(), third.getStart(), third.getEnd())), intervals);
+        assertEquals(List.of(third.getId()), afterFirst.stream()
+                .map(BookingInterval::getId)
+                .collect(Collectors.toList()));
+        assertEquals(3, bookingRepository.findIntervalsByBookerId(booker.getId()).size());
+    }
+
+    @Test
+    public void findIntervalsForItem_whenDbIsFilled_thenReturnOverlappingNotRejectedIntervals() {
+        User owner = entityManager.merge(User.builder().id(1L).name("test").email("test@com").build());
+        User booker = entityManager.merge(User.builder().id(2L).name("test").email("test2@com").build());
+        Item item = entityManager.merge(Item.builder()
+                .id(1L)
+                .owner(owner)
+                .name("test")
+                .description("testDesc")
+                .available(true)
+                .build());
+        Booking inside = entityManager.merge(Booking.builder()
+                .booker(booker)
+                .item(item)
+                .start(LocalDateTime.of(2022, 1, 10, 0, 0))
+                .end(LocalDateTime.of(2022, 1, 12, 0, 0))
+                .status(BookingStatus.WAITING)
+                .build());
+        entityManager.merge(Booking.builder()
+                .booker(booker)
+                .item(item)
+                .start(LocalDateTime.of(2022, 1, 13, 0, 0))
+                .end(LocalDateTime.of(2022, 1, 14, 0, 0))
+                .status(BookingStatus.REJECTED)
+                .build());
+        entityManager.merge(Booking.builder()
+                .booker(booker)
+                .item(item)
+                .start(LocalDateTime.of(2022, 2, 1, 0, 0))
+                .end(LocalDateTime.of(2022, 2, 2, 0, 0))
+                .status(BookingStatus.APPROVED)
+                .build());
+
+        List<BookingInterval> intervals = bookingRepository.findIntervalsForItem(item.getId(),
+                LocalDateTime.of(2022, 1, 1, 0, 0), LocalDateTime.of(2022, 2, 1, 0, 0), BookingStatus.REJECTED);
+
+        assertEquals(List.of(new BookingInterval(inside.getId(), item.getId(), inside.getStart(), inside.getEnd())),
+                intervals);
+    }
+
+    @Test
+    public void findBusyItemIds_whenDbIsFilled_thenReturnItemsWithOverlappingNotRejectedBookings() {
+        User owner = entityManager.merge(User.builder().id(1L).name("test").email("test@com").build());
+        User booker = entityManager.merge(User.builder().id(2L).name("test").email("test2@com").build());
+        Item busy = entityManager.merge(Item.builder().owner(owner).name("busy").description("desc").available(true).build());
+        Item rejected = entityManager.merge(Item.builder().owner(owner).name("rejected").description("desc").available(true).build());
+        Item touching = entityManager.merge(Item.builder().owner(owner).name("touching").description("desc").available(true).build());
+        entityManager.merge(Booking.builder()
+                .booker(booker)
+                .item(busy)
+                .start(LocalDateTime.of(2022, 1, 10, 0, 0))
+                .end(LocalDateTime.of(2022, 1, 12, 0, 0))
+                .status(BookingStatus.WAITING)
+                .build());
+        entityManager.merge(Booking.builder()
+                .booker(booker)
+                .item(rejected)
+                .start(LocalDateTime.of(2022, 1, 10, 0, 0))
+                .end(LocalDateTime.of(2022, 1, 12, 0, 0))
+                .status(BookingStatus.REJECTED)
+                .build());
+        entityManager.merge(Booking.builder()
+                .booker(booker)
+                .item(touching)
+                .start(LocalDateTime.of(2022, 1, 1, 0, 0))
+                .end(LocalDateTime.of(2022, 1, 5, 0, 0))
+                .status(BookingStatus.APPROVED)
+                .build());
+
+        List<Long> itemIds = bookingRepository.findBusyItemIds(List.of(busy.getId(), rejected.getId(), touching.getId()),
+                LocalDateTime.of(2022, 1, 5, 0, 0), LocalDateTime.of(2022, 1, 11, 0, 0));
+
+        assertEquals(List.of(busy.getId()), itemIds);
+    }
+
+    @Test
+    public void findBookingDtos_whenDbIsFilled_thenReturnSortedPageOfSlimDtos() {
+        User owner = entityManager.merge(User.builder().id(1L).name("test").email("test@com").build());
+        User booker = entityManager.merge(User.builder().id(2L).name("test").email("test2@com").build());
+        Item item = entityManager.merge(Item.builder().owner(owner).name("item").description("desc").available(true).build());
+        Booking earlier = entityManager.merge(Booking.builder()
+                .booker(booker)
+                .item(item)
+                .start(LocalDateTime.of(2022, 1, 1, 0, 0))
+                .end(LocalDateTime.of(2022, 1, 2, 0, 0))
+                .status(BookingStatus.APPROVED)
+                .build());
+        Booking later = entityManager.merge(Booking.builder()
+                .booker(booker)
+                .item(item)
+                .start(LocalDateTime.of(2022, 2, 1, 0, 0))
+                .end(LocalDateTime.of(2022, 2, 2, 0, 0))
+                .status(BookingStatus.WAITING)
+                .build());
+
+        Slice<BookingDto> bookings = bookingRepository.findBookingDtos(QBooking.booking.booker.id.eq(booker.getId()),
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "start")));
+
+        assertEquals(List.of(later.getId(), earlier.getId()),
+                bookings.stream().map(BookingDto::getId).collect(Collectors.toList()));
+        assertEquals(new BookingItemDto(item.getId(), "item"), bookings.getContent().get(0).getItem());
+        assertEquals(new BookerDto(booker.getId()), bookings.getContent().get(0).getBooker());
+        assertEquals(BookingStatus.WAITING, bookings.getContent().get(0).getStatus());
+        assertFalse(bookings.hasNext());
+    }
+
+    @Test
+    public void findBookingDtos_whenMoreRowsThanPageSize_thenReturnPageAndHasNext() {
+        User owner = entityManager.merge(User.builder().id(1L).name("test").email("test@com").build());
+        User booker = entityManager.merge(User.builder().id(2L).name("test").email("test2@com").build());
+        Item item = entityManager.merge(Item.builder().owner(owner).name("item").description("desc").available(true).build());
+        for (int i = 1; i <= 3; i++) {
+            entityManager.merge(Booking.builder()
+                    .booker(booker)
+                    .item(item)
+                    .start(LocalDateTime.of(2022, i, 1, 0, 0))
+                    .end(LocalDateTime.of(2022, i, 2, 0, 0))
+                    .status(BookingStatus.APPROVED)
+                    .build());
+        }
+        Sort startDesc = Sort.by(Sort.Direction.DESC, "start");
+
+        Slice<BookingDto> first = bookingRepository.findBookingDtos(QBooking.booking.booker.id.eq(booker.getId()),
+                PageRequest.of(0, 2, startDesc));
+        Slice<BookingDto> last = bookingRepository.findBookingDtos(QBooking.booking.booker.id.eq(booker.getId()),
+                PageRequest.of(1, 2, startDesc));
+
+        assertEquals(2, first.getNumberOfElements());
+        assertTrue(first.hasNext());
+        assertEquals(1, last.getNumberOfElements());
+        assertFalse(last.hasNext());
+    }
+
+    private Booking saveBooking(Item item, User booker, LocalDateTime start, BookingStatus status) {
+        return entityManager.persist(Booking.builder()
+                .booker(booker)
+                .item(item)
+                .start(start)
+                .end(start.plusDays(1))
+                .status(status)
+                .build());
+    }
+
+    @Test
+    public void findLastAndNextByItemIds_whenManyBookingsPerItem_thenReturnOneRowPerItem() {
+        User owner = entityManager.merge(User.builder().id(1L).name("test").email("test@com").build());
+        User booker = entityManager.merge(User.builder().id(2L).name("test").email("test2@com").build());
+        Item first = entityManager.merge(Item.builder().owner(owner).name("first").description("desc").available(true).build());
+        Item second = entityManager.merge(Item.builder().owner(owner).name("second").description("desc").available(true).build());
+        Item empty = entityManager.merge(Item.builder().owner(owner).name("empty").description("desc").available(true).build());
+        LocalDateTime now = LocalDateTime.of(2023, 6, 1, 0, 0);
+        saveBooking(first, booker, now.minusDays(10), BookingStatus.APPROVED);
+        Booking last = saveBooking(first, booker, now.minusDays(5), BookingStatus.APPROVED);
+        saveBooking(first, booker, now.minusDays(2), BookingStatus.REJECTED);
+        saveBooking(first, booker, now.plusDays(1), BookingStatus.REJECTED);
+        Booking next = saveBooking(first, booker, now.plusDays(3), BookingStatus.WAITING);
+        saveBooking(first, booker, now.plusDays(7), BookingStatus.APPROVED);
+        saveBooking(second, booker, now.minusDays(1), BookingStatus.WAITING);
+        Booking secondNext = saveBooking(second, booker, now.plusDays(2), BookingStatus.APPROVED);
+        List<Long> itemIds = List.of(first.getId(), second.getId(), empty.getId());
+
+        List<ItemBookingView> lasts = bookingRepository.findLastApprovedByItemIds(itemIds, now);
+        List<ItemBookingView> nexts = bookingRepository.findNextNotRejectedByItemIds(itemIds, now);
+
+        assertEquals(1, lasts.size());
+        assertEquals(last.getId(), lasts.get(0).getId());
+        assertEquals(first.getId(), lasts.get(0).getItemId());
+        assertEquals(booker.getId(), lasts.get(0).getBookerId());
+        assertEquals(last.getStart(), lasts.get(0).getStart());
+        Map<Long, Long> nextByItem = nexts.stream()
+                .collect(Collectors.toMap(ItemBookingView::getItemId, ItemBookingView::getId));
+        assertEquals(Map.of(first.getId(), next.getId(), second.getId(), secondNext.getId()), nextByItem);
+    }
+}
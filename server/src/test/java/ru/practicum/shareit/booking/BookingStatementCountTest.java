@@ -0,0 +1,208 @@
+package ru.practicum.shareit.booking;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemBookingSummaryService;
+import ru.practicum.shareit.pagination.SliceHeaders;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Число SQL-запросов на каждый эндпоинт бронирований не зависит от количества бронирований в выдаче.
+ * Запросы выполняются через MockMvc без общей транзакции, поэтому сущности сериализуются так же, как в приложении.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+class BookingStatementCountTest {
+    private static final LocalDateTime BASE = LocalDateTime.now().plusDays(1).withNano(0);
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemBookingSummaryService summaryService;
+
+    private Statistics statistics;
+    private User owner;
+    private User booker;
+    private List<Booking> bookings;
+
+    @BeforeEach
+    public void beforeEach() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        owner = userRepository.save(User.builder().name("owner").email("owner@statements.com").build());
+        booker = userRepository.save(User.builder().name("booker").email("booker@statements.com").build());
+        bookings = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Item item = itemRepository.save(Item.builder()
+                    .name("item" + i)
+                    .description("desc")
+                    .available(true)
+                    .owner(owner)
+                    .build());
+            bookings.add(bookingRepository.save(Booking.builder()
+                    .item(item)
+                    .booker(booker)
+                    .start(BASE.plusDays(i))
+                    .end(BASE.plusDays(i).plusHours(1))
+                    .status(BookingStatus.WAITING)
+                    .build()));
+            // сводки бронирований уже построены, как у работающего приложения
+            summaryService.getSummary(item.getId());
+        }
+        statistics.clear();
+    }
+
+    @AfterEach
+    public void afterEach() {
+        userService.deleteUsers();
+    }
+
+    private long statements() {
+        return statistics.getPrepareStatementCount();
+    }
+
+    @Test
+    public void getUserBookings_whenManyBookings_thenOnlyLoadPage() throws Exception {
+        mvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", booker.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(5)))
+                .andExpect(jsonPath("$[0].item.name").exists())
+                .andExpect(jsonPath("$[0].item.owner").doesNotExist());
+
+        // существование пользователя подтверждает сама страница
+        assertEquals(1, statements());
+    }
+
+    @Test
+    public void getOwnerBookings_whenManyBookings_thenOnlyLoadPage() throws Exception {
+        mvc.perform(get("/bookings/owner")
+                        .header("X-Sharer-User-Id", owner.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(5)))
+                .andExpect(jsonPath("$[0].booker.id").value(booker.getId()));
+
+        // существование владельца и его вещей подтверждает сама страница
+        assertEquals(1, statements());
+    }
+
+    @Test
+    public void getOwnerBookings_whenPageIsEmpty_thenProbeItemsOnly() throws Exception {
+        mvc.perform(get("/bookings/owner")
+                        .header("X-Sharer-User-Id", owner.getId())
+                        .param("state", "REJECTED"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+
+        // страница и проверка наличия вещей у владельца
+        assertEquals(2, statements());
+    }
+
+    @Test
+    public void getOwnerBookings_whenUserHasNoItems_thenReturnStatus404() throws Exception {
+        mvc.perform(get("/bookings/owner")
+                        .header("X-Sharer-User-Id", booker.getId()))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void getUserBookings_whenTotalIsRequestedTwice_thenCountOnce() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            mvc.perform(get("/bookings")
+                            .header("X-Sharer-User-Id", booker.getId())
+                            .param("size", "2")
+                            .param("withTotal", "true"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(2)))
+                    .andExpect(header().string(SliceHeaders.HAS_NEXT_HEADER, "true"))
+                    .andExpect(header().string(SliceHeaders.TOTAL_COUNT_HEADER, "5"));
+        }
+
+        // две страницы и один запрос количества, второй раз количество берется из кеша
+        assertEquals(3, statements());
+    }
+
+    @Test
+    public void getBookingById_whenBookingExists_thenLoadBookingInOneStatement() throws Exception {
+        mvc.perform(get("/bookings/{bookingId}", bookings.get(0).getId())
+                        .header("X-Sharer-User-Id", booker.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.item.name").value("item0"))
+                .andExpect(jsonPath("$.booker.id").value(booker.getId()));
+
+        assertEquals(2, statements());
+    }
+
+    @Test
+    public void patchBooking_whenOwnerApproves_thenUpdateStatusInOneStatement() throws Exception {
+        mvc.perform(patch("/bookings/{bookingId}", bookings.get(0).getId())
+                        .header("X-Sharer-User-Id", owner.getId())
+                        .param("approved", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("APPROVED"));
+
+        // пользователь, условное обновление статуса, проекция бронирования и блокировка сводки бронирований вещи
+        assertEquals(4, statements());
+    }
+
+    @Test
+    public void createBooking_whenItemIsFree_thenLoadItemInOneStatement() throws Exception {
+        Item item = bookings.get(0).getItem();
+        String body = "{\"itemId\": " + item.getId() + ", " +
+                "\"start\": \"" + BASE.plusDays(10) + "\", \"end\": \"" + BASE.plusDays(11) + "\"}";
+
+        mvc.perform(post("/bookings")
+                        .header("X-Sharer-User-Id", booker.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.item.name").value("item0"));
+
+        // арендатор, вставка бронирования и блокировка сводки бронирований вещи:
+        // вещь сохранена с id из последовательности и после коммита читается из кеша второго уровня
+        assertEquals(3, statements());
+    }
+}
@@ -0,0 +1,116 @@
+package ru.practicum.shareit.booking.availability;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class IndexBookingAvailabilityTest {
+    private static final LocalDateTime BASE = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    BookingRepository bookingRepository;
+    IndexBookingAvailability availability;
+
+    @BeforeEach
+    public void beforeEach() {
+        bookingRepository = mock(BookingRepository.class);
+        availability = new IndexBookingAvailability(bookingRepository);
+    }
+
+    private Booking booking(long id, long itemId, int startDay, int endDay) {
+        return Booking.builder()
+                .id(id)
+                .item(Item.builder().id(itemId).build())
+                .start(BASE.plusDays(startDay))
+                .end(BASE.plusDays(endDay))
+                .status(BookingStatus.WAITING)
+                .build();
+    }
+
+    @Test
+    public void rebuild_whenDbHasBookings_thenIndexThem() {
+        when(bookingRepository.findIntervalsAfter(anyLong(), eq(BookingStatus.REJECTED), any(Pageable.class)))
+                .thenReturn(List.of(new BookingInterval(1L, 1L, BASE, BASE.plusDays(2))));
+
+        availability.rebuild();
+
+        assertFalse(availability.isFree(1L, BASE.plusDays(1), BASE.plusDays(3)));
+        assertTrue(availability.isFree(1L, BASE.plusDays(2), BASE.plusDays(3)));
+        assertTrue(availability.isFree(2L, BASE, BASE.plusDays(3)));
+    }
+
+    @Test
+    public void afterSingletonsInstantiated_whenDbHasBookings_thenIndexThemBeforeServing() {
+        when(bookingRepository.findIntervalsAfter(anyLong(), eq(BookingStatus.REJECTED), any(Pageable.class)))
+                .thenReturn(List.of(new BookingInterval(1L, 1L, BASE, BASE.plusDays(2))));
+
+        availability.afterSingletonsInstantiated();
+
+        assertFalse(availability.isFree(1L, BASE, BASE.plusDays(1)));
+    }
+
+    @Test
+    public void remove_whenBookingRejected_thenItemIsFree() {
+        Booking booking = booking(1L, 1L, 0, 2);
+        availability.add(booking);
+        availability.add(booking(2L, 2L, 0, 2));
+
+        availability.remove(booking);
+
+        assertTrue(availability.isFree(1L, BASE, BASE.plusDays(2)));
+        assertFalse(availability.isFree(2L, BASE, BASE.plusDays(2)));
+    }
+
+    @Test
+    public void add_whenInTransaction_thenApplyOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            availability.add(booking(1L, 1L, 0, 2));
+
+            assertTrue(availability.isFree(1L, BASE, BASE.plusDays(2)));
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(sync -> sync.afterCommit());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertFalse(availability.isFree(1L, BASE, BASE.plusDays(2)));
+    }
+
+    @Test
+    public void removeBooker_whenBookerDeleted_thenRemoveHisBookings() {
+        availability.add(booking(1L, 1L, 0, 2));
+        availability.add(booking(2L, 1L, 5, 7));
+        when(bookingRepository.findIntervalsByBookerId(3L))
+                .thenReturn(List.of(new BookingInterval(1L, 1L, BASE, BASE.plusDays(2))));
+
+        availability.removeBooker(3L);
+
+        assertTrue(availability.isFree(1L, BASE, BASE.plusDays(2)));
+        assertFalse(availability.isFree(1L, BASE.plusDays(6), BASE.plusDays(8)));
+    }
+
+    @Test
+    public void removeItem_whenItemDeleted_thenItemIsFree() {
+        availability.add(booking(1L, 1L, 0, 2));
+
+        availability.removeItem(1L);
+
+        assertTrue(availability.isFree(1L, BASE, BASE.plusDays(2)));
+    }
+}
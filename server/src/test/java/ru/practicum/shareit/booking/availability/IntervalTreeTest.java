@@ -0,0 +1,114 @@
+package ru.practicum.shareit.booking.availability;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IntervalTreeTest {
+    private static final LocalDateTime BASE = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    private LocalDateTime at(int hours) {
+        return BASE.plusHours(hours);
+    }
+
+    @Test
+    public void overlaps_whenIntervalsTouchBorders_thenReturnFalse() {
+        IntervalTree tree = new IntervalTree();
+        tree.add(1L, at(10), at(20));
+
+        assertFalse(tree.overlaps(at(0), at(10)));
+        assertFalse(tree.overlaps(at(20), at(30)));
+        assertTrue(tree.overlaps(at(19), at(30)));
+        assertTrue(tree.overlaps(at(12), at(13)));
+        assertTrue(tree.overlaps(at(0), at(40)));
+    }
+
+    @Test
+    public void overlaps_whenLongIntervalIsHiddenInLeftSubtree_thenReturnTrue() {
+        IntervalTree tree = new IntervalTree();
+        tree.add(1L, at(0), at(100));
+        for (int i = 2; i < 50; i++) {
+            tree.add(i, at(i * 2), at(i * 2 + 1));
+        }
+
+        assertTrue(tree.overlaps(at(1), at(2)));
+        assertTrue(tree.overlaps(at(99), at(200)));
+        assertFalse(tree.overlaps(at(100), at(200)));
+    }
+
+    @Test
+    public void remove_whenIntervalRemoved_thenNoOverlap() {
+        IntervalTree tree = new IntervalTree();
+        tree.add(1L, at(10), at(20));
+        tree.add(2L, at(30), at(40));
+
+        tree.remove(1L, at(10));
+
+        assertEquals(1, tree.size());
+        assertFalse(tree.overlaps(at(10), at(20)));
+        assertTrue(tree.overlaps(at(35), at(36)));
+    }
+
+    @Test
+    public void add_whenSameStartDifferentIds_thenKeepBoth() {
+        IntervalTree tree = new IntervalTree();
+        tree.add(1L, at(10), at(20));
+        tree.add(2L, at(10), at(12));
+
+        tree.remove(1L, at(10));
+
+        assertEquals(1, tree.size());
+        assertTrue(tree.overlaps(at(11), at(13)));
+        assertFalse(tree.overlaps(at(12), at(20)));
+    }
+
+    @Test
+    public void overlapping_whenIntervalsOverlapRange_thenReturnThemOrderedByStart() {
+        IntervalTree tree = new IntervalTree();
+        tree.add(3L, at(30), at(40));
+        tree.add(1L, at(0), at(100));
+        tree.add(2L, at(10), at(20));
+        tree.add(4L, at(50), at(60));
+
+        List<BookingInterval> intervals = tree.overlapping(7L, at(15), at(35));
+
+        assertEquals(List.of(
+                new BookingInterval(1L, 7L, at(0), at(100)),
+                new BookingInterval(2L, 7L, at(10), at(20)),
+                new BookingInterval(3L, 7L, at(30), at(40))), intervals);
+        assertTrue(tree.overlapping(7L, at(100), at(200)).isEmpty());
+    }
+
+    @Test
+    public void overlaps_whenRandomIntervals_thenMatchFullScan() {
+        Random random = new Random(7);
+        IntervalTree tree = new IntervalTree();
+        List<int[]> intervals = new ArrayList<>();
+        for (int id = 0; id < 2000; id++) {
+            int start = random.nextInt(10000);
+            int[] interval = {id, start, start + 1 + random.nextInt(50)};
+            intervals.add(interval);
+            tree.add(id, at(interval[1]), at(interval[2]));
+            if (random.nextInt(3) == 0) {
+                int[] removed = intervals.remove(random.nextInt(intervals.size()));
+                tree.remove(removed[0], at(removed[1]));
+            }
+        }
+        assertEquals(intervals.size(), tree.size());
+
+        for (int i = 0; i < 2000; i++) {
+            int start = random.nextInt(10100);
+            int end = start + 1 + random.nextInt(30);
+            boolean expected = intervals.stream().anyMatch(interval -> interval[1] < end && interval[2] > start);
+
+            assertEquals(expected, tree.overlaps(at(start), at(end)));
+        }
+    }
+}
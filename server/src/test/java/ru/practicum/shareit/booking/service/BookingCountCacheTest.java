@@ -0,0 +1,98 @@
+package ru.practicum.shareit.booking.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.model.StateStatus;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BookingCountCacheTest {
+    BookingCountCache cache;
+    AtomicInteger loads;
+
+    @BeforeEach
+    public void beforeEach() {
+        cache = new BookingCountCache(100, Duration.ofMinutes(1), new SimpleMeterRegistry());
+        loads = new AtomicInteger();
+    }
+
+    private LongSupplier loader(long count) {
+        return () -> {
+            loads.incrementAndGet();
+            return count;
+        };
+    }
+
+    @Test
+    public void getForBooker_whenSameKeyTwice_thenLoadOnce() {
+        cache.getForBooker(1L, StateStatus.ALL, loader(3));
+        long count = cache.getForBooker(1L, StateStatus.ALL, loader(3));
+
+        assertEquals(3, count);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void get_whenRoleOrStateDiffers_thenLoadSeparately() {
+        cache.getForBooker(1L, StateStatus.ALL, loader(3));
+        cache.getForOwner(1L, StateStatus.ALL, loader(5));
+        cache.getForBooker(1L, StateStatus.WAITING, loader(1));
+
+        assertEquals(5, cache.getForOwner(1L, StateStatus.ALL, loader(0)));
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    public void invalidate_whenCalled_thenReloadOnlyBookerAndOwnerCounts() {
+        cache.getForBooker(1L, StateStatus.ALL, loader(3));
+        cache.getForOwner(2L, StateStatus.ALL, loader(5));
+        cache.getForOwner(1L, StateStatus.ALL, loader(7));
+
+        cache.invalidate(1L, 2L);
+        cache.getForBooker(1L, StateStatus.ALL, loader(4));
+        cache.getForOwner(2L, StateStatus.ALL, loader(6));
+        cache.getForOwner(1L, StateStatus.ALL, loader(8));
+
+        assertEquals(5, loads.get());
+    }
+
+    @Test
+    public void invalidate_whenCountsOfEveryStateAreCached_thenReloadThemAll() {
+        for (StateStatus state : StateStatus.values()) {
+            cache.getForBooker(1L, state, loader(1));
+            cache.getForOwner(2L, state, loader(1));
+        }
+
+        cache.invalidate(1L, 2L);
+        for (StateStatus state : StateStatus.values()) {
+            cache.getForBooker(1L, state, loader(1));
+            cache.getForOwner(2L, state, loader(1));
+        }
+
+        assertEquals(StateStatus.values().length * 4, loads.get());
+    }
+
+    @Test
+    public void invalidate_whenInTransaction_thenInvalidateAfterCommit() {
+        cache.getForBooker(1L, StateStatus.ALL, loader(3));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.invalidate(1L, 2L);
+            assertEquals(3, cache.getForBooker(1L, StateStatus.ALL, loader(4)));
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(4, cache.getForBooker(1L, StateStatus.ALL, loader(4)));
+    }
+}
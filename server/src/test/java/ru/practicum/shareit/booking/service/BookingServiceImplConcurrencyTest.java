@@ -0,0 +1,201 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.exception.model.BookingException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Параллельное создание и подтверждение бронирований: транзакции коммитятся, поэтому данные удаляются после каждого теста.
+ */
+@SpringBootTest
+class BookingServiceImplConcurrencyTest {
+    private static final int THREADS = 16;
+    private static final LocalDateTime BASE = LocalDateTime.now().plusDays(1).withNano(0);
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private ExecutorService executor;
+    private User owner;
+    private List<User> bookers;
+
+    @BeforeEach
+    public void beforeEach() {
+        executor = Executors.newFixedThreadPool(THREADS);
+        owner = userRepository.save(User.builder().name("owner").email("owner@concurrency.com").build());
+        bookers = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            bookers.add(userRepository.save(User.builder().name("booker").email(i + "@concurrency.com").build()));
+        }
+    }
+
+    @AfterEach
+    public void afterEach() throws InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+        userService.deleteUsers();
+    }
+
+    private Item saveItem() {
+        return itemRepository.save(Item.builder().name("item").description("desc").available(true).owner(owner).build());
+    }
+
+    private BookingCreateDto dto(Item item, int startHour, int endHour) {
+        return BookingCreateDto.builder()
+                .itemId(item.getId())
+                .start(BASE.plusHours(startHour))
+                .end(BASE.plusHours(endHour))
+                .build();
+    }
+
+    private List<Boolean> runConcurrently(List<Callable<Boolean>> tasks) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> futures = new ArrayList<>();
+        for (Callable<Boolean> task : tasks) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return task.call();
+            }));
+        }
+        start.countDown();
+        List<Boolean> results = new ArrayList<>();
+        for (Future<Boolean> future : futures) {
+            results.add(future.get(60, TimeUnit.SECONDS));
+        }
+        return results;
+    }
+
+    private Callable<Boolean> createBooking(BookingCreateDto dto, User booker) {
+        return () -> {
+            try {
+                bookingService.createBooking(dto, booker.getId());
+                return true;
+            } catch (BookingException e) {
+                return false;
+            }
+        };
+    }
+
+    private List<Booking> activeBookings(Item item) {
+        return bookingRepository.findAll().stream()
+                .filter(booking -> booking.getItem().getId().equals(item.getId()))
+                .filter(booking -> booking.getStatus() != BookingStatus.REJECTED)
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    public void createBooking_whenSameSlotRequestedConcurrently_thenOnlyOneSucceeds() throws Exception {
+        Item item = saveItem();
+        List<Callable<Boolean>> tasks = new ArrayList<>();
+        for (User booker : bookers) {
+            tasks.add(createBooking(dto(item, 0, 24), booker));
+        }
+
+        List<Boolean> results = runConcurrently(tasks);
+
+        assertEquals(1, results.stream().filter(Boolean::booleanValue).count());
+        assertEquals(1, activeBookings(item).size());
+    }
+
+    @Test
+    public void createBooking_whenOverlappingSlotsRequestedConcurrently_thenNoDoubleBookings() throws Exception {
+        Item item = saveItem();
+        Random random = new Random(42);
+        for (int round = 0; round < 10; round++) {
+            List<Callable<Boolean>> tasks = new ArrayList<>();
+            for (User booker : bookers) {
+                int startHour = round * 100 + random.nextInt(80);
+                tasks.add(createBooking(dto(item, startHour, startHour + 1 + random.nextInt(20)), booker));
+            }
+            runConcurrently(tasks);
+        }
+
+        List<Booking> bookings = activeBookings(item);
+        assertFalse(bookings.isEmpty());
+        for (int i = 0; i < bookings.size(); i++) {
+            for (int j = i + 1; j < bookings.size(); j++) {
+                Booking first = bookings.get(i);
+                Booking second = bookings.get(j);
+                assertFalse(first.getStart().isBefore(second.getEnd()) && second.getStart().isBefore(first.getEnd()),
+                        "Пересекаются бронирования " + first.getId() + " и " + second.getId());
+            }
+        }
+    }
+
+    @Test
+    public void createBooking_whenDifferentItemsBookedConcurrently_thenAllSucceed() throws Exception {
+        List<Callable<Boolean>> tasks = new ArrayList<>();
+        for (User booker : bookers) {
+            tasks.add(createBooking(dto(saveItem(), 0, 24), booker));
+        }
+
+        List<Boolean> results = runConcurrently(tasks);
+
+        assertTrue(results.stream().allMatch(Boolean::booleanValue));
+    }
+
+    @Test
+    public void approveBooking_whenDecidedConcurrently_thenOnlyOneDecisionApplies() throws Exception {
+        Item item = saveItem();
+        BookingDto booking = bookingService.createBooking(dto(item, 0, 24), bookers.get(0).getId());
+        List<Callable<Boolean>> tasks = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            boolean approved = i % 2 == 0;
+            tasks.add(() -> {
+                try {
+                    return bookingService.approveBooking(booking.getId(), approved, owner.getId()).getStatus() ==
+                            (approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
+                } catch (BookingException e) {
+                    return false;
+                }
+            });
+        }
+
+        List<Boolean> results = runConcurrently(tasks);
+
+        assertEquals(1, results.stream().filter(Boolean::booleanValue).count());
+        assertNotEquals(BookingStatus.WAITING, bookingRepository.findById(booking.getId()).orElseThrow().getStatus());
+    }
+}
@@ -4,24 +4,36 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingApproveDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.model.StateStatus;
+import ru.practicum.shareit.exception.model.BookingException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
+import ru.practicum.shareit.pagination.TimeCursor;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @SpringBootTest
 @Transactional
@@ -170,7 +182,7 @@ class BookingServiceImplIntTest {
                 .item(item2)
                 .build());
 
-        List<BookingDto> bookingsForUser = bookingService.getAllBookingsForUser(booker.getId(), StateStatus.ALL, PageRequest.of(0, 10));
+        List<BookingDto> bookingsForUser = bookingService.getAllBookingsForUser(booker.getId(), StateStatus.ALL, null, PageRequest.of(0, 10)).getContent();
 
         assertNotNull(bookingsForUser);
         assertFalse(bookingsForUser.isEmpty());
@@ -220,12 +232,199 @@ class BookingServiceImplIntTest {
                 .item(item2)
                 .build());
 
-        List<BookingDto> bookingsForOwner = bookingService.getAllBookingsForOwner(owner1.getId(), StateStatus.ALL, PageRequest.of(0, 10));
+        List<BookingDto> bookingsForOwner = bookingService.getAllBookingsForOwner(owner1.getId(), StateStatus.ALL, null, PageRequest.of(0, 10)).getContent();
 
         assertNotNull(bookingsForOwner);
         assertFalse(bookingsForOwner.isEmpty());
         assertEquals(1, bookingsForOwner.size());
         assertEquals(booking2.getId(), bookingsForOwner.get(0).getId());
     }
-}
 
+    @Test
+    void getAllBookingsForUser_whenCursorGiven_thenReturnBookingsAfterCursor() {
+        User owner = userRepository.save(User.builder()
+                .name("name")
+                .email("nice@email.com")
+                .build());
+        User booker = userRepository.save(User.builder()
+                .name("name")
+                .email("booker@email.com")
+                .build());
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Item item = itemRepository.save(Item.builder()
+                    .description("desc")
+                    .name("name" + i)
+                    .available(true)
+                    .owner(owner)
+                    .build());
+            ids.add(bookingRepository.save(Booking.builder()
+                    .status(BookingStatus.WAITING)
+                    .start(i == 0 ? start.minusHours(1) : start)
+                    .end(start.plusDays(1))
+                    .booker(booker)
+                    .item(item)
+                    .build()).getId());
+        }
+        Pageable pageable = OffsetPageRequest.of(0, 2,
+                Sort.by(Sort.Direction.DESC, "start").and(Sort.by(Sort.Direction.DESC, "id")));
+
+        Slice<BookingDto> firstPage = bookingService.getAllBookingsForUser(booker.getId(), StateStatus.ALL, null, pageable);
+        BookingDto last = firstPage.getContent().get(1);
+        Slice<BookingDto> secondPage = bookingService.getAllBookingsForUser(booker.getId(), StateStatus.ALL,
+                new TimeCursor(last.getStart(), last.getId()), pageable);
+
+        assertEquals(List.of(ids.get(2), ids.get(1)),
+                firstPage.getContent().stream().map(BookingDto::getId).collect(Collectors.toList()));
+        assertTrue(firstPage.hasNext());
+        assertEquals(List.of(ids.get(0)),
+                secondPage.getContent().stream().map(BookingDto::getId).collect(Collectors.toList()));
+        assertFalse(secondPage.hasNext());
+    }
+
+    @Test
+    void exportBookingsForOwner_whenHistoryHasManyBookings_thenPassAllInListOrder() {
+        User owner = userRepository.save(User.builder()
+                .name("name")
+                .email("nice@email.com")
+                .build());
+        User booker = userRepository.save(User.builder()
+                .name("name")
+                .email("booker@email.com")
+                .build());
+        Item item = itemRepository.save(Item.builder()
+                .description("desc")
+                .name("name")
+                .available(true)
+                .owner(owner)
+                .build());
+        LocalDateTime start = LocalDateTime.now().minusDays(30);
+        for (int i = 0; i < 25; i++) {
+            bookingRepository.save(Booking.builder()
+                    .status(i % 5 == 0 ? BookingStatus.REJECTED : BookingStatus.APPROVED)
+                    .start(start.plusDays(i))
+                    .end(start.plusDays(i).plusHours(1))
+                    .booker(booker)
+                    .item(item)
+                    .build());
+        }
+        Pageable all = OffsetPageRequest.of(0, 100, Sort.by(Sort.Direction.DESC, "start")
+                .and(Sort.by(Sort.Direction.DESC, "id")));
+        List<Long> expected = bookingService.getAllBookingsForOwner(owner.getId(), StateStatus.ALL, null, all)
+                .map(BookingDto::getId)
+                .getContent();
+        List<BookingDto> exported = new ArrayList<>();
+        List<BookingDto> rejected = new ArrayList<>();
+
+        bookingService.exportBookingsForOwner(owner.getId(), StateStatus.ALL, exported::add);
+        bookingService.exportBookingsForOwner(owner.getId(), StateStatus.REJECTED, rejected::add);
+
+        assertEquals(25, exported.size());
+        assertEquals(expected, exported.stream().map(BookingDto::getId).collect(Collectors.toList()));
+        assertEquals(item.getName(), exported.get(0).getItem().getName());
+        assertEquals(5, rejected.size());
+    }
+
+    @Test
+    void approveBookings_whenDecisionsAreMixed_thenApplyWaitingAndReportOthers() {
+        User owner = userRepository.save(User.builder()
+                .name("name")
+                .email("nice@email.com")
+                .build());
+        User other = userRepository.save(User.builder()
+                .name("name")
+                .email("other@email.com")
+                .build());
+        User booker = userRepository.save(User.builder()
+                .name("name")
+                .email("booker@email.com")
+                .build());
+        Item item = itemRepository.save(Item.builder()
+                .description("desc")
+                .name("name")
+                .available(true)
+                .owner(owner)
+                .build());
+        Item otherItem = itemRepository.save(Item.builder()
+                .description("desc")
+                .name("name")
+                .available(true)
+                .owner(other)
+                .build());
+        List<Booking> bookings = new ArrayList<>();
+        for (BookingStatus status : List.of(BookingStatus.WAITING, BookingStatus.WAITING, BookingStatus.WAITING,
+                BookingStatus.APPROVED)) {
+            bookings.add(bookingRepository.save(Booking.builder()
+                    .status(status)
+                    .start(LocalDateTime.now().plusDays(bookings.size() + 1))
+                    .end(LocalDateTime.now().plusDays(bookings.size() + 2))
+                    .booker(booker)
+                    .item(item)
+                    .build()));
+        }
+        Booking foreign = bookingRepository.save(Booking.builder()
+                .status(BookingStatus.WAITING)
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .booker(booker)
+                .item(otherItem)
+                .build());
+
+        List<BookingDecisionDto> results = bookingService.approveBookings(List.of(
+                new BookingApproveDto(bookings.get(0).getId(), true),
+                new BookingApproveDto(bookings.get(1).getId(), false),
+                new BookingApproveDto(bookings.get(2).getId(), true),
+                new BookingApproveDto(bookings.get(3).getId(), false),
+                new BookingApproveDto(foreign.getId(), true)), owner.getId());
+
+        assertEquals(List.of(
+                new BookingDecisionDto(bookings.get(0).getId(), BookingStatus.APPROVED, null),
+                new BookingDecisionDto(bookings.get(1).getId(), BookingStatus.REJECTED, null),
+                new BookingDecisionDto(bookings.get(2).getId(), BookingStatus.APPROVED, null),
+                new BookingDecisionDto(bookings.get(3).getId(), null, "Бронирование уже подтверждено"),
+                new BookingDecisionDto(foreign.getId(), null, "Бронирование с id = " + foreign.getId() + " не найдено")),
+                results);
+        List<BookingStatus> statuses = bookings.stream()
+                .map(booking -> bookingRepository.findById(booking.getId()).orElseThrow().getStatus())
+                .collect(Collectors.toList());
+        assertEquals(List.of(BookingStatus.APPROVED, BookingStatus.REJECTED, BookingStatus.APPROVED,
+                BookingStatus.APPROVED), statuses);
+        assertEquals(BookingStatus.WAITING, bookingRepository.findById(foreign.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void approveBookings_whenBookingIsRepeated_thenThrowBookingExceptionAndKeepStatus() {
+        User owner = userRepository.save(User.builder()
+                .name("name")
+                .email("nice@email.com")
+                .build());
+        User booker = userRepository.save(User.builder()
+                .name("name")
+                .email("booker@email.com")
+                .build());
+        Item item = itemRepository.save(Item.builder()
+                .description("desc")
+                .name("name")
+                .available(true)
+                .owner(owner)
+                .build());
+        Booking booking = bookingRepository.save(Booking.builder()
+                .status(BookingStatus.WAITING)
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .booker(booker)
+                .item(item)
+                .build());
+        List<BookingApproveDto> decisions = List.of(
+                new BookingApproveDto(booking.getId(), true),
+                new BookingApproveDto(booking.getId(), false));
+
+        Throwable throwable = assertThrows(BookingException.class,
+                () -> bookingService.approveBookings(decisions, owner.getId()));
+
+        assertEquals("Бронирование с id = " + booking.getId() + " указано в запросе несколько раз",
+                throwable.getMessage());
+        assertEquals(BookingStatus.WAITING, bookingRepository.findById(booking.getId()).orElseThrow().getStatus());
+    }
+}
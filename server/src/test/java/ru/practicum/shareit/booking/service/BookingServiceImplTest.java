@@ -1,13 +1,15 @@
 package ru.practicum.shareit.booking.service;
 
 import com.querydsl.core.types.dsl.BooleanExpression;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import ru.practicum.shareit.booking.BookingMapper;
 import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.availability.DatabaseBookingAvailability;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.model.Booking;
@@ -17,11 +19,13 @@ import ru.practicum.shareit.exception.model.BookingException;
 import ru.practicum.shareit.exception.model.NotFoundException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemBookingSummaryService;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserDirectory;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
@@ -30,6 +34,8 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class BookingServiceImplTest {
@@ -45,7 +51,11 @@ class BookingServiceImplTest {
         userRepository = mock(UserRepository.class);
         itemRepository = mock(ItemRepository.class);
         mapper = new BookingMapper();
-        bookingService = new BookingServiceImpl(bookingRepository, userRepository, itemRepository, mapper);
+        bookingService = new BookingServiceImpl(bookingRepository, userRepository,
+                new UserDirectory(userRepository, 100, Duration.ofMinutes(1), new SimpleMeterRegistry()), itemRepository, mapper,
+                new DatabaseBookingAvailability(bookingRepository, itemRepository),
+                new BookingCountCache(100, Duration.ofMinutes(1), new SimpleMeterRegistry()),
+                mock(ItemBookingSummaryService.class));
     }
 
     void assertEqualBooking(BookingDto o1, BookingDto o2) {
@@ -71,7 +81,7 @@ class BookingServiceImplTest {
         expectedBooking.setId(1L);
         expectedBooking.setItem(item);
         expectedBooking.setBooker(booker);
-        when(userRepository.findById(booker.getId())).thenReturn(Optional.of(booker));
+        when(userRepository.existsById(booker.getId())).thenReturn(true);
         when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
         when(bookingRepository.save(any())).thenReturn(Booking.builder()
                 .id(1L)
@@ -94,7 +104,7 @@ class BookingServiceImplTest {
                 .end(LocalDateTime.of(2021, 2, 1, 1, 1))
                 .build();
         String expectedResponse = "Пользователь с id = 2 не найден";
-        when(userRepository.findById(2L)).thenReturn(Optional.empty());
+        when(userRepository.existsById(2L)).thenReturn(false);
 
         Throwable throwable = assertThrows(NotFoundException.class, () -> bookingService.createBooking(dto, 2L));
 
@@ -110,7 +120,7 @@ class BookingServiceImplTest {
                 .end(LocalDateTime.of(2021, 2, 1, 1, 1))
                 .build();
         String expectedResponse = "Объект с id = 3 не найден";
-        when(userRepository.findById(1L)).thenReturn(Optional.of(booker));
+        when(userRepository.existsById(1L)).thenReturn(true);
         when(itemRepository.findById(dto.getItemId())).thenReturn(Optional.empty());
 
         Throwable throwable = assertThrows(NotFoundException.class, () -> bookingService.createBooking(dto, booker.getId()));
@@ -129,7 +139,7 @@ class BookingServiceImplTest {
                 .end(LocalDateTime.of(2021, 2, 1, 1, 1))
                 .build();
         String expectedResponse = "Не найдена свободная вещь с таким id";
-        when(userRepository.findById(1L)).thenReturn(Optional.of(booker));
+        when(userRepository.existsById(1L)).thenReturn(true);
         when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
 
         Throwable throwable = assertThrows(BookingException.class, () -> bookingService.createBooking(dto, booker.getId()));
@@ -148,7 +158,7 @@ class BookingServiceImplTest {
                 .end(LocalDateTime.of(2021, 2, 1, 1, 1))
                 .build();
         String expectedResponse = "Данная вещь сейчас находится в аренде";
-        when(userRepository.findById(1L)).thenReturn(Optional.of(booker));
+        when(userRepository.existsById(1L)).thenReturn(true);
         when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
         when(bookingRepository.checkItemBookings(anyLong(), any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(List.of(Booking.builder()
                 .id(3L)
@@ -170,7 +180,7 @@ class BookingServiceImplTest {
                 .end(LocalDateTime.of(2021, 2, 1, 1, 1))
                 .build();
         String expectedResponse = "id владельца и арендатора совпадают";
-        when(userRepository.findById(1L)).thenReturn(Optional.of(booker));
+        when(userRepository.existsById(1L)).thenReturn(true);
         when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
 
         Throwable throwable = assertThrows(NotFoundException.class, () -> bookingService.createBooking(dto, booker.getId()));
@@ -199,13 +209,17 @@ class BookingServiceImplTest {
                 .booker(booker)
                 .status(BookingStatus.APPROVED)
                 .build();
-        when(userRepository.findById(owner.getId())).thenReturn(Optional.of(owner));
-        when(bookingRepository.findByIdAndItemOwnerId(booking.getId(), owner.getId())).thenReturn(Optional.of(booking));
-        when(bookingRepository.save(booking)).thenReturn(expectedBooking);
+        when(userRepository.existsById(owner.getId())).thenReturn(true);
+        when(bookingRepository.updateStatusIfWaiting(List.of(booking.getId()), owner.getId(), BookingStatus.APPROVED))
+                .thenReturn(1);
+        when(bookingRepository.findBookingDtos(any(BooleanExpression.class), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(mapper.bookingToBookingDto(expectedBooking))));
 
         BookingDto newBooking = bookingService.approveBooking(booking.getId(), true, owner.getId());
 
         assertEqualBooking(mapper.bookingToBookingDto(expectedBooking), newBooking);
+        assertEquals(BookingStatus.APPROVED, newBooking.getStatus());
+        verify(bookingRepository, never()).save(any(Booking.class));
     }
 
     @Test
@@ -222,7 +236,7 @@ class BookingServiceImplTest {
                 .status(BookingStatus.WAITING)
                 .build();
         String expectedResponse = "Пользователь с id = " + owner.getId() + " не найден";
-        when(userRepository.findById(owner.getId())).thenReturn(Optional.empty());
+        when(userRepository.existsById(owner.getId())).thenReturn(false);
 
         Throwable throwable = assertThrows(NotFoundException.class, () -> bookingService.approveBooking(booking.getId(), true, owner.getId()));
 
@@ -243,7 +257,7 @@ class BookingServiceImplTest {
                 .status(BookingStatus.WAITING)
                 .build();
         String expectedResponse = "Бронирование с id = " + booking.getId() + " не найдено";
-        when(userRepository.findById(owner.getId())).thenReturn(Optional.of(owner));
+        when(userRepository.existsById(owner.getId())).thenReturn(true);
         when(bookingRepository.findById(booking.getId())).thenReturn(Optional.empty());
 
         Throwable throwable = assertThrows(NotFoundException.class, () -> bookingService.approveBooking(booking.getId(), true, owner.getId()));
@@ -265,7 +279,7 @@ class BookingServiceImplTest {
                 .status(BookingStatus.WAITING)
                 .build();
         String expectedResponse = "Бронирование с id = " + booking.getId() + " не найдено";
-        when(userRepository.findById(3L)).thenReturn(Optional.of(owner));
+        when(userRepository.existsById(3L)).thenReturn(true);
         when(bookingRepository.findById(booking.getId())).thenReturn(Optional.of(booking));
 
         Throwable throwable = assertThrows(NotFoundException.class, () -> bookingService.approveBooking(booking.getId(), true, 3L));
@@ -287,8 +301,10 @@ class BookingServiceImplTest {
                 .status(BookingStatus.APPROVED)
                 .build();
         String expectedResponse = "Бронирование уже подтверждено";
-        when(userRepository.findById(owner.getId())).thenReturn(Optional.of(owner));
-        when(bookingRepository.findByIdAndItemOwnerId(booking.getId(), owner.getId())).thenReturn(Optional.of(booking));
+        when(userRepository.existsById(owner.getId())).thenReturn(true);
+        when(bookingRepository.updateStatusIfWaiting(List.of(booking.getId()), owner.getId(), BookingStatus.APPROVED))
+                .thenReturn(0);
+        when(bookingRepository.existsByIdAndOwnerId(booking.getId(), owner.getId())).thenReturn(true);
 
         Throwable throwable = assertThrows(BookingException.class, () -> bookingService.approveBooking(booking.getId(), true, owner.getId()));
 
@@ -308,7 +324,7 @@ class BookingServiceImplTest {
                 .booker(booker)
                 .status(BookingStatus.WAITING)
                 .build();
-        when(userRepository.findById(booker.getId())).thenReturn(Optional.of(booker));
+        when(userRepository.existsById(booker.getId())).thenReturn(true);
         when(bookingRepository.findById(booking.getId())).thenReturn(Optional.of(booking));
 
         BookingDto actualBooking = bookingService.getBookingById(booking.getId(), booker.getId());
@@ -330,7 +346,7 @@ class BookingServiceImplTest {
                 .status(BookingStatus.WAITING)
                 .build();
         String expectedResponse = "Бронирование с id = 1 не найдено";
-        when(userRepository.findById(booker.getId())).thenReturn(Optional.of(booker));
+        when(userRepository.existsById(booker.getId())).thenReturn(true);
         when(bookingRepository.findById(1L)).thenReturn(Optional.empty());
 
         Throwable throwable = assertThrows(NotFoundException.class, () -> bookingService.getBookingById(booking.getId(), booker.getId()));
@@ -352,7 +368,7 @@ class BookingServiceImplTest {
                 .status(BookingStatus.WAITING)
                 .build();
         String expectedResponse = "Пользователь с id = " + booker.getId() + " не найден";
-        when(userRepository.findById(booker.getId())).thenReturn(Optional.empty());
+        when(userRepository.existsById(booker.getId())).thenReturn(false);
 
         Throwable throwable = assertThrows(NotFoundException.class, () -> bookingService.getBookingById(booking.getId(), booker.getId()));
 
@@ -373,7 +389,7 @@ class BookingServiceImplTest {
                 .status(BookingStatus.WAITING)
                 .build();
         String expectedResponse = "Пользователь не связан с данным бронированием";
-        when(userRepository.findById(5L)).thenReturn(Optional.of(booker));
+        when(userRepository.existsById(5L)).thenReturn(true);
         when(bookingRepository.findById(booking.getId())).thenReturn(Optional.of(booking));
 
         Throwable throwable = assertThrows(NotFoundException.class, () -> bookingService.getBookingById(booking.getId(), 5L));
@@ -384,10 +400,11 @@ class BookingServiceImplTest {
     @Test
     public void getAllBookingsForUser_whenUserWasNotFound_thenThrowException() {
         String expectedString = "Пользователь с id = 1 не найден";
-        when(userRepository.findById(1L)).thenReturn(Optional.empty());
+        when(userRepository.existsById(1L)).thenReturn(false);
+        when(bookingRepository.findBookingDtos(any(BooleanExpression.class), any(PageRequest.class))).thenReturn(new SliceImpl<>(List.of()));
 
         Throwable throwable = assertThrows(NotFoundException.class,
-                () -> bookingService.getAllBookingsForUser(1L, StateStatus.ALL, PageRequest.of(0, 10)));
+                () -> bookingService.getAllBookingsForUser(1L, StateStatus.ALL, null, PageRequest.of(0, 10)));
 
         assertEquals(expectedString, throwable.getMessage());
     }
@@ -395,10 +412,10 @@ class BookingServiceImplTest {
     @Test
     public void getAllBookingsForUser_whenBookingsWasNotFound_thenReturnEmptyList() {
         User booker = User.builder().id(1L).build();
-        when(userRepository.findById(1L)).thenReturn(Optional.of(booker));
-        when(bookingRepository.findAll(any(BooleanExpression.class), any(PageRequest.class))).thenReturn(Page.empty());
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(bookingRepository.findBookingDtos(any(BooleanExpression.class), any(PageRequest.class))).thenReturn(new SliceImpl<>(List.of()));
 
-        List<BookingDto> result = bookingService.getAllBookingsForUser(booker.getId(), StateStatus.ALL, PageRequest.of(0, 10));
+        List<BookingDto> result = bookingService.getAllBookingsForUser(booker.getId(), StateStatus.ALL, null, PageRequest.of(0, 10)).getContent();
 
         assertEquals(0, result.size());
     }
@@ -425,10 +442,11 @@ class BookingServiceImplTest {
                 .booker(booker)
                 .status(BookingStatus.APPROVED)
                 .build();
-        when(userRepository.findById(1L)).thenReturn(Optional.of(booker));
-        when(bookingRepository.findAll(any(BooleanExpression.class), any(PageRequest.class))).thenReturn(new PageImpl<>(List.of(first, second)));
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(bookingRepository.findBookingDtos(any(BooleanExpression.class), any(PageRequest.class)))
+                .thenReturn(new SliceImpl<>(List.of(mapper.bookingToBookingDto(first), mapper.bookingToBookingDto(second))));
 
-        List<BookingDto> result = bookingService.getAllBookingsForUser(booker.getId(), StateStatus.ALL, PageRequest.of(0, 10));
+        List<BookingDto> result = bookingService.getAllBookingsForUser(booker.getId(), StateStatus.ALL, null, PageRequest.of(0, 10)).getContent();
 
         assertEquals(2, result.size());
     }
@@ -455,10 +473,11 @@ class BookingServiceImplTest {
                 .booker(booker)
                 .status(BookingStatus.APPROVED)
                 .build();
-        when(userRepository.findById(1L)).thenReturn(Optional.of(booker));
-        when(bookingRepository.findAll(any(BooleanExpression.class), any(PageRequest.class))).thenReturn(new PageImpl<>(List.of(first, second)));
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(bookingRepository.findBookingDtos(any(BooleanExpression.class), any(PageRequest.class)))
+                .thenReturn(new SliceImpl<>(List.of(mapper.bookingToBookingDto(first), mapper.bookingToBookingDto(second))));
 
-        List<BookingDto> result = bookingService.getAllBookingsForUser(booker.getId(), StateStatus.CURRENT, PageRequest.of(0, 10));
+        List<BookingDto> result = bookingService.getAllBookingsForUser(booker.getId(), StateStatus.CURRENT, null, PageRequest.of(0, 10)).getContent();
 
         assertEquals(2, result.size());
     }
@@ -485,10 +504,11 @@ class BookingServiceImplTest {
                 .booker(booker)
                 .status(BookingStatus.APPROVED)
                 .build();
-        when(userRepository.findById(1L)).thenReturn(Optional.of(booker));
-        when(bookingRepository.findAll(any(BooleanExpression.class), any(PageRequest.class))).thenReturn(new PageImpl<>(List.of(first, second)));
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(bookingRepository.findBookingDtos(any(BooleanExpression.class), any(PageRequest.class)))
+                .thenReturn(new SliceImpl<>(List.of(mapper.bookingToBookingDto(first), mapper.bookingToBookingDto(second))));
 
-        List<BookingDto> result = bookingService.getAllBookingsForUser(booker.getId(), StateStatus.PAST, PageRequest.of(0, 10));
+        List<BookingDto> result = bookingService.getAllBookingsForUser(booker.getId(), StateStatus.PAST, null, PageRequest.of(0, 10)).getContent();
 
         assertEquals(2, result.size());
     }
@@ -515,10 +535,11 @@ class BookingServiceImplTest {
                 .booker(booker)
                 .status(BookingStatus.APPROVED)
                 .build();
-        when(userRepository.findById(1L)).thenReturn(Optional.of(booker));
-        when(bookingRepository.findAll(any(BooleanExpression.class), any(PageRequest.class))).thenReturn(new PageImpl<>(List.of(first, second)));
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(bookingRepository.findBookingDtos(any(BooleanExpression.class), any(PageRequest.class)))
+                .thenReturn(new SliceImpl<>(List.of(mapper.bookingToBookingDto(first), mapper.bookingToBookingDto(second))));
 
-        List<BookingDto> result = bookingService.getAllBookingsForUser(booker.getId(), StateStatus.FUTURE, PageRequest.of(0, 10));
+        List<BookingDto> result = bookingService.getAllBookingsForUser(booker.getId(), StateStatus.FUTURE, null, PageRequest.of(0, 10)).getContent();
 
         assertEquals(2, result.size());
     }
@@ -545,10 +566,11 @@ class BookingServiceImplTest {
                 .booker(booker)
                 .status(BookingStatus.APPROVED)
                 .build();
-        when(userRepository.findById(1L)).thenReturn(Optional.of(booker));
-        when(bookingRepository.findAll(any(BooleanExpression.class), any(PageRequest.class))).thenReturn(new PageImpl<>(List.of(first, second)));
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(bookingRepository.findBookingDtos(any(BooleanExpression.class), any(PageRequest.class)))
+                .thenReturn(new SliceImpl<>(List.of(mapper.bookingToBookingDto(first), mapper.bookingToBookingDto(second))));
 
-        List<BookingDto> result = bookingService.getAllBookingsForUser(booker.getId(), StateStatus.WAITING, PageRequest.of(0, 10));
+        List<BookingDto> result = bookingService.getAllBookingsForUser(booker.getId(), StateStatus.WAITING, null, PageRequest.of(0, 10)).getContent();
 
         assertEquals(2, result.size());
     }
@@ -575,10 +597,11 @@ class BookingServiceImplTest {
                 .booker(booker)
                 .status(BookingStatus.APPROVED)
                 .build();
-        when(userRepository.findById(1L)).thenReturn(Optional.of(booker));
-        when(bookingRepository.findAll(any(BooleanExpression.class), any(PageRequest.class))).thenReturn(new PageImpl<>(List.of(first, second)));
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(bookingRepository.findBookingDtos(any(BooleanExpression.class), any(PageRequest.class)))
+                .thenReturn(new SliceImpl<>(List.of(mapper.bookingToBookingDto(first), mapper.bookingToBookingDto(second))));
 
-        List<BookingDto> result = bookingService.getAllBookingsForUser(booker.getId(), StateStatus.REJECTED, PageRequest.of(0, 10));
+        List<BookingDto> result = bookingService.getAllBookingsForUser(booker.getId(), StateStatus.REJECTED, null, PageRequest.of(0, 10)).getContent();
 
         assertEquals(2, result.size());
     }
@@ -586,10 +609,11 @@ class BookingServiceImplTest {
     @Test
     public void getAllBookingsForOwner_whenUserWasNotFound_thenThrowException() {
         String expectedString = "Пользователь с id = 1 не найден";
-        when(userRepository.findById(1L)).thenReturn(Optional.empty());
+        when(userRepository.existsById(1L)).thenReturn(false);
+        when(bookingRepository.findBookingDtos(any(BooleanExpression.class), any(PageRequest.class))).thenReturn(new SliceImpl<>(List.of()));
 
         Throwable throwable = assertThrows(NotFoundException.class,
-                () -> bookingService.getAllBookingsForOwner(1L, StateStatus.ALL, PageRequest.of(0, 10)));
+                () -> bookingService.getAllBookingsForOwner(1L, StateStatus.ALL, null, PageRequest.of(0, 10)));
 
         assertEquals(expectedString, throwable.getMessage());
     }
@@ -598,11 +622,12 @@ class BookingServiceImplTest {
     public void getAllBookingsForOwner_whenItemsForOwnerWasNotFound_thenThrowException() {
         String excpectedString = "Не найдены вещи для данного владельца";
         User booker = User.builder().id(1L).build();
-        when(userRepository.findById(1L)).thenReturn(Optional.of(booker));
-        when(itemRepository.findALlByOwnerId(anyLong())).thenReturn(Collections.emptyList());
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(itemRepository.existsByOwnerId(anyLong())).thenReturn(false);
+        when(bookingRepository.findBookingDtos(any(BooleanExpression.class), any(PageRequest.class))).thenReturn(new SliceImpl<>(List.of()));
 
         Throwable throwable = assertThrows(NotFoundException.class,
-                () -> bookingService.getAllBookingsForOwner(booker.getId(), StateStatus.ALL, PageRequest.of(0, 10)));
+                () -> bookingService.getAllBookingsForOwner(booker.getId(), StateStatus.ALL, null, PageRequest.of(0, 10)));
 
         assertEquals(excpectedString, throwable.getMessage());
     }
@@ -613,11 +638,11 @@ class BookingServiceImplTest {
         Item item = Item.builder()
                 .id(1L)
                 .build();
-        when(userRepository.findById(1L)).thenReturn(Optional.of(booker));
-        when(itemRepository.findALlByOwnerId(anyLong())).thenReturn(List.of(item));
-        when(bookingRepository.findAll(any(BooleanExpression.class), any(PageRequest.class))).thenReturn(Page.empty());
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(itemRepository.existsByOwnerId(anyLong())).thenReturn(true);
+        when(bookingRepository.findBookingDtos(any(BooleanExpression.class), any(PageRequest.class))).thenReturn(new SliceImpl<>(List.of()));
 
-        List<BookingDto> result = bookingService.getAllBookingsForUser(booker.getId(), StateStatus.ALL, PageRequest.of(0, 10));
+        List<BookingDto> result = bookingService.getAllBookingsForUser(booker.getId(), StateStatus.ALL, null, PageRequest.of(0, 10)).getContent();
 
         assertEquals(0, result.size());
     }
@@ -644,15 +669,49 @@ class BookingServiceImplTest {
                 .booker(booker)
                 .status(BookingStatus.APPROVED)
                 .build();
-        when(userRepository.findById(1L)).thenReturn(Optional.of(booker));
-        when(itemRepository.findALlByOwnerId(anyLong())).thenReturn(List.of(item));
-        when(bookingRepository.findAll(any(BooleanExpression.class), any(PageRequest.class))).thenReturn(new PageImpl<>(List.of(first, second)));
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(itemRepository.existsByOwnerId(anyLong())).thenReturn(true);
+        when(bookingRepository.findBookingDtos(any(BooleanExpression.class), any(PageRequest.class)))
+                .thenReturn(new SliceImpl<>(List.of(mapper.bookingToBookingDto(first), mapper.bookingToBookingDto(second))));
 
-        List<BookingDto> result = bookingService.getAllBookingsForUser(booker.getId(), StateStatus.ALL, PageRequest.of(0, 10));
+        List<BookingDto> result = bookingService.getAllBookingsForUser(booker.getId(), StateStatus.ALL, null, PageRequest.of(0, 10)).getContent();
 
         assertEquals(2, result.size());
     }
 
+    @Test
+    public void getAllBookingsForOwner_whenPageIsNotEmpty_thenSkipExistenceChecks() {
+        User booker = User.builder().id(2L).build();
+        Item item = Item.builder().id(1L).name("item").build();
+        Booking booking = Booking.builder()
+                .id(1L)
+                .start(LocalDateTime.of(2023, 1, 1, 1, 1))
+                .end(LocalDateTime.of(2023, 1, 2, 1, 1))
+                .item(item)
+                .booker(booker)
+                .status(BookingStatus.APPROVED)
+                .build();
+        when(bookingRepository.findBookingDtos(any(BooleanExpression.class), any(PageRequest.class)))
+                .thenReturn(new SliceImpl<>(List.of(mapper.bookingToBookingDto(booking))));
+
+        List<BookingDto> result = bookingService.getAllBookingsForOwner(1L, StateStatus.ALL, null, PageRequest.of(0, 10)).getContent();
+
+        assertEquals(1, result.size());
+        verify(userRepository, never()).existsById(anyLong());
+        verify(itemRepository, never()).existsByOwnerId(anyLong());
+    }
+
+    @Test
+    public void getAllBookingsForOwner_whenPageIsEmptyAndOwnerHasItems_thenReturnEmptyList() {
+        when(bookingRepository.findBookingDtos(any(BooleanExpression.class), any(PageRequest.class))).thenReturn(new SliceImpl<>(List.of()));
+        when(itemRepository.existsByOwnerId(1L)).thenReturn(true);
+
+        List<BookingDto> result = bookingService.getAllBookingsForOwner(1L, StateStatus.ALL, null, PageRequest.of(0, 10)).getContent();
+
+        assertEquals(0, result.size());
+        verify(userRepository, never()).existsById(anyLong());
+    }
+
     @Test
     public void getAllBookingsForOwner_whenBookingsWasFoundForCurrent_thenReturnListOfBookings() {
         User booker = User.builder().id(1L).build();
@@ -675,11 +734,12 @@ class BookingServiceImplTest {
                 .booker(booker)
                 .status(BookingStatus.APPROVED)
                 .build();
-        when(userRepository.findById(1L)).thenReturn(Optional.of(booker));
-        when(itemRepository.findALlByOwnerId(anyLong())).thenReturn(List.of(item));
-        when(bookingRepository.findAll(any(BooleanExpression.class), any(PageRequest.class))).thenReturn(new PageImpl<>(List.of(first, second)));
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(itemRepository.existsByOwnerId(anyLong())).thenReturn(true);
+        when(bookingRepository.findBookingDtos(any(BooleanExpression.class), any(PageRequest.class)))
+                .thenReturn(new SliceImpl<>(List.of(mapper.bookingToBookingDto(first), mapper.bookingToBookingDto(second))));
 
-        List<BookingDto> result = bookingService.getAllBookingsForUser(booker.getId(), StateStatus.CURRENT, PageRequest.of(0, 10));
+        List<BookingDto> result = bookingService.getAllBookingsForUser(booker.getId(), StateStatus.CURRENT, null, PageRequest.of(0, 10)).getContent();
 
         assertEquals(2, result.size());
     }
@@ -706,11 +766,12 @@ class BookingServiceImplTest {
                 .booker(booker)
                 .status(BookingStatus.APPROVED)
                 .build();
-        when(userRepository.findById(1L)).thenReturn(Optional.of(booker));
-        when(itemRepository.findALlByOwnerId(anyLong())).thenReturn(List.of(item));
-        when(bookingRepository.findAll(any(BooleanExpression.class), any(PageRequest.class))).thenReturn(new PageImpl<>(List.of(first, second)));
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(itemRepository.existsByOwnerId(anyLong())).thenReturn(true);
+        when(bookingRepository.findBookingDtos(any(BooleanExpression.class), any(PageRequest.class)))
+                .thenReturn(new SliceImpl<>(List.of(mapper.bookingToBookingDto(first), mapper.bookingToBookingDto(second))));
 
-        List<BookingDto> result = bookingService.getAllBookingsForUser(booker.getId(), StateStatus.PAST, PageRequest.of(0, 10));
+        List<BookingDto> result = bookingService.getAllBookingsForUser(booker.getId(), StateStatus.PAST, null, PageRequest.of(0, 10)).getContent();
 
         assertEquals(2, result.size());
     }
@@ -737,11 +798,12 @@ class BookingServiceImplTest {
                 .booker(booker)
                 .status(BookingStatus.APPROVED)
                 .build();
-        when(userRepository.findById(1L)).thenReturn(Optional.of(booker));
-        when(itemRepository.findALlByOwnerId(anyLong())).thenReturn(List.of(item));
-        when(bookingRepository.findAll(any(BooleanExpression.class), any(PageRequest.class))).thenReturn(new PageImpl<>(List.of(first, second)));
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(itemRepository.existsByOwnerId(anyLong())).thenReturn(true);
+        when(bookingRepository.findBookingDtos(any(BooleanExpression.class), any(PageRequest.class)))
+                .thenReturn(new SliceImpl<>(List.of(mapper.bookingToBookingDto(first), mapper.bookingToBookingDto(second))));
 
-        List<BookingDto> result = bookingService.getAllBookingsForUser(booker.getId(), StateStatus.FUTURE, PageRequest.of(0, 10));
+        List<BookingDto> result = bookingService.getAllBookingsForUser(booker.getId(), StateStatus.FUTURE, null, PageRequest.of(0, 10)).getContent();
 
         assertEquals(2, result.size());
     }
@@ -768,11 +830,12 @@ class BookingServiceImplTest {
                 .booker(booker)
                 .status(BookingStatus.APPROVED)
                 .build();
-        when(userRepository.findById(1L)).thenReturn(Optional.of(booker));
-        when(itemRepository.findALlByOwnerId(anyLong())).thenReturn(List.of(item));
-        when(bookingRepository.findAll(any(BooleanExpression.class), any(PageRequest.class))).thenReturn(new PageImpl<>(List.of(first, second)));
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(itemRepository.existsByOwnerId(anyLong())).thenReturn(true);
+        when(bookingRepository.findBookingDtos(any(BooleanExpression.class), any(PageRequest.class)))
+                .thenReturn(new SliceImpl<>(List.of(mapper.bookingToBookingDto(first), mapper.bookingToBookingDto(second))));
 
-        List<BookingDto> result = bookingService.getAllBookingsForUser(booker.getId(), StateStatus.WAITING, PageRequest.of(0, 10));
+        List<BookingDto> result = bookingService.getAllBookingsForUser(booker.getId(), StateStatus.WAITING, null, PageRequest.of(0, 10)).getContent();
 
         assertEquals(2, result.size());
     }
@@ -799,14 +862,44 @@ class BookingServiceImplTest {
                 .booker(booker)
                 .status(BookingStatus.APPROVED)
                 .build();
-        when(userRepository.findById(1L)).thenReturn(Optional.of(booker));
-        when(itemRepository.findALlByOwnerId(anyLong())).thenReturn(List.of(item));
-        when(bookingRepository.findAll(any(BooleanExpression.class), any(PageRequest.class))).thenReturn(new PageImpl<>(List.of(first, second)));
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(itemRepository.existsByOwnerId(anyLong())).thenReturn(true);
+        when(bookingRepository.findBookingDtos(any(BooleanExpression.class), any(PageRequest.class)))
+                .thenReturn(new SliceImpl<>(List.of(mapper.bookingToBookingDto(first), mapper.bookingToBookingDto(second))));
 
-        List<BookingDto> result = bookingService.getAllBookingsForUser(booker.getId(), StateStatus.REJECTED, PageRequest.of(0, 10));
+        List<BookingDto> result = bookingService.getAllBookingsForUser(booker.getId(), StateStatus.REJECTED, null, PageRequest.of(0, 10)).getContent();
 
         assertEquals(2, result.size());
     }
 
 
-}
\ No newline at end of file
+
+    @Test
+    public void requireItemOwner_whenOwnerNotFound_thenThrowNotFoundException() {
+        when(itemRepository.existsByOwnerId(1L)).thenReturn(false);
+        when(userRepository.existsById(1L)).thenReturn(false);
+
+        Throwable throwable = assertThrows(NotFoundException.class, () -> bookingService.requireItemOwner(1L));
+
+        assertEquals("Пользователь с id = 1 не найден", throwable.getMessage());
+    }
+
+    @Test
+    public void requireItemOwner_whenOwnerHasNoItems_thenThrowNotFoundException() {
+        when(itemRepository.existsByOwnerId(1L)).thenReturn(false);
+        when(userRepository.existsById(1L)).thenReturn(true);
+
+        Throwable throwable = assertThrows(NotFoundException.class, () -> bookingService.requireItemOwner(1L));
+
+        assertEquals("Не найдены вещи для данного владельца", throwable.getMessage());
+    }
+
+    @Test
+    public void requireItemOwner_whenOwnerHasItems_thenPass() {
+        when(itemRepository.existsByOwnerId(1L)).thenReturn(true);
+
+        bookingService.requireItemOwner(1L);
+
+        verify(userRepository, never()).existsById(anyLong());
+    }
+}
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.booking.service;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * Те же сценарии при проверке пересечений запросом к БД и блокировке строки вещи.
+ */
+@SpringBootTest(properties = "shareit.booking.availability.mode=database")
+class DatabaseBookingConcurrencyTest extends BookingServiceImplConcurrencyTest {
+}
@@ -0,0 +1,187 @@
+package ru.practicum.shareit.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.item.dto.ItemUpdateDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.dto.UserUpdateDto;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Кеш второго уровня: транзакции коммитятся, поэтому данные удаляются после каждого теста.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class HibernateCacheCustomizerTest {
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ItemRequestRepository requestRepository;
+
+    private Statistics statistics;
+    private User owner;
+    private Item item;
+
+    @BeforeEach
+    public void beforeEach() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        owner = userRepository.save(User.builder().name("owner").email("owner@cache.com").build());
+        item = itemRepository.save(Item.builder()
+                .name("item")
+                .description("desc")
+                .available(true)
+                .owner(owner)
+                .build());
+        statistics.clear();
+    }
+
+    @AfterEach
+    public void afterEach() {
+        userService.deleteUsers();
+    }
+
+    private double hits(String region) {
+        return meterRegistry.get("cache.gets")
+                .tag("cache", region)
+                .tag("result", "hit")
+                .functionCounter()
+                .count();
+    }
+
+    @Test
+    public void findById_whenEntityWasLoaded_thenReadFromCacheWithoutStatements() {
+        userRepository.findById(owner.getId());
+        itemRepository.findById(item.getId());
+        statistics.clear();
+        double itemHits = hits(HibernateCacheCustomizer.ITEM_REGION);
+
+        assertEquals("owner", userRepository.findById(owner.getId()).orElseThrow().getName());
+        assertEquals("item", itemRepository.findById(item.getId()).orElseThrow().getName());
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(1, hits(HibernateCacheCustomizer.ITEM_REGION) - itemHits);
+    }
+
+    @Test
+    public void patchItem_whenItemIsCached_thenReadUpdatedItem() {
+        itemRepository.findById(item.getId());
+
+        itemService.patchItem(ItemUpdateDto.builder().name("updated").build(), item.getId(), owner.getId());
+
+        assertEquals("updated", itemRepository.findById(item.getId()).orElseThrow().getName());
+        assertEquals("updated", itemService.getItemById(item.getId(), owner.getId()).getName());
+    }
+
+    @Test
+    public void patchUser_whenUserIsCached_thenReadUpdatedUser() {
+        userRepository.findById(owner.getId());
+
+        userService.patchUser(owner.getId(), UserUpdateDto.builder().email("updated@cache.com").build());
+
+        assertEquals("updated@cache.com", userRepository.findById(owner.getId()).orElseThrow().getEmail());
+        assertEquals("updated@cache.com", userService.getUserById(owner.getId()).getEmail());
+    }
+
+    @Test
+    public void findAllByRequestId_whenQueryRepeats_thenReadFromQueryCache() {
+        ItemRequest request = requestRepository.save(ItemRequest.builder()
+                .owner(owner)
+                .description("request")
+                .created(LocalDateTime.now())
+                .build());
+        itemRepository.save(Item.builder()
+                .name("answer")
+                .description("desc")
+                .available(true)
+                .owner(owner)
+                .requestId(request.getId())
+                .build());
+        itemRepository.findAllByRequestId(request.getId());
+        statistics.clear();
+
+        List<Item> items = itemRepository.findAllByRequestId(request.getId());
+
+        assertEquals(1, items.size());
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertTrue(statistics.getQueryCacheHitCount() > 0);
+    }
+
+    @Test
+    public void findAllByRequestId_whenItemIsAdded_thenQueryCacheIsInvalidated() {
+        ItemRequest request = requestRepository.save(ItemRequest.builder()
+                .owner(owner)
+                .description("request")
+                .created(LocalDateTime.now())
+                .build());
+        itemRepository.findAllByRequestId(request.getId());
+
+        itemRepository.save(Item.builder()
+                .name("answer")
+                .description("desc")
+                .available(true)
+                .owner(owner)
+                .requestId(request.getId())
+                .build());
+
+        assertEquals(1, itemRepository.findAllByRequestId(request.getId()).size());
+    }
+
+    @Test
+    public void deleteUserById_whenRequestOfCachedItemIsDeleted_thenItemIsDetachedFromRequest() {
+        User requester = userRepository.save(User.builder().name("requester").email("requester@cache.com").build());
+        ItemRequest request = requestRepository.save(ItemRequest.builder()
+                .owner(requester)
+                .description("request")
+                .created(LocalDateTime.now())
+                .build());
+        Item answer = itemRepository.save(Item.builder()
+                .name("answer")
+                .description("desc")
+                .available(true)
+                .owner(owner)
+                .requestId(request.getId())
+                .build());
+        itemRepository.findById(answer.getId());
+        itemRepository.findAllByRequestId(request.getId());
+
+        userService.deleteUserById(requester.getId());
+
+        assertNull(itemRepository.findById(answer.getId()).orElseThrow().getRequestId());
+        assertTrue(itemRepository.findAllByRequestId(request.getId()).isEmpty());
+    }
+}
@@ -5,7 +5,6 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.MediaType;
@@ -13,23 +12,37 @@ import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.comment.dto.CommentCreateDto;
 import ru.practicum.shareit.comment.dto.CommentDto;
 import ru.practicum.shareit.comment.service.CommentService;
+import ru.practicum.shareit.exception.model.ItemImportException;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemCreateDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportErrorDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
 import ru.practicum.shareit.item.dto.ItemInfoDto;
 import ru.practicum.shareit.item.dto.ItemUpdateDto;
+import ru.practicum.shareit.item.dto.PeriodDto;
+import ru.practicum.shareit.item.service.ItemImportFormat;
+import ru.practicum.shareit.item.service.ItemImportService;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
+import ru.practicum.shareit.pagination.PageCursor;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = ItemController.class)
@@ -40,6 +53,8 @@ class ItemControllerTest {
     ItemService itemService;
     @MockBean
     CommentService commentService;
+    @MockBean
+    ItemImportService itemImportService;
     @Autowired
     private MockMvc mvc;
 
@@ -50,8 +65,8 @@ class ItemControllerTest {
                 ItemInfoDto.builder().id(1L).build(),
                 ItemInfoDto.builder().id(2L).build()
         );
-        when(itemService.getItemsByOwnerId(userId,
-                PageRequest.of(0, 10, Sort.by(Sort.Direction.ASC, "id")))).thenReturn(mockItems);
+        when(itemService.getItemsByOwnerId(userId, 0,
+                OffsetPageRequest.of(0, 10, Sort.by(Sort.Direction.ASC, "id")))).thenReturn(mockItems);
 
         mvc.perform(get("/items")
                         .header("X-Sharer-User-Id", userId)
@@ -67,7 +82,7 @@ class ItemControllerTest {
                 ItemInfoDto.builder().id(1L).build(),
                 ItemInfoDto.builder().id(2L).build()
         );
-        when(itemService.getItemsByOwnerId(userId, PageRequest.of(0, 3,
+        when(itemService.getItemsByOwnerId(userId, 0, OffsetPageRequest.of(0, 3,
                 Sort.by(Sort.Direction.ASC, "id")))).thenReturn(mockItems);
 
         mvc.perform(get("/items")
@@ -79,6 +94,27 @@ class ItemControllerTest {
                 .andExpect(content().json(mapper.writeValueAsString(mockItems)));
     }
 
+    @Test
+    public void getAllUserItems_whenCursorIsGiven_thenReturnItemsAfterCursorId() throws Exception {
+        long userId = 1L;
+        List<ItemInfoDto> mockItems = List.of(
+                ItemInfoDto.builder().id(6L).build(),
+                ItemInfoDto.builder().id(7L).build()
+        );
+        when(itemService.getItemsByOwnerId(userId, 5L, OffsetPageRequest.of(0, 2,
+                Sort.by(Sort.Direction.ASC, "id")))).thenReturn(mockItems);
+
+        mvc.perform(get("/items")
+                        .header("X-Sharer-User-Id", userId)
+                        .param("from", "4")
+                        .param("size", "2")
+                        .param("cursor", PageCursor.encode(5L))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(PageCursor.NEXT_CURSOR_HEADER, PageCursor.encode(7L)))
+                .andExpect(content().json(mapper.writeValueAsString(mockItems)));
+    }
+
     @Test
     public void getAllUserItems_whenRequestHasNoNeedHeader_thenReturnStatus500() throws Exception {
 
@@ -124,7 +160,7 @@ class ItemControllerTest {
                 .description("test")
                 .build();
         List<ItemDto> result = List.of(first, second);
-        when(itemService.getItemsByNameOrDesc(anyString(), any(Pageable.class))).thenReturn(result);
+        when(itemService.getItemsByNameOrDesc(anyString(), anyLong(), any(Pageable.class))).thenReturn(result);
 
         mvc.perform(get("/items/search")
                         .header("X-Sharer-User-Id", requesterId)
@@ -133,9 +169,41 @@ class ItemControllerTest {
                         .param("size", "2")
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", PageCursor.encode(second.getId())))
+                .andExpect(content().json(mapper.writeValueAsString(result)));
+    }
+
+    @Test
+    public void searchItems_whenCursorIsGiven_thenSearchAfterCursorId() throws Exception {
+        ItemDto item = ItemDto.builder()
+                .id(7L)
+                .name("test")
+                .build();
+        List<ItemDto> result = List.of(item);
+        when(itemService.getItemsByNameOrDesc("test", 5L, OffsetPageRequest.of(0, 2))).thenReturn(result);
+
+        mvc.perform(get("/items/search")
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("text", "test")
+                        .param("from", "4")
+                        .param("size", "2")
+                        .param("cursor", PageCursor.encode(5L))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
                 .andExpect(content().json(mapper.writeValueAsString(result)));
     }
 
+    @Test
+    public void searchItems_whenCursorIsInvalid_thenReturnStatus400() throws Exception {
+        mvc.perform(get("/items/search")
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("text", "test")
+                        .param("cursor", "not a cursor")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     public void searchItems_whenRequestIsCorrectWithNoParams_thenReturnListOfItems() throws Exception {
         String searchString = "TeSt";
@@ -149,7 +217,7 @@ class ItemControllerTest {
                 .description("test")
                 .build();
         List<ItemDto> result = List.of(first, second);
-        when(itemService.getItemsByNameOrDesc(anyString(), any(Pageable.class))).thenReturn(result);
+        when(itemService.getItemsByNameOrDesc(anyString(), anyLong(), any(Pageable.class))).thenReturn(result);
 
         mvc.perform(get("/items/search")
                         .header("X-Sharer-User-Id", requesterId)
@@ -159,6 +227,55 @@ class ItemControllerTest {
                 .andExpect(content().json(mapper.writeValueAsString(result)));
     }
 
+    @Test
+    public void searchItems_whenWindowIsGiven_thenSearchFreeItems() throws Exception {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 10, 0);
+        LocalDateTime end = start.plusDays(1);
+        List<ItemDto> result = List.of(ItemDto.builder().id(3L).name("test").build());
+        when(itemService.getFreeItemsByNameOrDesc("test", start, end, 0, OffsetPageRequest.of(0, 10))).thenReturn(result);
+
+        mvc.perform(get("/items/search")
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("text", "test")
+                        .param("start", start.toString())
+                        .param("end", end.toString())
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().json(mapper.writeValueAsString(result)));
+        verify(itemService, never()).getItemsByNameOrDesc(anyString(), anyLong(), any(Pageable.class));
+    }
+
+    @Test
+    public void searchItems_whenOnlyStartIsGiven_thenReturnStatus400() throws Exception {
+        mvc.perform(get("/items/search")
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("text", "test")
+                        .param("start", LocalDateTime.of(2030, 1, 1, 10, 0).toString())
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void getItemAvailability_whenRequestIsCorrect_thenReturnBusyAndFreePeriods() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(2);
+        ItemAvailabilityDto availability = ItemAvailabilityDto.builder()
+                .itemId(1L)
+                .from(from)
+                .to(to)
+                .busy(List.of(new PeriodDto(from, from.plusDays(1))))
+                .free(List.of(new PeriodDto(from.plusDays(1), to)))
+                .build();
+        when(itemService.getItemAvailability(1L, from, to)).thenReturn(availability);
+
+        mvc.perform(get("/items/{itemId}/availability", 1L)
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("from", "2030-01-01T00:00:00")
+                        .param("to", "2030-01-03T00:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(content().json(mapper.writeValueAsString(availability)));
+    }
+
     @Test
     public void createItem_whenRequestIsCorrect_thenReturnNewItem() throws Exception {
         long ownerId = 1L;
@@ -187,6 +304,48 @@ class ItemControllerTest {
                 .andExpect(status().is5xxServerError());
     }
 
+    @Test
+    public void importItems_whenBodyIsCsv_thenReturnImportResult() throws Exception {
+        long ownerId = 1L;
+        ItemImportResultDto result = ItemImportResultDto.builder()
+                .created(1)
+                .failed(1)
+                .errors(List.of(new ItemImportErrorDto(3, "Описание не может быть пустым")))
+                .build();
+        when(itemImportService.importItems(any(), eq(ItemImportFormat.CSV), eq(ownerId))).thenReturn(result);
+
+        mvc.perform(post("/items/bulk")
+                        .header("X-Sharer-User-Id", ownerId)
+                        .contentType("text/csv")
+                        .content("name,description,available\ndrill,desc,true\nsaw,,true\n"))
+                .andExpect(status().isOk())
+                .andExpect(content().json(mapper.writeValueAsString(result)));
+    }
+
+    @Test
+    public void importItems_whenRowIsTooLong_thenReturnStatus400() throws Exception {
+        when(itemImportService.importItems(any(), eq(ItemImportFormat.NDJSON), eq(1L)))
+                .thenThrow(new ItemImportException("Строка 1 длиннее 10000 символов, загрузка прервана"));
+
+        mvc.perform(post("/items/bulk")
+                        .header("X-Sharer-User-Id", 1L)
+                        .contentType(ItemImportFormat.NDJSON_VALUE)
+                        .content("{}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().json("{\"error\": \"Строка 1 длиннее 10000 символов, загрузка прервана\"}"));
+    }
+
+    @Test
+    public void importItems_whenContentTypeIsJson_thenReturnStatus415() throws Exception {
+
+        mvc.perform(post("/items/bulk")
+                        .header("X-Sharer-User-Id", 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isUnsupportedMediaType());
+        verify(itemImportService, never()).importItems(any(), any(), anyLong());
+    }
+
     @Test
     public void patchItem_whenRequestIsCorrect_thenReturnUpdatedItem() throws Exception {
         Long itemId = 1L;
@@ -8,6 +8,7 @@ import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemInfoDto;
 import ru.practicum.shareit.item.dto.ItemUpdateDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
 import ru.practicum.shareit.user.User;
 
 import java.util.List;
@@ -85,14 +86,20 @@ class ItemMapperTest {
         Comment second = Comment.builder().id(2L).build();
         Comment third = Comment.builder().id(3L).build();
         List<Comment> comments = List.of(first, second, third);
+        ItemBookingSummary summary = ItemBookingSummary.builder().itemId(item.getId()).build();
+        summary.setNext(next);
+        summary.setLast(last);
 
-        ItemInfoDto dto = mapper.itemToItemInfoDto(item, comments, next, last);
+        ItemInfoDto dto = mapper.itemToItemInfoDto(item, comments, summary);
 
         assertEquals(item.getId(), dto.getId());
         assertEquals(item.getName(), dto.getName());
         assertEquals(item.getDescription(), dto.getDescription());
         assertEquals(item.getAvailable(), dto.getAvailable());
         assertEquals(3, dto.getComments().size());
+        assertEquals(next.getId(), dto.getNextBooking().getId());
+        assertEquals(last.getId(), dto.getLastBooking().getId());
+        assertEquals(user.getId(), dto.getLastBooking().getBookerId());
     }
 
     @Test
@@ -109,7 +116,7 @@ class ItemMapperTest {
         Comment third = Comment.builder().id(3L).build();
         List<Comment> comments = List.of(first, second, third);
 
-        ItemInfoDto dto = mapper.itemToItemInfoDto(item, comments, null, null);
+        ItemInfoDto dto = mapper.itemToItemInfoDto(item, comments, null);
 
         assertEquals(item.getId(), dto.getId());
         assertEquals(item.getName(), dto.getName());
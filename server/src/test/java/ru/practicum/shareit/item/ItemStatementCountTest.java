@@ -0,0 +1,147 @@
+package ru.practicum.shareit.item;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.comment.Comment;
+import ru.practicum.shareit.comment.CommentRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Число SQL-запросов на чтение вещи по id не зависит от количества комментариев и их авторов.
+ * Запросы выполняются через MockMvc без общей транзакции, поэтому сущности сериализуются так же, как в приложении.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+class ItemStatementCountTest {
+    private static final LocalDateTime BASE = LocalDateTime.now().withNano(0);
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    private Statistics statistics;
+    private User owner;
+    private List<User> authors;
+    private Item item;
+
+    @BeforeEach
+    public void beforeEach() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        owner = userRepository.save(User.builder().name("owner").email("owner@items.com").build());
+        item = itemRepository.save(Item.builder()
+                .name("item")
+                .description("desc")
+                .available(true)
+                .owner(owner)
+                .build());
+        authors = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            User author = userRepository.save(User.builder().name("author" + i).email(i + "@items.com").build());
+            authors.add(author);
+            bookingRepository.save(Booking.builder()
+                    .item(item)
+                    .booker(author)
+                    .start(BASE.minusDays(10 - i))
+                    .end(BASE.minusDays(9 - i))
+                    .status(BookingStatus.APPROVED)
+                    .build());
+            commentRepository.save(Comment.builder()
+                    .item(item)
+                    .author(author)
+                    .text("comment" + i)
+                    .created(BASE.minusDays(5 - i))
+                    .build());
+        }
+        statistics.clear();
+    }
+
+    @AfterEach
+    public void afterEach() {
+        userService.deleteUsers();
+    }
+
+    private long statements() {
+        return statistics.getPrepareStatementCount();
+    }
+
+    @Test
+    public void getItemById_whenRequesterIsNotOwner_thenLoadItemAndCommentsInTwoStatements() throws Exception {
+        mvc.perform(get("/items/{itemId}", item.getId())
+                        .header("X-Sharer-User-Id", authors.get(0).getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.comments", hasSize(5)))
+                .andExpect(jsonPath("$.comments[0].authorName").value("author0"))
+                .andExpect(jsonPath("$.comments[4].authorName").value("author4"))
+                .andExpect(jsonPath("$.lastBooking").doesNotExist());
+
+        // вещь со сводкой и проверкой пользователя, комментарии с авторами
+        assertEquals(2, statements());
+    }
+
+    @Test
+    public void getItemById_whenSummaryIsActual_thenLoadItemAndCommentsInTwoStatements() throws Exception {
+        mvc.perform(get("/items/{itemId}", item.getId())
+                        .header("X-Sharer-User-Id", owner.getId()))
+                .andExpect(status().isOk());
+        statistics.clear();
+
+        mvc.perform(get("/items/{itemId}", item.getId())
+                        .header("X-Sharer-User-Id", owner.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.comments", hasSize(5)))
+                .andExpect(jsonPath("$.lastBooking.bookerId").value(authors.get(4).getId()))
+                .andExpect(jsonPath("$.nextBooking").doesNotExist());
+
+        // сводка уже построена первым чтением и не пересчитывается
+        assertEquals(2, statements());
+    }
+
+    @Test
+    public void getItemById_whenRequesterNotFound_thenReturnStatus404() throws Exception {
+        mvc.perform(get("/items/{itemId}", item.getId())
+                        .header("X-Sharer-User-Id", -1))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -6,12 +6,17 @@ import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabas
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 
 @DataJpaTest
 @AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
@@ -22,7 +27,7 @@ class ItemRepositoryTest {
     private ItemRepository itemRepository;
 
     @Test
-    public void findAllByNameOrDesc_whenDbIsFilled_thenReturnPageOfItems() {
+    public void findAvailableByNameOrDesc_whenDbIsFilled_thenReturnPageOfItems() {
         String searchString = "tEst";
         User user = entityManager.merge(User.builder().id(1L).name("test").email("test@com").build());
         Item first = Item.builder()
@@ -54,17 +59,101 @@ class ItemRepositoryTest {
         entityManager.merge(second);
         entityManager.merge(third);
 
-        List<Item> items = itemRepository.findAllByNameOrDesc(searchString, PageRequest.of(0, 10));
+        List<Item> items = itemRepository.findAvailableByNameOrDesc(searchString, 0, PageRequest.of(0, 10));
 
         assertEquals(3, items.size());
     }
 
     @Test
-    public void findAllByNameOrDesc_whenDbIsEmpty_thenReturnPageOfItems() {
-        List<Item> items = itemRepository.findAllByNameOrDesc("teset", PageRequest.of(0, 10));
+    public void findAvailableByNameOrDesc_whenDbIsEmpty_thenReturnPageOfItems() {
+        List<Item> items = itemRepository.findAvailableByNameOrDesc("teset", 0, PageRequest.of(0, 10));
 
         assertEquals(0, items.size());
     }
 
+    @Test
+    public void findAvailableByNameOrDesc_whenAfterIdIsGiven_thenReturnAvailableItemsAfterIt() {
+        User user = entityManager.merge(User.builder().id(1L).name("test").email("test@com").build());
+        Item first = entityManager.merge(Item.builder()
+                .owner(user)
+                .name("test")
+                .description("testDesc")
+                .available(true)
+                .build());
+        Item second = entityManager.merge(Item.builder()
+                .owner(user)
+                .name("test")
+                .description("unavailable")
+                .available(false)
+                .build());
+        Item third = entityManager.merge(Item.builder()
+                .owner(user)
+                .name("asd")
+                .description("test")
+                .available(true)
+                .build());
+        Item fourth = entityManager.merge(Item.builder()
+                .owner(user)
+                .name("testName")
+                .description("desc")
+                .available(true)
+                .build());
 
-}
\ No newline at end of file
+        List<Item> items = itemRepository.findAvailableByNameOrDesc("TEST", first.getId(), PageRequest.of(0, 10));
+
+        assertEquals(List.of(third.getId(), fourth.getId()),
+                items.stream().map(Item::getId).collect(Collectors.toList()));
+        assertFalse(items.contains(second));
+    }
+
+    @Test
+    public void findFreeByNameOrDesc_whenItemIsBookedInWindow_thenSkipIt() {
+        User owner = entityManager.merge(User.builder().id(1L).name("test").email("test@com").build());
+        User booker = entityManager.merge(User.builder().id(2L).name("test").email("test2@com").build());
+        Item booked = entityManager.merge(Item.builder()
+                .owner(owner)
+                .name("test")
+                .description("booked")
+                .available(true)
+                .build());
+        Item rejected = entityManager.merge(Item.builder()
+                .owner(owner)
+                .name("test")
+                .description("rejected")
+                .available(true)
+                .build());
+        Item free = entityManager.merge(Item.builder()
+                .owner(owner)
+                .name("test")
+                .description("free")
+                .available(true)
+                .build());
+        entityManager.merge(Booking.builder()
+                .booker(booker)
+                .item(booked)
+                .start(LocalDateTime.of(2030, 1, 1, 0, 0))
+                .end(LocalDateTime.of(2030, 1, 3, 0, 0))
+                .status(BookingStatus.APPROVED)
+                .build());
+        entityManager.merge(Booking.builder()
+                .booker(booker)
+                .item(rejected)
+                .start(LocalDateTime.of(2030, 1, 1, 0, 0))
+                .end(LocalDateTime.of(2030, 1, 3, 0, 0))
+                .status(BookingStatus.REJECTED)
+                .build());
+        entityManager.merge(Booking.builder()
+                .booker(booker)
+                .item(free)
+                .start(LocalDateTime.of(2030, 1, 3, 0, 0))
+                .end(LocalDateTime.of(2030, 1, 5, 0, 0))
+                .status(BookingStatus.WAITING)
+                .build());
+
+        List<Item> items = itemRepository.findFreeByNameOrDesc("test", 0,
+                LocalDateTime.of(2030, 1, 2, 0, 0), LocalDateTime.of(2030, 1, 3, 0, 0), PageRequest.of(0, 10));
+
+        assertEquals(List.of(rejected.getId(), free.getId()),
+                items.stream().map(Item::getId).collect(Collectors.toList()));
+    }
+}
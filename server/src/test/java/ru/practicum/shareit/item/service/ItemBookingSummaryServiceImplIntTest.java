@@ -0,0 +1,159 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+import ru.practicum.shareit.item.repository.ItemBookingSummaryRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest
+@Transactional
+class ItemBookingSummaryServiceImplIntTest {
+    private static final LocalDateTime NOW = LocalDateTime.now().withNano(0);
+
+    @Autowired
+    private ItemBookingSummaryService summaryService;
+
+    @Autowired
+    private ItemBookingSummaryRepository summaryRepository;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private User owner;
+    private User booker;
+    private Item item;
+
+    @BeforeEach
+    public void beforeEach() {
+        owner = userRepository.save(User.builder().name("owner").email("owner@summary.com").build());
+        booker = userRepository.save(User.builder().name("booker").email("booker@summary.com").build());
+        item = itemRepository.save(Item.builder().name("item").description("desc").available(true).owner(owner).build());
+    }
+
+    private Booking saveBooking(LocalDateTime start, BookingStatus status) {
+        return bookingRepository.save(Booking.builder()
+                .item(item)
+                .booker(booker)
+                .start(start)
+                .end(start.plusHours(1))
+                .status(status)
+                .build());
+    }
+
+    private long createBooking(LocalDateTime start) {
+        return bookingService.createBooking(BookingCreateDto.builder()
+                .itemId(item.getId())
+                .start(start)
+                .end(start.plusHours(1))
+                .build(), booker.getId()).getId();
+    }
+
+    private ItemBookingSummary stored() {
+        return summaryRepository.findById(item.getId()).orElseThrow();
+    }
+
+    @Test
+    public void getSummary_whenSummaryIsMissing_thenBuildAndSaveIt() {
+        Booking last = saveBooking(NOW.minusDays(2), BookingStatus.APPROVED);
+        saveBooking(NOW.minusDays(1), BookingStatus.WAITING);
+        Booking next = saveBooking(NOW.plusDays(1), BookingStatus.WAITING);
+        saveBooking(NOW.plusHours(1), BookingStatus.REJECTED);
+
+        ItemBookingSummary summary = summaryService.getSummary(item.getId());
+
+        assertEquals(last.getId(), summary.getLastBookingId());
+        assertEquals(booker.getId(), summary.getLastBookerId());
+        assertEquals(next.getId(), summary.getNextBookingId());
+        assertEquals(next.getId(), stored().getNextBookingId());
+    }
+
+    @Test
+    public void onCreated_whenBookingStartsBeforeNext_thenBecomeNext() {
+        long later = createBooking(NOW.plusDays(2));
+        assertEquals(later, summaryService.getSummary(item.getId()).getNextBookingId());
+
+        long earlier = createBooking(NOW.plusDays(1));
+        createBooking(NOW.plusDays(3));
+
+        assertEquals(earlier, stored().getNextBookingId());
+    }
+
+    @Test
+    public void onApproved_whenBookingHasStarted_thenBecomeLast() {
+        Booking started = saveBooking(NOW.minusHours(1), BookingStatus.WAITING);
+        saveBooking(NOW.minusDays(1), BookingStatus.APPROVED);
+        summaryService.getSummary(item.getId());
+
+        bookingService.approveBooking(started.getId(), true, owner.getId());
+
+        assertEquals(started.getId(), stored().getLastBookingId());
+    }
+
+    @Test
+    public void onRejected_whenNextBookingIsRejected_thenUseFollowingBooking() {
+        long first = createBooking(NOW.plusDays(1));
+        long second = createBooking(NOW.plusDays(2));
+        assertEquals(first, summaryService.getSummary(item.getId()).getNextBookingId());
+
+        bookingService.approveBooking(first, false, owner.getId());
+
+        assertEquals(second, stored().getNextBookingId());
+    }
+
+    @Test
+    public void getSummary_whenNextBookingHasStarted_thenRecompute() {
+        Booking next = saveBooking(NOW.plusDays(1), BookingStatus.APPROVED);
+        summaryService.getSummary(item.getId());
+        // время идет: бронирование началось, а сводка все еще считает его ближайшим
+        next.setStart(NOW.minusMinutes(1));
+        stored().setNextStart(NOW.minusMinutes(1));
+
+        ItemBookingSummary summary = summaryService.getSummary(item.getId());
+
+        assertEquals(next.getId(), summary.getLastBookingId());
+        assertNull(summary.getNextBookingId());
+    }
+
+    @Test
+    public void getSummary_whenLastBookingIsDeleted_thenRecompute() {
+        Booking previous = saveBooking(NOW.minusDays(2), BookingStatus.APPROVED);
+        Booking last = saveBooking(NOW.minusDays(1), BookingStatus.APPROVED);
+        assertEquals(last.getId(), summaryService.getSummary(item.getId()).getLastBookingId());
+
+        bookingRepository.deleteById(last.getId());
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(previous.getId(), summaryService.getSummary(item.getId()).getLastBookingId());
+    }
+}
@@ -0,0 +1,191 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.exception.model.ItemImportException;
+import ru.practicum.shareit.exception.model.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemImportErrorDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.io.StringReader;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Пачки сохраняются в собственных транзакциях, поэтому данные удаляются после каждого теста.
+ */
+@SpringBootTest(properties = {
+        "shareit.item.import.batch-size=2",
+        "shareit.item.import.max-errors=2",
+        "shareit.item.import.max-row-length=100"
+})
+class ItemImportServiceImplIntTest {
+
+    @Autowired
+    private ItemImportService importService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ItemRequestRepository requestRepository;
+
+    private User owner;
+
+    @BeforeEach
+    public void beforeEach() {
+        owner = userRepository.save(User.builder().name("owner").email("owner@import.com").build());
+    }
+
+    @AfterEach
+    public void afterEach() {
+        userService.deleteUsers();
+    }
+
+    private List<String> ownerItemNames() {
+        return itemRepository.findAll().stream()
+                .filter(item -> item.getOwner().getId().equals(owner.getId()))
+                .map(Item::getName)
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    public void importItems_whenNdjsonRowsAreCorrect_thenSaveAllInBatches() {
+        String body = "{\"name\":\"drill\",\"description\":\"desc\",\"available\":true}\n" +
+                "{\"name\":\"saw\",\"description\":\"desc\",\"available\":true}\n" +
+                "\n" +
+                "{\"name\":\"hammer\",\"description\":\"desc\",\"available\":true}\n";
+
+        ItemImportResultDto result = importService.importItems(new StringReader(body), ItemImportFormat.NDJSON,
+                owner.getId());
+
+        assertEquals(3, result.getCreated());
+        assertEquals(0, result.getFailed());
+        assertEquals(List.of("drill", "hammer", "saw"), ownerItemNames());
+    }
+
+    @Test
+    public void importItems_whenRowIsTooLong_thenStopWithLineNumberAndKeepSavedBatches() {
+        String body = "{\"name\":\"drill\",\"description\":\"desc\",\"available\":true}\r\n" +
+                "{\"name\":\"saw\",\"description\":\"desc\",\"available\":true}\r\n" +
+                "{\"name\":\"hammer\",\"description\":\"desc\",\"available\":true}\r\n" +
+                "{\"name\":\"" + "x".repeat(100_000);
+
+        Throwable throwable = assertThrows(ItemImportException.class, () -> importService.importItems(
+                new StringReader(body), ItemImportFormat.NDJSON, owner.getId()));
+
+        assertEquals("Строка 4 длиннее 100 символов, загрузка прервана", throwable.getMessage());
+        assertEquals(List.of("drill", "saw"), ownerItemNames());
+    }
+
+    @Test
+    public void importItems_whenSomeRowsAreIncorrect_thenSaveOthersAndReportLines() {
+        ItemRequest request = requestRepository.save(ItemRequest.builder()
+                .owner(owner)
+                .description("request")
+                .created(LocalDateTime.now())
+                .build());
+        String body = "{\"name\":\"drill\",\"description\":\"desc\",\"available\":true,\"requestId\":" +
+                request.getId() + "}\n" +
+                "{\"name\":\"\",\"description\":\"desc\",\"available\":true}\n" +
+                "not json\n" +
+                "{\"name\":\"saw\",\"description\":\"desc\",\"available\":true,\"requestId\":" +
+                (request.getId() + 1000) + "}\n";
+
+        ItemImportResultDto result = importService.importItems(new StringReader(body), ItemImportFormat.NDJSON,
+                owner.getId());
+
+        assertEquals(1, result.getCreated());
+        assertEquals(3, result.getFailed());
+        // описаний ошибок не больше shareit.item.import.max-errors
+        assertEquals(2, result.getErrors().size());
+        assertEquals(new ItemImportErrorDto(2, "Название предмета не может быть пустым"), result.getErrors().get(0));
+        assertEquals(3, result.getErrors().get(1).getLine());
+        assertEquals(List.of("drill"), ownerItemNames());
+        assertEquals(1, itemRepository.findAllByRequestId(request.getId()).size());
+    }
+
+    @Test
+    public void importItems_whenNdjsonRowIsNotSingleObject_thenReportLinesAndSaveOthers() {
+        String body = "{\"name\":\"drill\",\"description\":\"desc\",\"available\":true}\n" +
+                "null\n" +
+                "{\"name\":\"x\",\"description\":\"d\",\"available\":true} " +
+                "{\"name\":\"y\",\"description\":\"d\",\"available\":true}\n" +
+                "{\"name\":\"hammer\",\"description\":\"desc\",\"available\":true}\n";
+
+        ItemImportResultDto result = importService.importItems(new StringReader(body), ItemImportFormat.NDJSON,
+                owner.getId());
+
+        assertEquals(2, result.getCreated());
+        assertEquals(2, result.getFailed());
+        assertEquals(new ItemImportErrorDto(2, "Некорректный JSON: ожидается объект"), result.getErrors().get(0));
+        assertEquals(3, result.getErrors().get(1).getLine());
+        assertEquals(List.of("drill", "hammer"), ownerItemNames());
+    }
+
+    @Test
+    public void importItems_whenCsvHasQuotedValues_thenSaveItems() {
+        String body = "name,description,available,requestId\n" +
+                "\"drill, cordless\",\"says \"\"brrr\"\"\",true,\n" +
+                "saw,desc,false,\n" +
+                "hammer,desc,true,\n";
+
+        ItemImportResultDto result = importService.importItems(new StringReader(body), ItemImportFormat.CSV,
+                owner.getId());
+
+        assertEquals(2, result.getCreated());
+        assertEquals(List.of(new ItemImportErrorDto(3, "Новая вещь должна быть доступна для бронирования")),
+                result.getErrors());
+        assertEquals(List.of("drill, cordless", "hammer"), ownerItemNames());
+        assertEquals("says \"brrr\"", itemRepository.findAll().stream()
+                .filter(item -> item.getName().equals("drill, cordless"))
+                .findFirst()
+                .orElseThrow()
+                .getDescription());
+    }
+
+    @Test
+    public void importItems_whenCsvHeaderMissesColumns_thenReportHeaderAndStop() {
+        String body = "name,available\n" +
+                "drill,true\n";
+
+        ItemImportResultDto result = importService.importItems(new StringReader(body), ItemImportFormat.CSV,
+                owner.getId());
+
+        assertEquals(0, result.getCreated());
+        assertEquals(1, result.getFailed());
+        assertEquals(1, result.getErrors().get(0).getLine());
+        assertEquals(List.of(), ownerItemNames());
+    }
+
+    @Test
+    public void importItems_whenOwnerNotFound_thenThrowNotFoundException() {
+        long ownerId = owner.getId() + 1000;
+
+        Throwable throwable = assertThrows(NotFoundException.class, () -> importService.importItems(
+                new StringReader(""), ItemImportFormat.NDJSON, ownerId));
+
+        assertEquals("Пользователь с id = " + ownerId + " не найден", throwable.getMessage());
+    }
+}
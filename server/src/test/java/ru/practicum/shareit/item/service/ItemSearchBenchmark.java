@@ -0,0 +1,182 @@
+package ru.practicum.shareit.item.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.booking.availability.IndexBookingAvailability;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнение LIKE-запроса к H2 и поиска по индексу триграмм на одном наборе данных,
+ * а также стоимость правки вещи в индексе триграмм: удаление и добавление id в середину списков частых триграмм.
+ * Запуск: mvn -pl server -P benchmark -DskipTests -Dbenchmark=ItemSearchBenchmark test
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemSearchBenchmark {
+    private static final String[] NAMES = {"Дрель", "Отвертка", "Лестница", "Палатка", "Велосипед", "Перфоратор",
+        "Лодка", "Шуруповерт", "Рюкзак", "Пила", "Стремянка", "Самокат", "Проектор", "Гриль", "Удочка"};
+    private static final String[] WORDS = {"ударная", "аккумуляторная", "складная", "туристическая", "горный",
+        "легкая", "надувная", "мощный", "походный", "электрическая", "компактный", "детский", "новая", "прочная",
+        "с кейсом", "без зарядки", "для дачи", "на 4 места", "с насадками", "почти новая"};
+    private static final int PAGE_SIZE = 10;
+
+    @Param({"100000"})
+    public int itemCount;
+
+    @Param({"дрел", "ладк", "аккумулятор", "кейс"})
+    public String query;
+
+    private Connection connection;
+    private PreparedStatement likeStatement;
+    private TrigramItemSearchEngine trigramEngine;
+    private List<Item> updated;
+    private int nextUpdated;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:benchmark;MODE=PostgreSQL", "test", "test");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create table items (id bigint primary key, name varchar not null, " +
+                    "description varchar not null, available boolean not null)");
+        }
+        trigramEngine = new TrigramItemSearchEngine(jdbcItemRepository(), new IndexBookingAvailability(null));
+
+        Random random = new Random(42);
+        updated = new ArrayList<>();
+        try (PreparedStatement insert = connection.prepareStatement(
+                "insert into items (id, name, description, available) values (?, ?, ?, ?)")) {
+            for (long id = 1; id <= itemCount; id++) {
+                Item item = Item.builder()
+                        .id(id)
+                        .name(NAMES[random.nextInt(NAMES.length)])
+                        .description(WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)])
+                        .available(true)
+                        .build();
+                insert.setLong(1, item.getId());
+                insert.setString(2, item.getName());
+                insert.setString(3, item.getDescription());
+                insert.setBoolean(4, item.getAvailable());
+                insert.addBatch();
+                trigramEngine.index(item);
+                if (id % 1000 == 0) {
+                    updated.add(item);
+                }
+            }
+            insert.executeBatch();
+        }
+        trigramEngine.afterRebuild();
+
+        likeStatement = connection.prepareStatement("select id, name, description, available from items " +
+                "where available = true " +
+                "and (upper(name) like upper(concat('%', ?, '%')) " +
+                "or upper(description) like upper(concat('%', ?, '%'))) " +
+                "order by id limit " + PAGE_SIZE);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        likeStatement.close();
+        connection.close();
+    }
+
+    @Benchmark
+    public List<Item> like() throws SQLException {
+        likeStatement.setString(1, query);
+        likeStatement.setString(2, query);
+        try (ResultSet resultSet = likeStatement.executeQuery()) {
+            return readItems(resultSet);
+        }
+    }
+
+    @Benchmark
+    public List<Item> trigram() {
+        return trigramEngine.search(query, 0, PageRequest.of(0, PAGE_SIZE));
+    }
+
+    @Benchmark
+    public void trigramUpdate() {
+        Item item = updated.get(nextUpdated++ % updated.size());
+        trigramEngine.remove(item);
+        trigramEngine.index(item);
+    }
+
+    private ItemRepository jdbcItemRepository() {
+        return (ItemRepository) Proxy.newProxyInstance(ItemRepository.class.getClassLoader(),
+                new Class<?>[]{ItemRepository.class},
+                (proxy, method, args) -> {
+                    if (!method.getName().equals("findAllById")) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    return findAllById((Iterable<?>) args[0]);
+                });
+    }
+
+    private List<Item> findAllById(Iterable<?> ids) throws SQLException {
+        List<Object> params = new ArrayList<>();
+        ids.forEach(params::add);
+        if (params.isEmpty()) {
+            return new ArrayList<>();
+        }
+        StringBuilder sql = new StringBuilder("select id, name, description, available from items where id in (?");
+        sql.append(", ?".repeat(params.size() - 1)).append(")");
+        try (PreparedStatement statement = connection.prepareStatement(sql.toString())) {
+            for (int i = 0; i < params.size(); i++) {
+                statement.setLong(i + 1, (Long) params.get(i));
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return readItems(resultSet);
+            }
+        }
+    }
+
+    private List<Item> readItems(ResultSet resultSet) throws SQLException {
+        List<Item> items = new ArrayList<>();
+        while (resultSet.next()) {
+            items.add(Item.builder()
+                    .id(resultSet.getLong("id"))
+                    .name(resultSet.getString("name"))
+                    .description(resultSet.getString("description"))
+                    .available(resultSet.getBoolean("available"))
+                    .build());
+        }
+        return items;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ItemSearchBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
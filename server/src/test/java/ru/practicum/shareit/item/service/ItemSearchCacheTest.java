@@ -0,0 +1,149 @@
+package ru.practicum.shareit.item.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ItemSearchCacheTest {
+    SimpleMeterRegistry meterRegistry;
+    ItemSearchCache cache;
+    AtomicInteger loads;
+
+    @BeforeEach
+    public void beforeEach() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new ItemSearchCache(100, Duration.ofMinutes(5), meterRegistry);
+        loads = new AtomicInteger();
+    }
+
+    private Supplier<List<ItemDto>> loader() {
+        return () -> {
+            loads.incrementAndGet();
+            return List.of(ItemDto.builder().id(1L).name("Дрель").build());
+        };
+    }
+
+    private Item item(String name, String description, boolean available) {
+        return Item.builder().id(10L).name(name).description(description).available(available).build();
+    }
+
+    @Test
+    public void get_whenSameQueryTwice_thenLoadOnce() {
+        cache.get("дрель", 0, PageRequest.of(0, 10), loader());
+        List<ItemDto> result = cache.get("дрель", 0, PageRequest.of(0, 10), loader());
+
+        assertEquals(1, result.size());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void get_whenPageDiffers_thenLoadAgain() {
+        cache.get("дрель", 0, PageRequest.of(0, 10), loader());
+        cache.get("дрель", 0, PageRequest.of(1, 10), loader());
+        cache.get("дрель", 5, PageRequest.of(0, 10), loader());
+
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    public void invalidate_whenItemMatchesQuery_thenReloadOnlyThisQuery() {
+        cache.get("дрель", 0, PageRequest.of(0, 10), loader());
+        cache.get("лодка", 0, PageRequest.of(0, 10), loader());
+
+        cache.invalidate(List.of(item("Ударная ДРЕЛЬ", "800 Вт", true)));
+        cache.get("дрель", 0, PageRequest.of(0, 10), loader());
+        cache.get("лодка", 0, PageRequest.of(0, 10), loader());
+
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    public void invalidate_whenItemIsUnavailable_thenKeepCache() {
+        cache.get("дрель", 0, PageRequest.of(0, 10), loader());
+
+        cache.invalidate(List.of(item("Дрель", "800 Вт", false)));
+        cache.get("дрель", 0, PageRequest.of(0, 10), loader());
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void invalidate_whenQueryHasWildcards_thenInvalidateByWords() {
+        cache.get("др_ль%вт", 0, PageRequest.of(0, 10), loader());
+
+        cache.invalidate(List.of(item("Дрель", "800 Вт", true)));
+        cache.get("др_ль%вт", 0, PageRequest.of(0, 10), loader());
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void invalidate_whenQueryWordsDifferInLength_thenInvalidateEveryMatchingQuery() {
+        cache.get("вт дрель", 0, PageRequest.of(0, 10), loader());
+        cache.get("ль", 0, PageRequest.of(0, 10), loader());
+        cache.get("%", 0, PageRequest.of(0, 10), loader());
+        cache.get("дрель пила", 0, PageRequest.of(0, 10), loader());
+
+        cache.invalidate(List.of(item("Дрель", "800 Вт", true)));
+        cache.get("вт дрель", 0, PageRequest.of(0, 10), loader());
+        cache.get("ль", 0, PageRequest.of(0, 10), loader());
+        cache.get("%", 0, PageRequest.of(0, 10), loader());
+        cache.get("дрель пила", 0, PageRequest.of(0, 10), loader());
+
+        assertEquals(7, loads.get());
+    }
+
+    @Test
+    public void invalidate_whenInTransaction_thenInvalidateAfterCommit() {
+        cache.get("дрель", 0, PageRequest.of(0, 10), loader());
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.invalidate(List.of(item("Дрель", "800 Вт", true)));
+            cache.get("дрель", 0, PageRequest.of(0, 10), loader());
+            assertEquals(1, loads.get());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        cache.get("дрель", 0, PageRequest.of(0, 10), loader());
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void invalidateAll_whenCalled_thenReloadAllQueries() {
+        cache.get("дрель", 0, PageRequest.of(0, 10), loader());
+        cache.get("лодка", 0, PageRequest.of(0, 10), loader());
+
+        cache.invalidateAll();
+        cache.get("дрель", 0, PageRequest.of(0, 10), loader());
+        cache.get("лодка", 0, PageRequest.of(0, 10), loader());
+
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    public void get_whenCalled_thenRecordMetrics() {
+        cache.get("дрель", 0, PageRequest.of(0, 10), loader());
+        cache.get("дрель", 0, PageRequest.of(0, 10), loader());
+
+        assertEquals(1.0, meterRegistry.get("cache.gets")
+                .tag("cache", ItemSearchCache.CACHE_NAME).tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets")
+                .tag("cache", ItemSearchCache.CACHE_NAME).tag("result", "miss").functionCounter().count());
+    }
+}
@@ -0,0 +1,153 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+import ru.practicum.shareit.item.repository.ItemBookingSummaryRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Параллельное построение сводок бронирований при чтении вещей: транзакции коммитятся,
+ * поэтому данные удаляются после каждого теста.
+ */
+@SpringBootTest
+class ItemServiceImplConcurrencyTest {
+    private static final int THREADS = 16;
+    private static final LocalDateTime BASE = LocalDateTime.now().plusDays(1).withNano(0);
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemBookingSummaryRepository summaryRepository;
+
+    private ExecutorService executor;
+    private User owner;
+    private List<User> bookers;
+
+    @BeforeEach
+    public void beforeEach() {
+        executor = Executors.newFixedThreadPool(THREADS);
+        owner = userRepository.save(User.builder().name("owner").email("owner@summaries.com").build());
+        bookers = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            bookers.add(userRepository.save(User.builder().name("booker").email(i + "@summaries.com").build()));
+        }
+    }
+
+    @AfterEach
+    public void afterEach() throws InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+        userService.deleteUsers();
+    }
+
+    private Item saveItem() {
+        return itemRepository.save(Item.builder().name("item").description("desc").available(true).owner(owner).build());
+    }
+
+    private <T> List<T> runConcurrently(List<Callable<T>> tasks) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<T>> futures = new ArrayList<>();
+        for (Callable<T> task : tasks) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return task.call();
+            }));
+        }
+        start.countDown();
+        List<T> results = new ArrayList<>();
+        for (Future<T> future : futures) {
+            results.add(future.get(60, TimeUnit.SECONDS));
+        }
+        return results;
+    }
+
+    @Test
+    public void getItemById_whenSummaryIsBuiltConcurrently_thenAllReadsSucceed() throws Exception {
+        Item item = saveItem();
+        Booking next = bookingRepository.save(Booking.builder()
+                .item(item)
+                .booker(bookers.get(0))
+                .start(BASE)
+                .end(BASE.plusHours(1))
+                .status(BookingStatus.WAITING)
+                .build());
+        List<Callable<ItemDto>> tasks = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            tasks.add(() -> itemService.getItemById(item.getId(), owner.getId()));
+        }
+
+        List<ItemDto> results = runConcurrently(tasks);
+
+        for (ItemDto result : results) {
+            assertEquals(next.getId(), result.getNextBooking().getId());
+        }
+        assertEquals(next.getId(), summaryRepository.findById(item.getId()).orElseThrow().getNextBookingId());
+    }
+
+    @Test
+    public void getItemById_whenBookingsAreCreatedConcurrently_thenSummaryKeepsEarliestBooking() throws Exception {
+        for (int round = 0; round < 5; round++) {
+            Item item = saveItem();
+            List<Callable<Long>> tasks = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                User booker = bookers.get(i);
+                int hour = i * 2;
+                tasks.add(() -> bookingService.createBooking(BookingCreateDto.builder()
+                        .itemId(item.getId())
+                        .start(BASE.plusHours(hour))
+                        .end(BASE.plusHours(hour + 1))
+                        .build(), booker.getId()).getId());
+                tasks.add(() -> itemService.getItemById(item.getId(), owner.getId()).getId());
+            }
+
+            List<Long> results = runConcurrently(tasks);
+
+            // первое бронирование начинается раньше остальных и должно остаться ближайшим в сводке
+            ItemBookingSummary summary = summaryRepository.findById(item.getId()).orElseThrow();
+            assertEquals(results.get(0), summary.getNextBookingId());
+            assertEquals(results.get(0), itemService.getItemById(item.getId(), owner.getId()).getNextBooking().getId());
+        }
+    }
+}
@@ -133,7 +133,7 @@ class ItemServiceImplIntTest {
                 .owner(owner)
                 .build());
 
-        List<ItemInfoDto> itemsByOwnerId = itemService.getItemsByOwnerId(owner.getId(), PageRequest.of(0, 10));
+        List<ItemInfoDto> itemsByOwnerId = itemService.getItemsByOwnerId(owner.getId(), 0, PageRequest.of(0, 10));
 
         assertNotNull(itemsByOwnerId);
         assertFalse(itemsByOwnerId.isEmpty());
@@ -165,7 +165,7 @@ class ItemServiceImplIntTest {
                 .owner(owner)
                 .build());
 
-        List<ItemDto> itemsByNameOrDesc = itemService.getItemsByNameOrDesc("nam", PageRequest.of(0, 10));
+        List<ItemDto> itemsByNameOrDesc = itemService.getItemsByNameOrDesc("nam", 0, PageRequest.of(0, 10));
 
         assertNotNull(itemsByNameOrDesc);
         assertFalse(itemsByNameOrDesc.isEmpty());
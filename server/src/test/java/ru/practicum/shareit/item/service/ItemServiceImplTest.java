@@ -1,72 +1,109 @@
 package ru.practicum.shareit.item.service;
 
 import com.querydsl.core.types.dsl.BooleanExpression;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
-import ru.practicum.shareit.booking.BookingMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.availability.BookingAvailability;
+import ru.practicum.shareit.booking.availability.BookingInterval;
 import ru.practicum.shareit.booking.model.Booking;
-import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.ItemBookingView;
 import ru.practicum.shareit.comment.Comment;
 import ru.practicum.shareit.comment.CommentMapper;
 import ru.practicum.shareit.comment.CommentRepository;
+import ru.practicum.shareit.exception.model.BookingException;
 import ru.practicum.shareit.exception.model.NotFoundException;
 import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemCreateDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemInfoDto;
 import ru.practicum.shareit.item.dto.ItemUpdateDto;
+import ru.practicum.shareit.item.dto.PeriodDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+import ru.practicum.shareit.item.repository.ItemBookingSummaryRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserDirectory;
 
+import javax.persistence.EntityManager;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class ItemServiceImplTest {
     ItemRepository itemRepository;
     UserRepository userRepository;
     BookingRepository bookingRepository;
+    ItemBookingSummaryRepository summaryRepository;
     CommentRepository commentRepository;
     ItemRequestRepository requestRepository;
     ItemServiceImpl itemService;
     ItemMapper mapper;
-    BookingMapper bookingMapper;
     CommentMapper commentMapper;
+    BookingAvailability bookingAvailability;
+    PlatformTransactionManager transactionManager;
 
     @BeforeEach
     public void beforeEach() {
         itemRepository = mock(ItemRepository.class);
         userRepository = mock(UserRepository.class);
         bookingRepository = mock(BookingRepository.class);
+        summaryRepository = mock(ItemBookingSummaryRepository.class);
         commentRepository = mock(CommentRepository.class);
         requestRepository = mock(ItemRequestRepository.class);
         mapper = new ItemMapper();
-        bookingMapper = new BookingMapper();
         commentMapper = new CommentMapper();
+        bookingAvailability = mock(BookingAvailability.class);
+        transactionManager = mock(PlatformTransactionManager.class);
         itemService = new ItemServiceImpl(itemRepository,
                 userRepository,
-                bookingRepository,
+                new UserDirectory(userRepository, 100, Duration.ofMinutes(1), new SimpleMeterRegistry()),
                 commentRepository,
                 requestRepository,
                 mapper,
-                bookingMapper,
-                commentMapper);
+                commentMapper,
+                new LikeItemSearchEngine(itemRepository),
+                new ItemSearchCache(100, Duration.ofMinutes(5), new SimpleMeterRegistry()),
+                bookingAvailability,
+                new ItemBookingSummaryServiceImpl(summaryRepository, bookingRepository, mock(EntityManager.class),
+                        new TransactionTemplate(transactionManager)),
+                transactionManager);
+        // блокировка возвращает сводки всех запрошенных вещей, отсутствующие к этому моменту уже вставлены
+        when(summaryRepository.lockAllByItemIds(anyCollection())).thenAnswer(invocation ->
+                invocation.<Collection<Long>>getArgument(0).stream()
+                        .map(itemId -> ItemBookingSummary.builder().itemId(itemId).build())
+                        .collect(Collectors.toList()));
     }
 
     void assertEqualItem(ItemDto o1, ItemDto o2) {
@@ -75,6 +112,30 @@ class ItemServiceImplTest {
         assertEquals(o1.getDescription(), o2.getDescription());
     }
 
+    ItemBookingView view(Booking booking, long itemId) {
+        return new ItemBookingView() {
+            @Override
+            public Long getId() {
+                return booking.getId();
+            }
+
+            @Override
+            public Long getItemId() {
+                return itemId;
+            }
+
+            @Override
+            public Long getBookerId() {
+                return booking.getBooker().getId();
+            }
+
+            @Override
+            public LocalDateTime getStart() {
+                return booking.getStart();
+            }
+        };
+    }
+
     @Test
     public void createItem_whenItemIsValidWithNoRequestId_thenReturnNewItem() {
         User expectedUser = User.builder()
@@ -91,7 +152,7 @@ class ItemServiceImplTest {
                 .description("description")
                 .available(true)
                 .build();
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(expectedUser));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
         when(itemRepository.save(any())).thenReturn(expectedItem);
 
         ItemDto actual = itemService.createItem(dto, expectedUser.getId());
@@ -118,7 +179,7 @@ class ItemServiceImplTest {
                 .available(true)
                 .requestId(request.getId())
                 .build();
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(expectedUser));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
         when(requestRepository.findById(request.getId())).thenReturn(Optional.of(request));
         when(itemRepository.save(any())).thenReturn(expectedItem);
 
@@ -139,7 +200,7 @@ class ItemServiceImplTest {
                 .description("description")
                 .available(true)
                 .build();
-        when(userRepository.findById(expectedUser.getId())).thenReturn(Optional.of(expectedUser));
+        when(userRepository.existsById(expectedUser.getId())).thenReturn(true);
         when(requestRepository.findById(any())).thenReturn(Optional.empty());
         String expectedResponse = "Запроса с id = 1 не существует";
 
@@ -156,7 +217,7 @@ class ItemServiceImplTest {
                 .available(true)
                 .build();
         String expectedResponse = "Пользователь с id = 5 не найден";
-        when(userRepository.findById(5L)).thenReturn(Optional.empty());
+        when(userRepository.existsById(5L)).thenReturn(false);
 
         Throwable throwable = assertThrows(NotFoundException.class, () -> itemService.createItem(item, 5));
 
@@ -307,25 +368,16 @@ class ItemServiceImplTest {
                 .available(true)
                 .owner(owner)
                 .build();
-        when(userRepository.findById(owner.getId())).thenReturn(Optional.of(owner));
-        when(commentRepository.findAllByItemId(item.getId(),
-                Sort.by(Sort.Direction.ASC, "created"))).thenReturn(Collections.emptyList());
-        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+        when(commentRepository.findAllWithAuthorByItemId(item.getId())).thenReturn(Collections.emptyList());
+        when(itemRepository.findWithSummaryById(item.getId(), owner.getId()))
+                .thenReturn(List.<Object[]>of(new Object[]{item, null, owner.getId()}));
         when(bookingRepository
                 .findFirstBy(any(BooleanExpression.class),
                         any(Sort.class))).thenReturn(Optional.empty());
-        when(bookingRepository
-                .findFirstByItemIdAndStartBeforeAndStatusIs(anyLong(),
-                        any(LocalDateTime.class),
-                        any(BookingStatus.class),
-                        any(Sort.class)))
-                .thenReturn(Optional.empty());
-        when(bookingRepository
-                .findFirstByItemIdAndStartAfterAndStatusIsNot(anyLong(),
-                        any(LocalDateTime.class),
-                        any(BookingStatus.class),
-                        any(Sort.class)))
-                .thenReturn(Optional.empty());
+        when(bookingRepository.findLastApprovedByItemIds(anyCollection(), any(LocalDateTime.class)))
+                .thenReturn(Collections.emptyList());
+        when(bookingRepository.findNextNotRejectedByItemIds(anyCollection(), any(LocalDateTime.class)))
+                .thenReturn(Collections.emptyList());
 
         ItemDto actualItem = itemService.getItemById(item.getId(), owner.getId());
 
@@ -345,22 +397,13 @@ class ItemServiceImplTest {
         Booking last = Booking.builder().id(1L).booker(User.builder().id(2L).build()).build();
         Booking next = Booking.builder().id(2L).booker(User.builder().id(2L).build()).build();
         Comment comment = Comment.builder().id(1L).author(User.builder().name("author").build()).build();
-        when(userRepository.findById(owner.getId())).thenReturn(Optional.of(owner));
-        when(commentRepository.findAllByItemId(item.getId(),
-                Sort.by(Sort.Direction.ASC, "created"))).thenReturn(List.of(comment));
-        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
-        when(bookingRepository
-                .findFirstByItemIdAndStartBeforeAndStatusIs(anyLong(),
-                        any(LocalDateTime.class),
-                        any(BookingStatus.class),
-                        any(Sort.class)))
-                .thenReturn(Optional.of(last));
-        when(bookingRepository
-                .findFirstByItemIdAndStartAfterAndStatusIsNot(anyLong(),
-                        any(LocalDateTime.class),
-                        any(BookingStatus.class),
-                        any(Sort.class)))
-                .thenReturn(Optional.of(next));
+        when(commentRepository.findAllWithAuthorByItemId(item.getId())).thenReturn(List.of(comment));
+        when(itemRepository.findWithSummaryById(item.getId(), owner.getId()))
+                .thenReturn(List.<Object[]>of(new Object[]{item, null, owner.getId()}));
+        when(bookingRepository.findLastApprovedByItemIds(anyCollection(), any(LocalDateTime.class)))
+                .thenReturn(List.of(view(last, item.getId())));
+        when(bookingRepository.findNextNotRejectedByItemIds(anyCollection(), any(LocalDateTime.class)))
+                .thenReturn(List.of(view(next, item.getId())));
 
         ItemDto actualItem = itemService.getItemById(item.getId(), owner.getId());
 
@@ -381,22 +424,13 @@ class ItemServiceImplTest {
                 .build();
         Booking last = Booking.builder().id(1L).booker(User.builder().id(2L).build()).build();
         Booking next = Booking.builder().id(2L).booker(User.builder().id(2L).build()).build();
-        when(userRepository.findById(owner.getId())).thenReturn(Optional.of(owner));
-        when(commentRepository.findAllByItemId(item.getId(),
-                Sort.by(Sort.Direction.ASC, "created"))).thenReturn(Collections.emptyList());
-        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
-        when(bookingRepository
-                .findFirstByItemIdAndStartBeforeAndStatusIs(anyLong(),
-                        any(LocalDateTime.class),
-                        any(BookingStatus.class),
-                        any(Sort.class)))
-                .thenReturn(Optional.of(last));
-        when(bookingRepository
-                .findFirstByItemIdAndStartAfterAndStatusIsNot(anyLong(),
-                        any(LocalDateTime.class),
-                        any(BookingStatus.class),
-                        any(Sort.class)))
-                .thenReturn(Optional.of(next));
+        when(commentRepository.findAllWithAuthorByItemId(item.getId())).thenReturn(Collections.emptyList());
+        when(itemRepository.findWithSummaryById(item.getId(), owner.getId()))
+                .thenReturn(List.<Object[]>of(new Object[]{item, null, owner.getId()}));
+        when(bookingRepository.findLastApprovedByItemIds(anyCollection(), any(LocalDateTime.class)))
+                .thenReturn(List.of(view(last, item.getId())));
+        when(bookingRepository.findNextNotRejectedByItemIds(anyCollection(), any(LocalDateTime.class)))
+                .thenReturn(List.of(view(next, item.getId())));
 
         ItemDto actualItem = itemService.getItemById(item.getId(), owner.getId());
 
@@ -416,10 +450,9 @@ class ItemServiceImplTest {
                 .available(true)
                 .owner(owner)
                 .build();
-        when(userRepository.findById(requester.getId())).thenReturn(Optional.of(requester));
-        when(commentRepository.findAllByItemId(item.getId(),
-                Sort.by(Sort.Direction.ASC, "created"))).thenReturn(Collections.emptyList());
-        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+        when(commentRepository.findAllWithAuthorByItemId(item.getId())).thenReturn(Collections.emptyList());
+        when(itemRepository.findWithSummaryById(item.getId(), requester.getId()))
+                .thenReturn(List.<Object[]>of(new Object[]{item, null, requester.getId()}));
 
         ItemDto actualItem = itemService.getItemById(item.getId(), requester.getId());
 
@@ -431,7 +464,7 @@ class ItemServiceImplTest {
     public void getItemById_whenItemNotFound_thenReturnItemNotFoundException() {
         String expectedResponse = "объект с id = 3 не найден";
         User user = User.builder().id(1L).build();
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(userRepository.existsById(1L)).thenReturn(true);
 
         Throwable throwable = assertThrows(NotFoundException.class, () -> itemService.getItemById(3L, 1L));
 
@@ -441,7 +474,19 @@ class ItemServiceImplTest {
     @Test
     public void getItemById_whenRequesterNotFound_thenThrowNotFoundException() {
         String expectedResponse = "Пользователь с id = 3 не найден";
-        when(userRepository.findById(3L)).thenReturn(Optional.empty());
+        when(userRepository.existsById(3L)).thenReturn(false);
+
+        Throwable throwable = assertThrows(NotFoundException.class, () -> itemService.getItemById(1L, 3L));
+
+        assertEquals(expectedResponse, throwable.getMessage());
+    }
+
+    @Test
+    public void getItemById_whenItemExistsAndRequesterNotFound_thenThrowNotFoundException() {
+        String expectedResponse = "Пользователь с id = 3 не найден";
+        Item item = Item.builder().id(1L).owner(User.builder().id(1L).build()).build();
+        when(itemRepository.findWithSummaryById(1L, 3L)).thenReturn(List.<Object[]>of(new Object[]{item, null, null}));
+        when(userRepository.existsById(3L)).thenReturn(false);
 
         Throwable throwable = assertThrows(NotFoundException.class, () -> itemService.getItemById(1L, 3L));
 
@@ -451,9 +496,9 @@ class ItemServiceImplTest {
     @Test
     public void getItemsByOwnerId_whenOwnerWasNotFound_thenThrowNotFoundException() {
         String expectedResponse = "Пользователь с id = 5 не найден";
-        when(userRepository.findById(5L)).thenReturn(Optional.empty());
+        when(userRepository.existsById(5L)).thenReturn(false);
 
-        Throwable throwable = assertThrows(NotFoundException.class, () -> itemService.getItemsByOwnerId(5L, PageRequest.of(0, 10)));
+        Throwable throwable = assertThrows(NotFoundException.class, () -> itemService.getItemsByOwnerId(5L, 0, PageRequest.of(0, 10)));
 
         assertEquals(expectedResponse, throwable.getMessage());
     }
@@ -461,9 +506,9 @@ class ItemServiceImplTest {
     @Test
     public void getItemsByOwnerId_whenItemsWasNotFound_thenReturnEmptyList() {
         User user = User.builder().id(1L).build();
-        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
-        when(itemRepository.findAllByOwnerId(anyLong(), any())).thenReturn(Collections.emptyList());
-        List<ItemInfoDto> dto = itemService.getItemsByOwnerId(user.getId(), PageRequest.of(0, 10));
+        when(userRepository.existsById(user.getId())).thenReturn(true);
+        when(itemRepository.findAllWithSummaryByOwnerId(anyLong(), anyLong(), any())).thenReturn(Collections.emptyList());
+        List<ItemInfoDto> dto = itemService.getItemsByOwnerId(user.getId(), 0, PageRequest.of(0, 10));
 
         assertEquals(0, dto.size());
     }
@@ -493,16 +538,12 @@ class ItemServiceImplTest {
                 .owner(owner)
                 .build();
         PageRequest request = PageRequest.of(0, 10);
-        when(userRepository.findById(owner.getId())).thenReturn(Optional.of(owner));
-        when(itemRepository.findAllByOwnerId(owner.getId(), request)).thenReturn(List.of(item1, item2, item3));
-        when(bookingRepository.findAll(any(BooleanExpression.class))).thenReturn(Collections.emptyList());
-        when(bookingRepository.findAllByItemIdInAndStartBeforeAndStatusIs(anyList(), any(LocalDateTime.class), any(BookingStatus.class)))
-                .thenReturn(Collections.emptyList());
-        when(bookingRepository.findAllByItemIdInAndStartAfterAndStatusIsNot(anyList(), any(LocalDateTime.class), any(BookingStatus.class)))
-                .thenReturn(Collections.emptyList());
+        when(userRepository.existsById(owner.getId())).thenReturn(true);
+        when(itemRepository.findAllWithSummaryByOwnerId(owner.getId(), 0, request)).thenReturn(List.of(
+                new Object[]{item1, null}, new Object[]{item2, null}, new Object[]{item3, null}));
         when(commentRepository.findAllByItemIdIn(anyList(), any(Sort.class))).thenReturn(Collections.emptyList());
 
-        List<ItemInfoDto> items = itemService.getItemsByOwnerId(owner.getId(), PageRequest.of(0, 10));
+        List<ItemInfoDto> items = itemService.getItemsByOwnerId(owner.getId(), 0, PageRequest.of(0, 10));
 
         assertEquals(3, items.size());
     }
@@ -574,26 +615,75 @@ class ItemServiceImplTest {
                 .start(LocalDateTime.now().minusDays(2))
                 .end(LocalDateTime.now())
                 .build();
-        List<Booking> bookings = List.of(booking1, booking2, booking3, booking4, booking5, booking6);
+        ItemBookingSummary actual = ItemBookingSummary.builder().itemId(item1.getId()).build();
+        actual.setLast(booking6);
+        actual.setNext(booking1);
+        ItemBookingSummary stale = ItemBookingSummary.builder().itemId(item3.getId()).build();
+        stale.setNext(booking5);
         PageRequest request = PageRequest.of(0, 10);
-        when(userRepository.findById(owner.getId())).thenReturn(Optional.of(owner));
-        when(itemRepository.findAllByOwnerId(owner.getId(), request)).thenReturn(List.of(item1, item2, item3));
-        when(bookingRepository.findAllByItemIdInAndStartBeforeAndStatusIs(anyList(), any(LocalDateTime.class), any(BookingStatus.class)))
-                .thenReturn(bookings);
-        when(bookingRepository.findAllByItemIdInAndStartAfterAndStatusIsNot(anyList(), any(LocalDateTime.class), any(BookingStatus.class)))
-                .thenReturn(bookings);
+        when(userRepository.existsById(owner.getId())).thenReturn(true);
+        when(itemRepository.findAllWithSummaryByOwnerId(owner.getId(), 0, request)).thenReturn(List.of(
+                new Object[]{item1, actual}, new Object[]{item2, null}, new Object[]{item3, stale}));
+        when(bookingRepository.findLastApprovedByItemIds(anyCollection(), any(LocalDateTime.class)))
+                .thenReturn(List.of(view(booking5, item3.getId())));
+        when(bookingRepository.findNextNotRejectedByItemIds(anyCollection(), any(LocalDateTime.class)))
+                .thenReturn(List.of(view(booking3, item2.getId())));
         when(commentRepository.findAllByItemIdIn(anyList(), any(Sort.class))).thenReturn(Collections.emptyList());
 
-
-        List<ItemInfoDto> items = itemService.getItemsByOwnerId(owner.getId(), PageRequest.of(0, 10));
+        List<ItemInfoDto> items = itemService.getItemsByOwnerId(owner.getId(), 0, PageRequest.of(0, 10));
 
         assertEquals(3, items.size());
+        assertEquals(booking6.getId(), items.get(0).getLastBooking().getId());
+        assertEquals(booking1.getId(), items.get(0).getNextBooking().getId());
+        assertNull(items.get(1).getLastBooking());
+        assertEquals(booking3.getId(), items.get(1).getNextBooking().getId());
+        assertEquals(booking5.getId(), items.get(2).getLastBooking().getId());
+        assertNull(items.get(2).getNextBooking());
+        verify(bookingRepository).findLastApprovedByItemIds(eq(Set.of(item2.getId(), item3.getId())),
+                any(LocalDateTime.class));
+        verify(bookingRepository).findNextNotRejectedByItemIds(eq(Set.of(item2.getId(), item3.getId())),
+                any(LocalDateTime.class));
+        verify(summaryRepository).insertMissing(Set.of(item2.getId()));
+        verify(summaryRepository).lockAllByItemIds(Set.of(item2.getId(), item3.getId()));
+        verify(transactionManager).getTransaction(argThat(definition -> !definition.isReadOnly()));
+    }
 
+    @Test
+    public void getItemsByOwnerId_whenSummariesAreActual_thenReadOnlyWithoutLocks() {
+        User owner = User.builder().id(1L).build();
+        Item item = Item.builder()
+                .id(1L)
+                .name("test")
+                .description("testDesc")
+                .available(true)
+                .owner(owner)
+                .build();
+        Booking next = Booking.builder()
+                .id(1L)
+                .item(item)
+                .booker(User.builder().id(2L).build())
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .build();
+        ItemBookingSummary actual = ItemBookingSummary.builder().itemId(item.getId()).build();
+        actual.setNext(next);
+        PageRequest request = PageRequest.of(0, 10);
+        when(userRepository.existsById(owner.getId())).thenReturn(true);
+        when(itemRepository.findAllWithSummaryByOwnerId(owner.getId(), 0, request))
+                .thenReturn(List.<Object[]>of(new Object[]{item, actual}));
+        when(commentRepository.findAllByItemIdIn(anyList(), any(Sort.class))).thenReturn(Collections.emptyList());
+
+        List<ItemInfoDto> items = itemService.getItemsByOwnerId(owner.getId(), 0, request);
+
+        assertEquals(next.getId(), items.get(0).getNextBooking().getId());
+        verify(transactionManager).getTransaction(argThat(TransactionDefinition::isReadOnly));
+        verify(transactionManager, never()).getTransaction(argThat(definition -> !definition.isReadOnly()));
+        verify(summaryRepository, never()).lockAllByItemIds(anyCollection());
     }
 
     @Test
     public void getItemsByNameOrDesc_whenStringIsBlank_thenReturnEmptyList() {
-        List<ItemDto> items = itemService.getItemsByNameOrDesc("", PageRequest.of(0, 10));
+        List<ItemDto> items = itemService.getItemsByNameOrDesc("", 0, PageRequest.of(0, 10));
 
         assertEquals(0, items.size());
     }
@@ -623,10 +713,85 @@ class ItemServiceImplTest {
                 .owner(owner)
                 .build();
         PageRequest request = PageRequest.of(0, 10);
-        when(itemRepository.findAllByNameOrDesc("tes", request)).thenReturn(List.of(item1, item2, item3));
+        when(itemRepository.findAvailableByNameOrDesc("tes", 0, request)).thenReturn(List.of(item1, item2, item3));
 
-        List<ItemDto> items = itemService.getItemsByNameOrDesc("tEs", PageRequest.of(0, 10));
+        List<ItemDto> items = itemService.getItemsByNameOrDesc("tEs", 0, PageRequest.of(0, 10));
 
         assertEquals(3, items.size());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void getFreeItemsByNameOrDesc_whenWindowIsGiven_thenSearchFreeItems() {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime end = start.plusDays(1);
+        PageRequest request = PageRequest.of(0, 10);
+        Item item = Item.builder()
+                .id(1L)
+                .name("test")
+                .description("testDesc")
+                .available(true)
+                .owner(User.builder().id(1L).build())
+                .build();
+        when(itemRepository.findFreeByNameOrDesc("tes", 0, start, end, request)).thenReturn(List.of(item));
+
+        List<ItemDto> items = itemService.getFreeItemsByNameOrDesc("tEs", start, end, 0, request);
+
+        assertEquals(1, items.size());
+        assertEquals(1L, items.get(0).getId());
+    }
+
+    @Test
+    public void getFreeItemsByNameOrDesc_whenStartIsNotBeforeEnd_thenThrowException() {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+        assertThrows(BookingException.class,
+                () -> itemService.getFreeItemsByNameOrDesc("test", start, start, 0, PageRequest.of(0, 10)));
+    }
+
+    @Test
+    public void getItemAvailability_whenBookingsOverlap_thenMergeBusyAndReturnFreeSlots() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(10);
+        when(itemRepository.existsById(1L)).thenReturn(true);
+        when(bookingAvailability.findBusy(1L, from, to)).thenReturn(List.of(
+                new BookingInterval(1L, 1L, from.minusDays(1), from.plusDays(1)),
+                new BookingInterval(2L, 1L, from.plusDays(3), from.plusDays(5)),
+                new BookingInterval(3L, 1L, from.plusDays(4), from.plusDays(6)),
+                new BookingInterval(4L, 1L, from.plusDays(6), from.plusDays(7))));
+
+        ItemAvailabilityDto availability = itemService.getItemAvailability(1L, from, to);
+
+        assertEquals(List.of(
+                new PeriodDto(from, from.plusDays(1)),
+                new PeriodDto(from.plusDays(3), from.plusDays(7))), availability.getBusy());
+        assertEquals(List.of(
+                new PeriodDto(from.plusDays(1), from.plusDays(3)),
+                new PeriodDto(from.plusDays(7), to)), availability.getFree());
+    }
+
+    @Test
+    public void getItemAvailability_whenNoBookings_thenWholePeriodIsFree() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(10);
+        when(itemRepository.existsById(1L)).thenReturn(true);
+
+        ItemAvailabilityDto availability = itemService.getItemAvailability(1L, from, to);
+
+        assertTrue(availability.getBusy().isEmpty());
+        assertEquals(List.of(new PeriodDto(from, to)), availability.getFree());
+    }
+
+    @Test
+    public void getItemAvailability_whenItemNotFound_thenThrowException() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+        assertThrows(NotFoundException.class, () -> itemService.getItemAvailability(1L, from, from.plusDays(1)));
+    }
+
+    @Test
+    public void getItemAvailability_whenPeriodIsEmpty_thenThrowException() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+        assertThrows(BookingException.class, () -> itemService.getItemAvailability(1L, from, from));
+    }
+}
@@ -0,0 +1,100 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PostingListTest {
+
+    @Test
+    public void add_whenIdsAreAscending_thenReturnThemInOrder() {
+        PostingList list = new PostingList();
+
+        list.add(1L);
+        list.add(200L);
+        list.add(5_000_000_000L);
+
+        assertEquals(3, list.size());
+        assertArrayEquals(new long[]{1L, 200L, 5_000_000_000L}, list.toArray());
+    }
+
+    @Test
+    public void add_whenIdIsInTheMiddleOrDuplicate_thenKeepListSortedAndDistinct() {
+        PostingList list = new PostingList();
+        list.add(10L);
+        list.add(30L);
+
+        list.add(20L);
+        list.add(10L);
+        list.add(1L);
+
+        assertArrayEquals(new long[]{1L, 10L, 20L, 30L}, list.toArray());
+    }
+
+    @Test
+    public void remove_whenIdExists_thenRemoveIt() {
+        PostingList list = new PostingList();
+        list.add(10L);
+        list.add(20L);
+        list.add(30L);
+
+        list.remove(20L);
+        list.remove(40L);
+        list.add(25L);
+
+        assertArrayEquals(new long[]{10L, 25L, 30L}, list.toArray());
+    }
+
+    @Test
+    public void remove_whenLastIdRemoved_thenListIsEmpty() {
+        PostingList list = new PostingList();
+        list.add(10L);
+
+        list.remove(10L);
+
+        assertTrue(list.isEmpty());
+        assertArrayEquals(new long[0], list.toArray());
+    }
+
+    @Test
+    public void retainAll_whenArraysIntersect_thenReturnCommonIds() {
+        PostingList list = new PostingList();
+        for (long id = 1; id <= 1000; id++) {
+            list.add(id * 3);
+        }
+        list.compact();
+
+        long[] result = list.retainAll(new long[]{2L, 3L, 4L, 6L, 2999L, 3000L, 3003L});
+
+        assertArrayEquals(new long[]{3L, 6L, 3000L}, result);
+    }
+
+    @Test
+    public void addAndRemove_whenListSpansManyBlocks_thenMatchSortedSet() {
+        PostingList list = new PostingList();
+        TreeSet<Long> expected = new TreeSet<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 20_000; i++) {
+            long id = 1 + random.nextInt(PostingList.BLOCK_SIZE * 20);
+            if (random.nextInt(3) == 0) {
+                list.remove(id);
+                expected.remove(id);
+            } else {
+                list.add(id);
+                expected.add(id);
+            }
+        }
+
+        assertEquals(expected.size(), list.size());
+        assertArrayEquals(expected.stream().mapToLong(Long::longValue).toArray(), list.toArray());
+        long[] probe = LongStream.rangeClosed(1, PostingList.BLOCK_SIZE * 20).filter(id -> id % 7 == 0).toArray();
+        assertArrayEquals(expected.stream().mapToLong(Long::longValue).filter(id -> id % 7 == 0).toArray(),
+                list.retainAll(probe));
+    }
+}
@@ -0,0 +1,153 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.availability.BookingAvailability;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TokenItemSearchEngineTest {
+    ItemRepository itemRepository;
+    BookingAvailability bookingAvailability;
+    TokenItemSearchEngine engine;
+    Map<Long, Item> storage;
+
+    @BeforeEach
+    public void beforeEach() {
+        itemRepository = mock(ItemRepository.class);
+        bookingAvailability = mock(BookingAvailability.class);
+        engine = new TokenItemSearchEngine(itemRepository, bookingAvailability);
+        storage = List.of(
+                Item.builder().id(1L).name("Дрель").description("Дрель ударная, 800 Вт").available(true).build(),
+                Item.builder().id(2L).name("Отвертка").description("Аккумуляторная отвертка").available(true).build(),
+                Item.builder().id(3L).name("Дрель-шуруповерт").description("Легкая").available(true).build()
+        ).stream().collect(Collectors.toMap(Item::getId, Function.identity()));
+        storage.values().forEach(engine::index);
+        when(itemRepository.findAllById(anyIterable())).thenAnswer(invocation -> {
+            List<Item> result = new ArrayList<>();
+            for (Object id : (Iterable<?>) invocation.getArgument(0)) {
+                if (storage.containsKey((Long) id)) {
+                    result.add(storage.get((Long) id));
+                }
+            }
+            return result;
+        });
+    }
+
+    private List<Long> ids(Collection<Item> items) {
+        return items.stream().map(Item::getId).collect(Collectors.toList());
+    }
+
+    @Test
+    public void search_whenQueryIsWordPrefix_thenReturnItemsOrderedById() {
+        List<Item> items = engine.search("ДРЕЛ", 0, PageRequest.of(0, 10));
+
+        assertEquals(List.of(1L, 3L), ids(items));
+    }
+
+    @Test
+    public void search_whenItemIsUnavailableInDb_thenSkipStaleIndexEntry() {
+        storage.put(1L, Item.builder().id(1L).name("Дрель").description("Старая").available(false).build());
+
+        List<Item> items = engine.search("дрель", 0, PageRequest.of(0, 10));
+
+        assertEquals(List.of(3L), ids(items));
+    }
+
+    @Test
+    public void remove_whenTransactionRollsBack_thenKeepItemInIndex() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            engine.remove(storage.get(1L));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(List.of(1L, 3L), ids(engine.search("дрель", 0, PageRequest.of(0, 10))));
+    }
+
+    @Test
+    public void index_whenItemChangesInTransaction_thenApplyTextFromCallAfterCommit() {
+        Item item = storage.get(2L);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            engine.remove(item);
+            item.setName("Пила");
+            item.setDescription("Ножовка");
+            engine.index(item);
+
+            assertEquals(List.of(), ids(engine.search("пила", 0, PageRequest.of(0, 10))));
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(sync -> sync.afterCommit());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(List.of(2L), ids(engine.search("пила", 0, PageRequest.of(0, 10))));
+        assertEquals(List.of(), ids(engine.search("отвертка", 0, PageRequest.of(0, 10))));
+    }
+
+    @Test
+    public void search_whenQueryHasSeveralWords_thenReturnItemsMatchingAllWords() {
+        List<Item> items = engine.search("дрель удар", 0, PageRequest.of(0, 10));
+
+        assertEquals(List.of(1L), ids(items));
+    }
+
+    @Test
+    public void search_whenQueryIsNotWordPrefix_thenReturnEmptyList() {
+        List<Item> items = engine.search("рель", 0, PageRequest.of(0, 10));
+
+        assertTrue(items.isEmpty());
+        verify(itemRepository, never()).findAllById(anyIterable());
+    }
+
+    @Test
+    public void search_whenPageIsGiven_thenSkipPreviousMatches() {
+        List<Item> items = engine.search("дрель", 0, PageRequest.of(1, 1));
+
+        assertEquals(List.of(3L), ids(items));
+    }
+
+    @Test
+    public void search_whenItemWasRemoved_thenNotReturnIt() {
+        engine.remove(storage.get(1L));
+
+        List<Item> items = engine.search("дрель", 0, PageRequest.of(0, 10));
+
+        assertEquals(List.of(3L), ids(items));
+    }
+
+    @Test
+    public void search_whenItemWasDeletedFromDb_thenSkipIt() {
+        storage.remove(3L);
+
+        List<Item> items = engine.search("дрель", 0, PageRequest.of(0, 10));
+
+        assertEquals(List.of(1L), ids(items));
+    }
+
+    @Test
+    public void search_whenIndexWasCleared_thenReturnEmptyList() {
+        engine.clear();
+
+        assertTrue(engine.search("дрель", 0, PageRequest.of(0, 10)).isEmpty());
+    }
+}
@@ -0,0 +1,172 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.availability.BookingAvailability;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TrigramItemSearchEngineTest {
+    ItemRepository itemRepository;
+    BookingAvailability bookingAvailability;
+    TrigramItemSearchEngine engine;
+    Map<Long, Item> storage;
+
+    @BeforeEach
+    public void beforeEach() {
+        itemRepository = mock(ItemRepository.class);
+        bookingAvailability = mock(BookingAvailability.class);
+        engine = new TrigramItemSearchEngine(itemRepository, bookingAvailability);
+        storage = List.of(
+                Item.builder().id(1L).name("Дрель").description("Дрель ударная, 800 Вт").available(true).build(),
+                Item.builder().id(2L).name("Отвертка").description("Аккумуляторная отвертка").available(true).build(),
+                Item.builder().id(3L).name("Лодка").description("Надувная, для рыбалки").available(true).build(),
+                Item.builder().id(4L).name("Дрель-шуруповерт").description("Легкая").available(true).build()
+        ).stream().collect(Collectors.toMap(Item::getId, Function.identity()));
+        storage.values().forEach(engine::index);
+        when(itemRepository.findAllById(anyIterable())).thenAnswer(invocation -> {
+            List<Item> result = new ArrayList<>();
+            for (Object id : (Iterable<?>) invocation.getArgument(0)) {
+                if (storage.containsKey((Long) id)) {
+                    result.add(storage.get((Long) id));
+                }
+            }
+            return result;
+        });
+    }
+
+    private List<Long> ids(Collection<Item> items) {
+        return items.stream().map(Item::getId).collect(Collectors.toList());
+    }
+
+    @Test
+    public void search_whenQueryIsInsideWord_thenReturnItemsOrderedById() {
+        List<Item> items = engine.search("рель", 0, PageRequest.of(0, 10));
+
+        assertEquals(List.of(1L, 4L), ids(items));
+    }
+
+    @Test
+    public void search_whenQueryMatchesDescriptionInAnyCase_thenReturnItem() {
+        List<Item> items = engine.search("ДУВН", 0, PageRequest.of(0, 10));
+
+        assertEquals(List.of(3L), ids(items));
+    }
+
+    @Test
+    public void search_whenAllTrigramsPresentButNotSubstring_thenSkipCandidate() {
+        Item item = Item.builder().id(5L).name("Дрель уже").description("Мощь дрель").available(true).build();
+        engine.index(item);
+        storage.put(5L, item);
+
+        List<Item> items = engine.search("ель др", 0, PageRequest.of(0, 10));
+
+        assertTrue(items.isEmpty());
+        verify(itemRepository).findAllById(List.of(5L));
+    }
+
+    @Test
+    public void search_whenPageIsGiven_thenSkipPreviousMatches() {
+        List<Item> items = engine.search("дрел", 0, PageRequest.of(1, 1));
+
+        assertEquals(List.of(4L), ids(items));
+    }
+
+    @Test
+    public void search_whenAfterIdIsGiven_thenReturnItemsAfterIt() {
+        List<Item> items = engine.search("рель", 1, PageRequest.of(0, 10));
+
+        assertEquals(List.of(4L), ids(items));
+    }
+
+    @Test
+    public void search_whenItemBecameUnavailable_thenSkipItem() {
+        Item old = storage.get(1L);
+        Item patched = Item.builder().id(1L).name("Дрель").description("Дрель ударная, 800 Вт").available(false).build();
+        engine.remove(old);
+        engine.index(patched);
+        storage.put(1L, patched);
+
+        assertEquals(List.of(4L), ids(engine.search("дрел", 0, PageRequest.of(0, 10))));
+    }
+
+    @Test
+    public void search_whenItemWasPatched_thenSearchByNewText() {
+        Item old = storage.get(3L);
+        Item patched = Item.builder().id(3L).name("Байдарка").description("Двухместная").available(true).build();
+        engine.remove(old);
+        engine.index(patched);
+        storage.put(3L, patched);
+
+        assertTrue(engine.search("лодк", 0, PageRequest.of(0, 10)).isEmpty());
+        assertEquals(List.of(3L), ids(engine.search("дарк", 0, PageRequest.of(0, 10))));
+    }
+
+    @Test
+    public void searchFree_whenItemIsBooked_thenSkipItem() {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 10, 0);
+        LocalDateTime end = start.plusDays(1);
+        when(bookingAvailability.findBusyItemIds(List.of(1L, 4L), start, end)).thenReturn(Set.of(1L));
+
+        List<Item> items = engine.searchFree("рель", start, end, 0, PageRequest.of(0, 10));
+
+        assertEquals(List.of(4L), ids(items));
+    }
+
+    @Test
+    public void searchFree_whenQueryIsShorterThanTrigram_thenUseLikeQuery() {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 10, 0);
+        LocalDateTime end = start.plusDays(1);
+        Pageable page = PageRequest.of(0, 10);
+        when(itemRepository.findFreeByNameOrDesc("др", 0, start, end, page)).thenReturn(List.of(storage.get(4L)));
+
+        List<Item> items = engine.searchFree("др", start, end, 0, page);
+
+        assertEquals(List.of(4L), ids(items));
+        verify(bookingAvailability, never()).findBusyItemIds(any(), any(), any());
+    }
+
+    @Test
+    public void search_whenQueryIsShorterThanTrigram_thenUseLikeQuery() {
+        Pageable page = PageRequest.of(0, 10);
+        when(itemRepository.findAvailableByNameOrDesc("др", 0, page)).thenReturn(List.of(storage.get(1L)));
+
+        List<Item> items = engine.search("др", 0, page);
+
+        assertEquals(List.of(1L), ids(items));
+        verify(itemRepository, never()).findAllById(anyIterable());
+    }
+
+    @Test
+    public void rebuild_whenDbIsFilled_thenIndexAllItems() {
+        engine.clear();
+        when(itemRepository.findAllByIdGreaterThan(anyLong(), any(Pageable.class)))
+                .thenReturn(new ArrayList<>(storage.values()))
+                .thenReturn(List.of());
+
+        engine.rebuild();
+
+        assertEquals(List.of(2L), ids(engine.search("аккум", 0, PageRequest.of(0, 10))));
+    }
+}
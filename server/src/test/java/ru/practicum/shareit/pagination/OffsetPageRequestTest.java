@@ -0,0 +1,48 @@
+package ru.practicum.shareit.pagination;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.exception.model.PaginationException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class OffsetPageRequestTest {
+
+    @Test
+    public void getOffset_whenFromIsNotMultipleOfSize_thenStartFromExactRecord() {
+        Pageable request = OffsetPageRequest.of(3, 2);
+
+        assertEquals(3, request.getOffset());
+        assertEquals(2, request.getPageSize());
+        assertEquals(1, request.getPageNumber());
+    }
+
+    @Test
+    public void next_whenCalled_thenShiftBySize() {
+        Sort sort = Sort.by(Sort.Direction.DESC, "id");
+        Pageable request = OffsetPageRequest.of(3, 2, sort).next();
+
+        assertEquals(OffsetPageRequest.of(5, 2, sort), request);
+    }
+
+    @Test
+    public void previousOrFirst_whenOffsetIsLessThanSize_thenReturnFirst() {
+        Pageable request = OffsetPageRequest.of(1, 2).previousOrFirst();
+
+        assertEquals(0, request.getOffset());
+        assertFalse(request.hasPrevious());
+    }
+
+    @Test
+    public void of_whenOffsetIsNegative_thenThrowPaginationException() {
+        assertThrows(PaginationException.class, () -> OffsetPageRequest.of(-1, 2));
+    }
+
+    @Test
+    public void of_whenSizeIsNotPositive_thenThrowPaginationException() {
+        assertThrows(PaginationException.class, () -> OffsetPageRequest.of(0, 0));
+    }
+}
@@ -0,0 +1,32 @@
+package ru.practicum.shareit.pagination;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.exception.model.PaginationException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PageCursorTest {
+
+    @Test
+    public void decode_whenCursorWasEncoded_thenReturnSameId() {
+        String cursor = PageCursor.encode(123456789L);
+
+        assertEquals(123456789L, PageCursor.decode(cursor));
+    }
+
+    @Test
+    public void decode_whenCursorIsNotBase64_thenThrowPaginationException() {
+        assertThrows(PaginationException.class, () -> PageCursor.decode("not a cursor"));
+    }
+
+    @Test
+    public void decode_whenCursorIsNotNumber_thenThrowPaginationException() {
+        assertThrows(PaginationException.class, () -> PageCursor.decode("YWJj"));
+    }
+
+    @Test
+    public void decode_whenIdIsNegative_thenThrowPaginationException() {
+        assertThrows(PaginationException.class, () -> PageCursor.decode(PageCursor.encode(-1L)));
+    }
+}
@@ -0,0 +1,38 @@
+package ru.practicum.shareit.pagination;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.exception.model.PaginationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TimeCursorTest {
+
+    @Test
+    public void decode_whenCursorWasEncoded_thenReturnSameTimeAndId() {
+        TimeCursor cursor = new TimeCursor(LocalDateTime.of(2023, 5, 1, 12, 30, 15, 123456000), 42L);
+
+        assertEquals(cursor, TimeCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    public void decode_whenCursorIsNotBase64_thenThrowPaginationException() {
+        assertThrows(PaginationException.class, () -> TimeCursor.decode("not a cursor"));
+    }
+
+    @Test
+    public void decode_whenCursorHasNoSeparator_thenThrowPaginationException() {
+        assertThrows(PaginationException.class, () -> TimeCursor.decode(PageCursor.encode(1L)));
+    }
+
+    @Test
+    public void decode_whenTimeIsInvalid_thenThrowPaginationException() {
+        String cursor = Base64.getUrlEncoder().encodeToString("yesterday|1".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(PaginationException.class, () -> TimeCursor.decode(cursor));
+    }
+}
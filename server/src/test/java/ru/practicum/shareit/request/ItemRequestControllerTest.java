@@ -8,6 +8,8 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.pagination.PageCursor;
+import ru.practicum.shareit.pagination.TimeCursor;
 import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestInfoDto;
@@ -17,10 +19,12 @@ import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = ItemRequestController.class)
@@ -121,7 +125,7 @@ class ItemRequestControllerTest {
                 .description("test")
                 .build();
         List<ItemRequestInfoDto> result = List.of(first, second, third);
-        when(service.getAllRequests(anyLong(), any(Pageable.class))).thenReturn(result);
+        when(service.getAllRequests(anyLong(), any(), any(Pageable.class))).thenReturn(result);
 
         mvc.perform(get("/requests/all")
                         .header("X-Sharer-User-Id", "1")
@@ -133,6 +137,29 @@ class ItemRequestControllerTest {
                 .andExpect(content().json(mapper.writeValueAsString(result)));
     }
 
+    @Test
+    public void getAllOthers_whenCursorIsGiven_thenReturnNextCursor() throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        TimeCursor cursor = new TimeCursor(now, 5L);
+        ItemRequestInfoDto request = ItemRequestInfoDto.builder()
+                .id(4L)
+                .created(now)
+                .description("test")
+                .build();
+        List<ItemRequestInfoDto> result = List.of(request);
+        when(service.getAllRequests(eq(1L), eq(cursor), any(Pageable.class))).thenReturn(result);
+
+        mvc.perform(get("/requests/all")
+                        .header("X-Sharer-User-Id", "1")
+                        .param("size", "1")
+                        .param("cursor", cursor.encode())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(PageCursor.NEXT_CURSOR_HEADER, new TimeCursor(now, 4L).encode()))
+                .andExpect(content().json(mapper.writeValueAsString(result)));
+    }
+
     @Test
     public void getAllOthers_whenMissHeader_thenReturnStatus500() throws Exception {
 
@@ -163,7 +190,7 @@ class ItemRequestControllerTest {
                 .description("test")
                 .build();
         List<ItemRequestInfoDto> result = List.of(first, second, third);
-        when(service.getAllRequests(anyLong(), any(Pageable.class))).thenReturn(result);
+        when(service.getAllRequests(anyLong(), any(), any(Pageable.class))).thenReturn(result);
 
         mvc.perform(get("/requests/all")
                         .header("X-Sharer-User-Id", "1")
@@ -4,9 +4,13 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
+import ru.practicum.shareit.pagination.TimeCursor;
 import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestInfoDto;
@@ -15,6 +19,7 @@ import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -118,7 +123,7 @@ class ItemRequestServiceImplIntTest {
                 .description("desc2")
                 .build());
 
-        List<ItemRequestInfoDto> allRequests = itemRequestService.getAllRequests(user.getId(), PageRequest.of(0, 10));
+        List<ItemRequestInfoDto> allRequests = itemRequestService.getAllRequests(user.getId(), null, PageRequest.of(0, 10));
         ItemRequestInfoDto requestInfoDto = allRequests.get(0);
 
         // Assert
@@ -130,6 +135,46 @@ class ItemRequestServiceImplIntTest {
         assertFalse(requestInfoDto.getItems().isEmpty());
     }
 
+    @Test
+    void getAllRequests_whenCursorGiven_thenReturnRequestsAfterCursor() {
+        User owner = userRepository.save(User.builder()
+                .name("name")
+                .email("nice2@email.com")
+                .build());
+        User user = userRepository.save(User.builder()
+                .name("name")
+                .email("nice@email.com")
+                .build());
+        LocalDateTime created = LocalDateTime.now().withNano(0);
+        ItemRequest oldest = requestRepository.save(ItemRequest.builder()
+                .owner(owner)
+                .description("oldest")
+                .created(created.minusHours(1))
+                .build());
+        ItemRequest first = requestRepository.save(ItemRequest.builder()
+                .owner(owner)
+                .description("first")
+                .created(created)
+                .build());
+        ItemRequest second = requestRepository.save(ItemRequest.builder()
+                .owner(owner)
+                .description("second")
+                .created(created)
+                .build());
+        Pageable pageable = OffsetPageRequest.of(0, 2,
+                Sort.by(Sort.Direction.DESC, "created").and(Sort.by(Sort.Direction.DESC, "id")));
+
+        List<ItemRequestInfoDto> firstPage = itemRequestService.getAllRequests(user.getId(), null, pageable);
+        ItemRequestInfoDto last = firstPage.get(firstPage.size() - 1);
+        List<ItemRequestInfoDto> secondPage = itemRequestService.getAllRequests(user.getId(),
+                new TimeCursor(last.getCreated(), last.getId()), pageable);
+
+        assertEquals(List.of(second.getId(), first.getId()),
+                firstPage.stream().map(ItemRequestInfoDto::getId).collect(Collectors.toList()));
+        assertEquals(List.of(oldest.getId()),
+                secondPage.stream().map(ItemRequestInfoDto::getId).collect(Collectors.toList()));
+    }
+
     @Test
     void getRequestById_whenDataIsCorrect_thenReturnNeedRequest() {
         User owner = userRepository.save(User.builder()
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.request;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.data.domain.PageRequest;
@@ -14,7 +15,9 @@ import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestInfoDto;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserDirectory;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
@@ -42,7 +45,8 @@ class ItemRequestServiceImplTest {
         userRepository = mock(UserRepository.class);
         itemRepository = mock(ItemRepository.class);
         mapper = new RequestMapper(new ItemMapper());
-        service = new ItemRequestServiceImpl(requestRepository, userRepository, itemRepository, mapper);
+        service = new ItemRequestServiceImpl(requestRepository, userRepository,
+                new UserDirectory(userRepository, 100, Duration.ofMinutes(1), new SimpleMeterRegistry()), itemRepository, mapper);
     }
 
     @Test
@@ -55,7 +59,7 @@ class ItemRequestServiceImplTest {
                 .created(LocalDateTime.now())
                 .owner(owner)
                 .build();
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(owner));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
         when(requestRepository.save(any(ItemRequest.class))).thenReturn(createdRequest);
 
         ItemRequestDto actual = service.createItemRequest(dto, owner.getId());
@@ -68,7 +72,7 @@ class ItemRequestServiceImplTest {
     @Test
     public void createItemRequest_whenUserWasNotFound_thenThrowException() {
         long userId = 1L;
-        when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(userRepository.existsById(anyLong())).thenReturn(false);
         String expectedResponse = "Пользователь с id = " + userId + " не найден";
 
         Throwable throwable = assertThrows(NotFoundException.class, () -> service.createItemRequest(any(), userId));
@@ -79,7 +83,7 @@ class ItemRequestServiceImplTest {
     @Test
     public void getUserRequests_whenUserWasNotFound_thenThrowException() {
         String expectedResponse = "Пользователь с id = 1 не найден";
-        when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(userRepository.existsById(anyLong())).thenReturn(false);
 
         Throwable throwable = assertThrows(NotFoundException.class,
                 () -> service.getUserRequests(1L));
@@ -103,7 +107,7 @@ class ItemRequestServiceImplTest {
                 .description("second")
                 .created(LocalDateTime.of(2022, 1, 12, 10, 10))
                 .build();
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(owner));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
         when(requestRepository.findAllByOwnerId(owner.getId(), sort)).thenReturn(List.of(first, second));
         when(itemRepository.findAllByRequestIdIn(anyList())).thenReturn(Collections.emptyList());
 
@@ -143,7 +147,7 @@ class ItemRequestServiceImplTest {
                 .requestId(first.getId())
                 .available(true)
                 .build();
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(owner));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
         when(requestRepository.findAllByOwnerId(anyLong(), any(Sort.class))).thenReturn(List.of(first, second));
         when(itemRepository.findAllByRequestIdIn(anyList())).thenReturn(List.of(firstItem, seoncdItem));
 
@@ -157,7 +161,7 @@ class ItemRequestServiceImplTest {
     @Test
     public void getUserRequests_whenUserWasFoundAndRequestsWasNot_thenReturnEmptyList() {
         User owner = User.builder().id(1L).build();
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(owner));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
         when(requestRepository.findAllByOwnerId(anyLong(), any(Sort.class))).thenReturn(Collections.emptyList());
 
         List<ItemRequestInfoDto> result = service.getUserRequests(owner.getId());
@@ -182,11 +186,11 @@ class ItemRequestServiceImplTest {
                 .description("second")
                 .created(LocalDateTime.of(2022, 1, 12, 10, 10))
                 .build();
-        when(userRepository.findById(owner.getId())).thenReturn(Optional.of(owner));
+        when(userRepository.existsById(owner.getId())).thenReturn(true);
         when(requestRepository.findAllByOwnerIdNot(anyLong(), any(Pageable.class))).thenReturn(List.of(first, second));
         when(itemRepository.findAllByRequestIdIn(anyList())).thenReturn(Collections.emptyList());
 
-        List<ItemRequestInfoDto> actual = service.getAllRequests(owner.getId(), PageRequest.of(0, 10));
+        List<ItemRequestInfoDto> actual = service.getAllRequests(owner.getId(), null, PageRequest.of(0, 10));
 
         assertEquals(2, actual.size());
         assertEquals(0, actual.get(0).getItems().size());
@@ -223,11 +227,11 @@ class ItemRequestServiceImplTest {
                 .requestId(first.getId())
                 .available(true)
                 .build();
-        when(userRepository.findById(owner.getId())).thenReturn(Optional.of(owner));
+        when(userRepository.existsById(owner.getId())).thenReturn(true);
         when(requestRepository.findAllByOwnerIdNot(anyLong(), any(Pageable.class))).thenReturn(List.of(first, second));
         when(itemRepository.findAllByRequestIdIn(anyList())).thenReturn(List.of(firstItem, seoncdItem));
 
-        List<ItemRequestInfoDto> actual = service.getAllRequests(owner.getId(), PageRequest.of(0, 10));
+        List<ItemRequestInfoDto> actual = service.getAllRequests(owner.getId(), null, PageRequest.of(0, 10));
 
         assertEquals(2, actual.size());
         assertEquals(2, actual.get(0).getItems().size());
@@ -264,11 +268,11 @@ class ItemRequestServiceImplTest {
                 .requestId(first.getId())
                 .available(true)
                 .build();
-        when(userRepository.findById(owner.getId())).thenReturn(Optional.of(owner));
+        when(userRepository.existsById(owner.getId())).thenReturn(true);
         when(requestRepository.findAllByOwnerIdNot(anyLong(), any(Pageable.class))).thenReturn(List.of(first, second));
         when(itemRepository.findAllByRequestIdIn(anyList())).thenReturn(List.of(firstItem, seoncdItem));
 
-        List<ItemRequestInfoDto> actual = service.getAllRequests(owner.getId(), PageRequest.of(1, 5));
+        List<ItemRequestInfoDto> actual = service.getAllRequests(owner.getId(), null, PageRequest.of(1, 5));
 
         assertEquals(2, actual.size());
         assertEquals(2, actual.get(0).getItems().size());
@@ -278,10 +282,10 @@ class ItemRequestServiceImplTest {
     @Test
     public void getAllRequests_whenUserWasNotFound_thenThrowException() {
         String expectedResponse = "Пользователь с id = 1 не найден";
-        when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(userRepository.existsById(anyLong())).thenReturn(false);
 
         Throwable throwable = assertThrows(NotFoundException.class,
-                () -> service.getAllRequests(1L, PageRequest.of(0, 10)));
+                () -> service.getAllRequests(1L, null, PageRequest.of(0, 10)));
 
         assertEquals(expectedResponse, throwable.getMessage());
     }
@@ -310,7 +314,7 @@ class ItemRequestServiceImplTest {
                 .requestId(first.getId())
                 .available(true)
                 .build();
-        when(userRepository.findById(owner.getId())).thenReturn(Optional.of(owner));
+        when(userRepository.existsById(owner.getId())).thenReturn(true);
         when(requestRepository.findById(first.getId())).thenReturn(Optional.of(first));
         when(itemRepository.findAllByRequestId(first.getId())).thenReturn(List.of(firstItem, seoncdItem));
 
@@ -329,7 +333,7 @@ class ItemRequestServiceImplTest {
                 .description("first")
                 .created(LocalDateTime.of(2020, 1, 12, 10, 10))
                 .build();
-        when(userRepository.findById(owner.getId())).thenReturn(Optional.of(owner));
+        when(userRepository.existsById(owner.getId())).thenReturn(true);
         when(requestRepository.findById(first.getId())).thenReturn(Optional.of(first));
         when(itemRepository.findAllByRequestId(first.getId())).thenReturn(Collections.emptyList());
 
@@ -343,7 +347,7 @@ class ItemRequestServiceImplTest {
     public void getRequestById_whenUserWasFoundAndRequestWastFound_thenThrowException() {
         User owner = User.builder().id(1L).build();
         String expectedResponse = "Запрос с id = 1 не найден";
-        when(userRepository.findById(owner.getId())).thenReturn(Optional.of(owner));
+        when(userRepository.existsById(owner.getId())).thenReturn(true);
         when(requestRepository.findById(1L)).thenReturn(Optional.empty());
 
         Throwable throwable = assertThrows(NotFoundException.class, () -> service.getRequestById(1L, owner.getId()));
@@ -354,7 +358,7 @@ class ItemRequestServiceImplTest {
     @Test
     public void getRequestById_whenUserWasNotFound_thenThrowException() {
         String expectedResponse = "Пользователь с id = 1 не найден";
-        when(userRepository.findById(1L)).thenReturn(Optional.empty());
+        when(userRepository.existsById(1L)).thenReturn(false);
 
         Throwable throwable = assertThrows(NotFoundException.class, () -> service.getRequestById(1L, 1L));
 
@@ -0,0 +1,85 @@
+package ru.practicum.shareit.user.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.exception.model.NotFoundException;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserDirectoryTest {
+    UserRepository userRepository;
+    UserDirectory directory;
+
+    @BeforeEach
+    public void beforeEach() {
+        userRepository = mock(UserRepository.class);
+        directory = new UserDirectory(userRepository, 100, Duration.ofMinutes(1), new SimpleMeterRegistry());
+    }
+
+    @Test
+    public void exists_whenUserExists_thenQueryOnce() {
+        when(userRepository.existsById(1L)).thenReturn(true);
+
+        assertTrue(directory.exists(1L));
+        assertTrue(directory.exists(1L));
+
+        verify(userRepository, times(1)).existsById(1L);
+    }
+
+    @Test
+    public void exists_whenUserNotExists_thenNotCacheAbsence() {
+        when(userRepository.existsById(1L)).thenReturn(false);
+
+        assertFalse(directory.exists(1L));
+        when(userRepository.existsById(1L)).thenReturn(true);
+
+        assertTrue(directory.exists(1L));
+        verify(userRepository, times(2)).existsById(1L);
+    }
+
+    @Test
+    public void evict_whenUserWasDeleted_thenQueryAgain() {
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(userRepository.existsById(2L)).thenReturn(true);
+        directory.exists(1L);
+        directory.exists(2L);
+
+        directory.evict(1L);
+        when(userRepository.existsById(1L)).thenReturn(false);
+
+        assertFalse(directory.exists(1L));
+        assertTrue(directory.exists(2L));
+        verify(userRepository, times(1)).existsById(2L);
+    }
+
+    @Test
+    public void evictAll_whenCalled_thenQueryAgain() {
+        when(userRepository.existsById(1L)).thenReturn(true);
+        directory.exists(1L);
+
+        directory.evictAll();
+        directory.exists(1L);
+
+        verify(userRepository, times(2)).existsById(1L);
+    }
+
+    @Test
+    public void requireExists_whenUserNotExists_thenThrowNotFoundException() {
+        when(userRepository.existsById(3L)).thenReturn(false);
+
+        Throwable throwable = assertThrows(NotFoundException.class, () -> directory.requireExists(3L));
+
+        assertEquals("Пользователь с id = 3 не найден", throwable.getMessage());
+    }
+}
@@ -1,10 +1,14 @@
 package ru.practicum.shareit.user.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.availability.BookingAvailability;
 import ru.practicum.shareit.comment.CommentRepository;
 import ru.practicum.shareit.exception.model.NotFoundException;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemSearchCache;
+import ru.practicum.shareit.item.service.ItemSearchEngine;
 import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserMapper;
@@ -13,6 +17,7 @@ import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserUpdateDto;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -30,6 +35,9 @@ class UserServiceImplTest {
     ItemRepository itemRepository;
     CommentRepository commentRepository;
     ItemRequestRepository requestRepository;
+    ItemSearchEngine itemSearchEngine;
+    ItemSearchCache itemSearchCache;
+    BookingAvailability bookingAvailability;
     UserServiceImpl service;
 
     UserMapper mapper;
@@ -40,8 +48,13 @@ class UserServiceImplTest {
         itemRepository = mock(ItemRepository.class);
         commentRepository = mock(CommentRepository.class);
         requestRepository = mock(ItemRequestRepository.class);
+        itemSearchEngine = mock(ItemSearchEngine.class);
+        itemSearchCache = mock(ItemSearchCache.class);
+        bookingAvailability = mock(BookingAvailability.class);
         mapper = new UserMapper();
-        service = new UserServiceImpl(userRepository, itemRepository, commentRepository, requestRepository, mapper);
+        service = new UserServiceImpl(userRepository, itemRepository, commentRepository, requestRepository, mapper,
+                itemSearchEngine, itemSearchCache, bookingAvailability,
+                new UserDirectory(userRepository, 100, Duration.ofMinutes(1), new SimpleMeterRegistry()));
     }
 
     void assertEqualsUser(UserDto o1, UserDto o2) {
@@ -167,6 +180,8 @@ class UserServiceImplTest {
         verify(commentRepository, times(1)).deleteAllByAuthorId(userId);
         verify(requestRepository, times(1)).deleteAllByOwnerId(userId);
         verify(itemRepository, times(1)).deleteAllByOwnerId(userId);
+        verify(itemSearchCache, times(1)).invalidate(List.of());
+        verify(bookingAvailability, times(1)).removeBooker(userId);
         verify(userRepository, times(1)).deleteById(userId);
     }
 
@@ -178,6 +193,9 @@ class UserServiceImplTest {
         verify(commentRepository, times(1)).deleteAll();
         verify(requestRepository, times(1)).deleteAll();
         verify(itemRepository, times(1)).deleteAll();
+        verify(itemSearchEngine, times(1)).clear();
+        verify(itemSearchCache, times(1)).invalidateAll();
+        verify(bookingAvailability, times(1)).clear();
         verify(userRepository, times(1)).deleteAll();
     }
 }
\ No newline at end of file